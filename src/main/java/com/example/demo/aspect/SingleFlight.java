@@ -0,0 +1,13 @@
+package com.example.demo.aspect;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface SingleFlight {
+}
+
+// Marks a read method whose concurrent calls with equal arguments can share one execution. The result is handed to every waiting caller, so it must be treated as read-only.
@@ -0,0 +1,76 @@
+package com.example.demo.aspect;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class SingleFlightAspect {
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<Flight, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    @Around("@annotation(com.example.demo.aspect.SingleFlight)")
+    public Object coalesce(ProceedingJoinPoint joinPoint) throws Throwable {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        String name = method.getDeclaringClass().getSimpleName() + "." + method.getName();
+        Flight flight = new Flight(method, Arrays.asList(joinPoint.getArgs()));
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        CompletableFuture<Object> leader = inFlight.putIfAbsent(flight, future);
+
+        if (leader != null) {
+            requests(name, "coalesced").increment();
+            Timer.Sample sample = Timer.start(meterRegistry);
+            try {
+                return leader.join();
+            } catch (CompletionException e) {
+                throw e.getCause();
+            } finally {
+                sample.stop(meterRegistry.timer("singleflight.wait", "method", name));
+            }
+        }
+        requests(name, "leader").increment();
+        try {
+            Object result = joinPoint.proceed();
+            inFlight.remove(flight, future);
+            future.complete(result);
+            return result;
+        } catch (Throwable e) {
+            inFlight.remove(flight, future);
+            future.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private Counter requests(String name, String result) {
+        return meterRegistry.counter("singleflight.requests", "method", name, "result", result);
+    }
+
+    private record Flight(Method method, List<Object> args) {
+    }
+}
+
+// A call to a @SingleFlight method first registers a future under (method, arguments). The caller that registers it (the leader) runs the method; callers with equal arguments that arrive while it is running wait for the same future instead of issuing their own query.
+// The entry is removed before the future is completed, so a call that starts after the result is published runs again and never receives a result older than its own request.
+// HIGHEST_PRECEDENCE puts coalescing outside @Cacheable and @Transactional, so waiting callers do not open a transaction or take a connection from the pool.
+// Metrics: singleflight.requests{result=leader|coalesced} gives the coalescing ratio per method, singleflight.wait records how long coalesced callers waited for the leader.
@@ -0,0 +1,39 @@
+package com.example.demo.configuration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+@Configuration
+@EnableCaching
+public class CacheConfiguration {
+
+    public static final String PERFUME = "perfume";
+    public static final String PERFUMES = "perfumes";
+    public static final String CART = "cart";
+    public static final String REVIEWS = "reviews";
+
+    public static final String CATALOG_KEY = "@catalogVersion.current() + ':' + ";
+
+    @Value("${catalog.cache.spec:maximumSize=1000,expireAfterWrite=10m,recordStats}")
+    private String cacheSpec;
+
+    @Bean
+    public CacheManager cacheManager() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setCacheSpecification(cacheSpec);
+        cacheManager.setCacheNames(List.of(PERFUME, PERFUMES, CART, REVIEWS));
+        cacheManager.setAllowNullValues(false);
+        return cacheManager;
+    }
+}
+
+// The catalog caches are read-through: @Cacheable(sync = true) loads a missing key through Caffeine's compute, so concurrent misses for the same key wait for one database query instead of each running their own.
+// Every key starts with the current CatalogVersion (CATALOG_KEY). savePerfume, deletePerfume and review writes bump the version after commit, so readers move to fresh keys at once and the entries of the old version are evicted by size or TTL.
+// recordStats in the cache spec lets actuator publish cache.gets{result=hit|miss}, cache.puts and cache.evictions for every cache, available at /actuator/metrics to ADMIN users only (WebSecurityConfiguration).
+// The caches hold read-only projections (FullPerfumeProjection, immutable lists of PerfumeProjection and ReviewProjection), never entities: a cached value is shared by every request, so it must not be mutable or carry lazy associations bound to a closed session. The mappers copy them into fresh response DTOs.
@@ -1,5 +1,6 @@
 package com.example.demo.configuration;
 
+import com.example.demo.service.email.PooledJavaMailSender;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -9,6 +10,7 @@ import org.thymeleaf.spring6.SpringTemplateEngine;
 import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
 import org.thymeleaf.templateresolver.ITemplateResolver;
 
+import java.time.Duration;
 import java.util.Properties;
 
 @Configuration
@@ -35,12 +37,33 @@ public class EmailConfiguration {
     @Value("${spring.mail.properties.mail.smtp.starttls.enable}")
     private String enable;
 
+    @Value("${spring.mail.properties.mail.smtps.connectiontimeout:10000}")
+    private String connectionTimeout;
+
+    @Value("${spring.mail.properties.mail.smtps.timeout:10000}")
+    private String timeout;
+
+    @Value("${spring.mail.properties.mail.smtps.writetimeout:10000}")
+    private String writeTimeout;
+
     @Value("${mail.debug}")
     private String debug;
 
+    @Value("${mail.pool.size:2}")
+    private int poolSize;
+
+    @Value("${mail.pool.max-messages-per-connection:100}")
+    private int maxMessagesPerConnection;
+
+    @Value("${mail.pool.idle-timeout:PT1M}")
+    private Duration idleTimeout;
+
+    @Value("${mail.pool.acquire-timeout:PT30S}")
+    private Duration acquireTimeout;
+
     @Bean
     public JavaMailSender getMailSender() {
-        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        JavaMailSenderImpl mailSender = new PooledJavaMailSender(poolSize, maxMessagesPerConnection, idleTimeout, acquireTimeout);
         mailSender.setHost(host);
         mailSender.setPort(port);
         mailSender.setUsername(username);
@@ -50,6 +73,9 @@ public class EmailConfiguration {
         mailProperties.setProperty("mail.debug", debug);
         mailProperties.setProperty("mail.smtp.auth", auth);
         mailProperties.setProperty("mail.smtp.starttls.enable", enable);
+        mailProperties.setProperty("mail." + protocol + ".connectiontimeout", connectionTimeout);
+        mailProperties.setProperty("mail." + protocol + ".timeout", timeout);
+        mailProperties.setProperty("mail." + protocol + ".writetimeout", writeTimeout);
         return mailSender;
     }
 
@@ -60,6 +86,8 @@ public class EmailConfiguration {
         templateResolver.setSuffix(".html");
         templateResolver.setTemplateMode("HTML");
         templateResolver.setCharacterEncoding("UTF-8");
+        templateResolver.setCacheable(true);
+        templateResolver.setCacheTTLMs(null);
         return templateResolver;
     }
 
@@ -78,4 +106,7 @@ public class EmailConfiguration {
 // setPrefix("mail-templates/") indicates that the templates are located in the "mail-templates" directory.
 // setSuffix(".html") indicates that the templates have an HTML file extension.
 // setTemplateMode("HTML") specifies that the templates are written in HTML markup.
-// Thymeleaf will then process the template, substituting variables and expressions with actual values, and generate the final HTML content.
\ No newline at end of file
+// Thymeleaf will then process the template, substituting variables and expressions with actual values, and generate the final HTML content.
+// setCacheable(true) with no TTL keeps every parsed mail template in the engine's template cache for the life of the application, so rendering a mail only evaluates its expressions and never reads or parses the HTML file again.
+// getMailSender() returns a PooledJavaMailSender, which keeps up to mail.pool.size authenticated SMTP connections open between sends (see its comments); Spring calls its close() method on shutdown.
+// The connection, read and write timeouts (milliseconds) are set for the configured protocol: without them JavaMail waits forever on an SMTP server that stops answering, and the pooled connection and the thread sending through it would hang with it.
@@ -1,16 +1,22 @@
 package com.example.demo.configuration;
 
+import com.example.demo.controller.interceptor.CatalogETagInterceptor;
+import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 @Configuration
+@RequiredArgsConstructor
 public class MvcConfiguration implements WebMvcConfigurer {
 
+    private final CatalogETagInterceptor catalogETagInterceptor;
+
     @Value("${hostname}")
     private String hostname;
 
@@ -25,13 +31,18 @@ public class MvcConfiguration implements WebMvcConfigurer {
                 .addResourceLocations("classpath:/static/");
     }
 
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(catalogETagInterceptor)
+                .addPathPatterns("/api/v1/perfumes/**", "/api/v1/review/**");
+    }
+
     @Override
     public void addCorsMappings(CorsRegistry registry) {
         registry.addMapping("/api/v1/**")
                 .allowedOrigins("http://" + hostname)
                 .allowedMethods("HEAD", "OPTIONS", "GET", "POST", "PUT", "PATCH", "DELETE")
-                .exposedHeaders("page-total-count")
-                .exposedHeaders("page-total-elements")
+                .exposedHeaders("page-total-count", "page-total-elements", "page-next-cursor", "ETag")
                 .allowedHeaders("*");
     }
 }
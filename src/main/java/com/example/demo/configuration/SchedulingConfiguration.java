@@ -0,0 +1,11 @@
+package com.example.demo.configuration;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+@Configuration
+@EnableScheduling
+public class SchedulingConfiguration {
+}
+
+// @EnableScheduling registers the @Scheduled methods of the application's beans, e.g. the periodic PerfumeBestsellers checkpoint. They run on the single-threaded default scheduler.
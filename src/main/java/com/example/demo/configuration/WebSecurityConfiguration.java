@@ -45,6 +45,8 @@ public class WebSecurityConfiguration {
                 .csrf(csrf -> csrf.disable())
                 .sessionManagement(sess -> sess.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests((authz) -> authz
+                        .requestMatchers("/api/v1/order/reservation", "/api/v1/order/reservation/**").authenticated()
+                        .requestMatchers("/actuator/metrics", "/actuator/metrics/**").hasAuthority("ADMIN")
                         .requestMatchers(
                                 "/api/v1/auth/**",
                                 "/api/v1/auth/login",
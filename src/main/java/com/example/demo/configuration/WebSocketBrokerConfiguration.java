@@ -0,0 +1,26 @@
+package com.example.demo.configuration;
+
+import com.example.demo.service.broadcast.BoundedSubProtocolWebSocketHandler;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.support.AbstractSubscribableChannel;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.config.annotation.DelegatingWebSocketMessageBrokerConfiguration;
+
+@Configuration
+public class WebSocketBrokerConfiguration extends DelegatingWebSocketMessageBrokerConfiguration {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Bean
+    @Override
+    public WebSocketHandler subProtocolWebSocketHandler(AbstractSubscribableChannel clientInboundChannel,
+                                                        AbstractSubscribableChannel clientOutboundChannel) {
+        return new BoundedSubProtocolWebSocketHandler(clientInboundChannel, clientOutboundChannel, meterRegistry);
+    }
+}
+
+// This class takes the place of @EnableWebSocketMessageBroker, which imports DelegatingWebSocketMessageBrokerConfiguration as is. Extending it keeps every WebSocketMessageBrokerConfigurer (WebSocketConfiguration and Spring Boot's message converters) and only replaces the STOMP handler with BoundedSubProtocolWebSocketHandler, whose session decorator drops instead of disconnecting.
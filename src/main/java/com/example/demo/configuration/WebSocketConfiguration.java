@@ -1,21 +1,36 @@
 package com.example.demo.configuration;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
-import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
+
+import java.time.Duration;
 
 @Configuration
-@EnableWebSocketMessageBroker
 public class WebSocketConfiguration implements WebSocketMessageBrokerConfigurer {
 
+    @Value("${websocket.send-time-limit:PT10S}")
+    private Duration sendTimeLimit;
+
+    @Value("${websocket.send-buffer-size-limit:512KB}")
+    private DataSize sendBufferSizeLimit;
+
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
         config.enableSimpleBroker("/topic");
         config.setApplicationDestinationPrefixes("/app");
     }
 
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        registration.setSendTimeLimit((int) sendTimeLimit.toMillis())
+                .setSendBufferSizeLimit((int) sendBufferSizeLimit.toBytes());
+    }
+
     @Override
     public void registerStompEndpoints(StompEndpointRegistry registry) {
         registry.addEndpoint("/websocket").setAllowedOrigins("*").withSockJS();
@@ -23,7 +38,7 @@ public class WebSocketConfiguration implements WebSocketMessageBrokerConfigurer
 }
 
 // The message broker receives messages from publishers and routes them to the appropriate subscribers based on the specified destinations. It may also perform additional tasks such as message transformation, filtering, and buffering.
-// @EnableWebSocketMessageBroker is used to enable WebSocket message handling with a message broker.
+// WebSocket message handling with a message broker is enabled by WebSocketBrokerConfiguration, which stands in for @EnableWebSocketMessageBroker.
 
 // By invoking config.enableStompBrokerRelay(), you are configuring your application to use a STOMP broker relay as the message broker. A STOMP broker relay is responsible for routing messages between clients and servers in a distributed messaging system. When using the STOMP broker relay, your application will rely on an external message broker (such as RabbitMQ or ActiveMQ).
 // config.enableSimpleBroker() is used to enable a simple in-memory message broker for message routing.
@@ -31,6 +46,8 @@ public class WebSocketConfiguration implements WebSocketMessageBrokerConfigurer
 
 // By config.setApplicationDestinationPrefixes("/app") you specify a common prefix for the destinations to which clients will send messages.
 
+// configureWebSocketTransport bounds what a slow client can hold up: every session gets a send buffer of websocket.send-buffer-size-limit that drops its oldest messages when full (BoundedSubProtocolWebSocketHandler), and a session whose send makes no progress for websocket.send-time-limit is closed.
+
 // registerStompEndpoints method is used to register WebSocket endpoints for STOMP (Simple Text Oriented Messaging Protocol) communication. These endpoints are responsible for handling WebSocket communication and enabling clients to establish a WebSocket connection.
 // we do not use registerStompEndpoints method when using config.enableStompBrokerRelay as the relay handles the message routing and client connections.
 
@@ -21,4 +21,13 @@ public class ErrorMessage {
     public static final String FILL_IN_THE_INPUT_FIELD = "Fill in the input field";
     public static final String EMPTY_PHONE_NUMBER = "Phone number cannot be empty";
     public static final String EMPTY_POST_INDEX = "Post index cannot be empty";
+    public static final String INVALID_PAGE_CURSOR = "Page cursor is invalid.";
+    public static final String OUT_OF_STOCK = "Not enough perfumes in stock.";
+    public static final String INVALID_QUANTITY = "Quantities must be positive.";
+    public static final String RESERVATION_NOT_FOUND = "Reservation not found.";
+    public static final String RESERVATION_QUANTITY_EXCEEDED = "Too many units of one perfume in a reservation.";
+    public static final String TOO_MANY_RESERVATIONS = "Too many open reservations.";
+    public static final String IDEMPOTENCY_KEY_REUSED = "Idempotency key was already used for a different request.";
+    public static final String INVALID_IDEMPOTENCY_KEY = "Idempotency key must be a UUID.";
+    public static final String IDEMPOTENCY_REQUEST_IN_PROGRESS = "A request with this idempotency key is still being processed.";
 }
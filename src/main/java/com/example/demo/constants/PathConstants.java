@@ -21,10 +21,15 @@ public class PathConstants {
     public static final String EDIT = "/edit";
     public static final String CART = "/cart";
     public static final String DELETE_BY_PERFUME_ID = "/delete/{perfumeId}";
+    public static final String STOCK_BY_PERFUME_ID = "/stock/{perfumeId}";
+    public static final String PERFUMES_IMPORT = PERFUMES + "/import";
+    public static final String PERFUMES_EXPORT = PERFUMES + "/export";
+    public static final String ORDERS_EXPORT = ORDERS + "/export";
     public static final String ORDER_BY_EMAIL = ORDER + "/{userEmail}";
     public static final String ORDER_DELETE = ORDER + "/delete/{orderId}";
     public static final String USER_BY_ID = USER + "/{userId}";
     public static final String USER_ALL = USER + "/all";
+    public static final String USER_EXPORT = USER + "/export";
     public static final String GRAPHQL_USER = GRAPHQL + USER;
     public static final String GRAPHQL_USER_ALL = GRAPHQL + USER + "/all";
     public static final String GRAPHQL_ORDERS = GRAPHQL + ORDERS;
@@ -40,13 +45,20 @@ public class PathConstants {
 
     public static final String ORDER_ID = "/{orderId}";
     public static final String ORDER_ID_ITEMS = ORDER_ID + "/items";
+    public static final String RESERVATION = "/reservation";
+    public static final String RESERVATION_ID = RESERVATION + "/{reservationId}";
 
     public static final String PERFUME_ID = "/{perfumeId}";
+    public static final String PERFUME_ID_SIMILAR = PERFUME_ID + "/similar";
+    public static final String PERFUME_ID_TOP = PERFUME_ID + "/top";
+    public static final String BESTSELLERS = "/bestsellers";
     public static final String IDS = "/ids";
     public static final String SEARCH = "/search";
     public static final String SEARCH_GENDER = SEARCH + "/gender";
     public static final String SEARCH_PERFUMER = SEARCH + "/perfumer";
     public static final String SEARCH_TEXT = SEARCH + "/text";
+    public static final String SEARCH_FUZZY = SEARCH + "/fuzzy";
+    public static final String SUGGEST = "/suggest";
     public static final String GRAPHQL_IDS = GRAPHQL + IDS;
     public static final String GRAPHQL_PERFUMES = GRAPHQL + PERFUMES;
     public static final String GRAPHQL_PERFUME = GRAPHQL + "/perfume";
@@ -7,6 +7,8 @@ import com.example.demo.dto.perfume.FullPerfumeResponse;
 import com.example.demo.dto.perfume.PerfumeRequest;
 import com.example.demo.dto.user.BaseUserResponse;
 import com.example.demo.dto.user.UserResponse;
+import com.example.demo.enums.ExportFormat;
+import com.example.demo.enums.ImportFormat;
 import com.example.demo.mapper.OrderMapper;
 import com.example.demo.mapper.PerfumeMapper;
 import com.example.demo.mapper.UserMapper;
@@ -16,12 +18,17 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
 import java.util.List;
 
 import static com.example.demo.constants.PathConstants.*;
@@ -51,17 +58,42 @@ public class AdminController {
         return ResponseEntity.ok(perfumeMapper.savePerfume(perfume, file, bindingResult));
     }
 
+    @PostMapping(value = PERFUMES_IMPORT, consumes = {"text/csv", MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<StreamingResponseBody> importPerfumes(@RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                                                                InputStream input) {
+        ImportFormat format = MediaType.APPLICATION_NDJSON.isCompatibleWith(contentType) ? ImportFormat.NDJSON : ImportFormat.CSV;
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(perfumeMapper.importPerfumes(format, input));
+    }
+
+    @GetMapping(PERFUMES_EXPORT)
+    public ResponseEntity<StreamingResponseBody> exportPerfumes(@RequestParam(defaultValue = "NDJSON") ExportFormat format) {
+        return export("perfumes", format, perfumeMapper.exportPerfumes(format));
+    }
+
+    @PostMapping(STOCK_BY_PERFUME_ID)
+    public ResponseEntity<Integer> restockPerfume(@PathVariable Long perfumeId, @RequestParam int quantity) {
+        return ResponseEntity.ok(perfumeMapper.restockPerfume(perfumeId, quantity));
+    }
+
     @DeleteMapping(DELETE_BY_PERFUME_ID)
     public ResponseEntity<String> deletePerfume(@PathVariable Long perfumeId) {
         return ResponseEntity.ok(perfumeMapper.deletePerfume(perfumeId));
     }
 
     @GetMapping(ORDERS)
-    public ResponseEntity<List<OrderResponse>> getAllOrders(@PageableDefault(size = 10) Pageable pageable) {
-        HeaderResponse<OrderResponse> response = orderMapper.getAllOrders(pageable);
+    public ResponseEntity<List<OrderResponse>> getAllOrders(@RequestParam(required = false) String after,
+                                                            @PageableDefault(size = 10) Pageable pageable) {
+        HeaderResponse<OrderResponse> response = orderMapper.getAllOrders(after, pageable);
         return ResponseEntity.ok().headers(response.getHeaders()).body(response.getItems());
     }
 
+    @GetMapping(ORDERS_EXPORT)
+    public ResponseEntity<StreamingResponseBody> exportOrders(@RequestParam(defaultValue = "NDJSON") ExportFormat format) {
+        return export("orders", format, orderMapper.exportOrders(format));
+    }
+
     @GetMapping(ORDER_BY_EMAIL)
     public ResponseEntity<List<OrderResponse>> getUserOrdersByEmail(@PathVariable String userEmail, 
                                                                     @PageableDefault(size = 10) Pageable pageable) {
@@ -80,11 +112,17 @@ public class AdminController {
     }
 
     @GetMapping(USER_ALL)
-    public ResponseEntity<List<BaseUserResponse>> getAllUsers(@PageableDefault(size = 10) Pageable pageable) {
-        HeaderResponse<BaseUserResponse> response = userMapper.getAllUsers(pageable);
+    public ResponseEntity<List<BaseUserResponse>> getAllUsers(@RequestParam(required = false) String after,
+                                                              @PageableDefault(size = 10) Pageable pageable) {
+        HeaderResponse<BaseUserResponse> response = userMapper.getAllUsers(after, pageable);
         return ResponseEntity.ok().headers(response.getHeaders()).body(response.getItems());
     }
 
+    @GetMapping(USER_EXPORT)
+    public ResponseEntity<StreamingResponseBody> exportUsers(@RequestParam(defaultValue = "NDJSON") ExportFormat format) {
+        return export("users", format, userMapper.exportUsers(format));
+    }
+
     @PostMapping(GRAPHQL_USER)
     public ResponseEntity<ExecutionResult> getUserByQuery(@RequestBody GraphQLRequest request) {
         return ResponseEntity.ok(graphQLProvider.getGraphQL().execute(request.getQuery()));
@@ -104,11 +142,27 @@ public class AdminController {
     public ResponseEntity<ExecutionResult> getUserOrdersByEmailQuery(@RequestBody GraphQLRequest request) {
         return ResponseEntity.ok(graphQLProvider.getGraphQL().execute(request.getQuery()));
     }
+
+    private ResponseEntity<StreamingResponseBody> export(String name, ExportFormat format, StreamingResponseBody body) {
+        boolean csv = format == ExportFormat.CSV;
+        ContentDisposition disposition = ContentDisposition.attachment()
+                .filename(name + (csv ? ".csv" : ".ndjson"))
+                .build();
+        return ResponseEntity.ok()
+                .contentType(csv ? new MediaType("text", "csv") : MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, disposition.toString())
+                .body(body);
+    }
 }
 
 // @PreAuthorize is used to specify pre-authorization rules in Spring Security.
 // hasAuthority is used to define the authorization rule.
 
+// importPerfumes reads the request body as a stream (text/csv with a header row, or one JSON object per line) and answers with application/x-ndjson: an ERROR line for every rejected row, a PROGRESS line after every committed chunk and a final COMPLETED line with the totals.
+// The body is a StreamingResponseBody, so the response starts while the upload is still being read and neither side holds the whole file.
+
+// The export endpoints (?format=CSV or NDJSON) stream every order, user or perfume as a file download. Rows are written while they are read from a database cursor, so unlike getAllOrders/getAllUsers there is no paging and no list of the whole table in memory.
+
 // @RequestPart annotation is suitable when you want to access individual parts of a multipart request as separate method parameters.
 // A multipart request is a type of HTTP request that allows for sending multiple parts or pieces of data within a single request. Each part within a multipart request can have its own Content-Type, allowing different types of data to be included in the same request. For example, one part may contain text data, while another part may contain binary data like an image or a file.
 // Both @RequestParam and @RequestPart can be used to handle multipart requests in Spring Boot, depending on your specific requirements. If you want to access individual parts of the multipart request as separate method parameters, @RequestPart is more appropriate. If you prefer to treat the entire request body as a single multipart parameter, you can use @RequestParam.
\ No newline at end of file
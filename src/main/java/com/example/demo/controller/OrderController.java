@@ -5,6 +5,7 @@ import com.example.demo.dto.HeaderResponse;
 import com.example.demo.dto.order.OrderItemResponse;
 import com.example.demo.dto.order.OrderRequest;
 import com.example.demo.dto.order.OrderResponse;
+import com.example.demo.dto.order.StockReservationResponse;
 import com.example.demo.mapper.OrderMapper;
 import com.example.demo.security.UserPrincipal;
 import com.example.demo.service.graphql.GraphQLProvider;
@@ -19,6 +20,8 @@ import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 
 import static com.example.demo.constants.PathConstants.*;
 
@@ -49,8 +52,22 @@ public class OrderController {
     }
 
     @PostMapping
-    public ResponseEntity<OrderResponse> postOrder(@Valid @RequestBody OrderRequest order, BindingResult bindingResult) {
-        return ResponseEntity.ok(orderMapper.postOrder(order, bindingResult));
+    public ResponseEntity<OrderResponse> postOrder(@AuthenticationPrincipal UserPrincipal user,
+                                                   @Valid @RequestBody OrderRequest order, BindingResult bindingResult,
+                                                   @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        String userEmail = user == null ? null : user.getEmail();
+        return ResponseEntity.ok(orderMapper.postOrder(order, userEmail, idempotencyKey, bindingResult));
+    }
+
+    @PostMapping(RESERVATION)
+    public ResponseEntity<StockReservationResponse> reserveStock(@AuthenticationPrincipal UserPrincipal user,
+                                                                 @RequestBody Map<Long, Long> perfumesId) {
+        return ResponseEntity.ok(orderMapper.reserveStock(user.getEmail(), perfumesId));
+    }
+
+    @DeleteMapping(RESERVATION_ID)
+    public ResponseEntity<String> releaseStock(@AuthenticationPrincipal UserPrincipal user, @PathVariable UUID reservationId) {
+        return ResponseEntity.ok(orderMapper.releaseStock(user.getEmail(), reservationId));
     }
 
     @PostMapping(GRAPHQL)
@@ -60,4 +77,5 @@ public class OrderController {
 }
 
 
-// When a user is authenticated, the Authentication object is created and stored in the security context. The @AuthenticationPrincipal annotation allows you to directly access the principal object from the Authentication object without having to manually retrieve it.
\ No newline at end of file
+// When a user is authenticated, the Authentication object is created and stored in the security context. The @AuthenticationPrincipal annotation allows you to directly access the principal object from the Authentication object without having to manually retrieve it.
+// Clients that retry POST /order after a timeout send the same Idempotency-Key header with every attempt; the order is placed once and every retry gets the response of the first attempt. The key must be a UUID generated by the client for the order (400 otherwise), and the keys of a signed-in user are kept apart from everyone else's. A retry arriving while the first attempt is still running gets 409 after idempotency.wait-timeout.
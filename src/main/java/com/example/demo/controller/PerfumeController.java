@@ -3,8 +3,11 @@ package com.example.demo.controller;
 import com.example.demo.dto.GraphQLRequest;
 import com.example.demo.dto.HeaderResponse;
 import com.example.demo.dto.perfume.FullPerfumeResponse;
+import com.example.demo.dto.perfume.PerfumeFuzzySearchResponse;
 import com.example.demo.dto.perfume.PerfumeResponse;
 import com.example.demo.dto.perfume.PerfumeSearchRequest;
+import com.example.demo.dto.perfume.PerfumeSearchResponse;
+import com.example.demo.dto.perfume.PerfumeSuggestionResponse;
 import com.example.demo.dto.perfume.SearchTypeRequest;
 import com.example.demo.mapper.PerfumeMapper;
 import com.example.demo.service.graphql.GraphQLProvider;
@@ -29,8 +32,9 @@ public class PerfumeController {
     private final GraphQLProvider graphQLProvider;
 
     @GetMapping
-    public ResponseEntity<List<PerfumeResponse>> getAllPerfumes(@PageableDefault(size = 15) Pageable pageable) {
-        HeaderResponse<PerfumeResponse> response = perfumeMapper.getAllPerfumes(pageable);
+    public ResponseEntity<List<PerfumeResponse>> getAllPerfumes(@RequestParam(required = false) String after,
+                                                                @PageableDefault(size = 15) Pageable pageable) {
+        HeaderResponse<PerfumeResponse> response = perfumeMapper.getAllPerfumes(after, pageable);
         return ResponseEntity.ok().headers(response.getHeaders()).body(response.getItems());
     }
 
@@ -39,6 +43,17 @@ public class PerfumeController {
         return ResponseEntity.ok(perfumeMapper.getPerfumeById(perfumeId));
     }
 
+    @GetMapping(PERFUME_ID_SIMILAR)
+    public ResponseEntity<List<PerfumeResponse>> getSimilarPerfumes(@PathVariable Long perfumeId,
+                                                                    @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(perfumeMapper.getSimilarPerfumes(perfumeId, limit));
+    }
+
+    @GetMapping(BESTSELLERS)
+    public ResponseEntity<List<PerfumeResponse>> getBestsellers(@RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(perfumeMapper.getBestsellers(limit));
+    }
+
     @PostMapping(IDS)
     public ResponseEntity<List<PerfumeResponse>> getPerfumesByIds(@RequestBody List<Long> perfumesIds) {
         return ResponseEntity.ok(perfumeMapper.getPerfumesByIds(perfumesIds));
@@ -51,6 +66,26 @@ public class PerfumeController {
         return ResponseEntity.ok().headers(response.getHeaders()).body(response.getItems());
     }
 
+    @GetMapping(SEARCH)
+    public ResponseEntity<List<PerfumeResponse>> getPerfumesByFilterParams(PerfumeSearchRequest filter,
+                                                                           @PageableDefault(size = 15) Pageable pageable) {
+        return findPerfumesByFilterParams(filter, pageable);
+    }
+
+    @GetMapping(value = SEARCH, params = "facets=true")
+    public ResponseEntity<PerfumeSearchResponse> getPerfumesWithFacets(PerfumeSearchRequest filter,
+                                                                       @PageableDefault(size = 15) Pageable pageable) {
+        return findPerfumesWithFacets(filter, pageable);
+    }
+
+    @PostMapping(value = SEARCH, params = "facets=true")
+    public ResponseEntity<PerfumeSearchResponse> findPerfumesWithFacets(@RequestBody PerfumeSearchRequest filter,
+                                                                        @PageableDefault(size = 15) Pageable pageable) {
+        HeaderResponse<PerfumeResponse> response = perfumeMapper.findPerfumesByFilterParams(filter, pageable);
+        PerfumeSearchResponse body = new PerfumeSearchResponse(response.getItems(), perfumeMapper.getFacets(filter));
+        return ResponseEntity.ok().headers(response.getHeaders()).body(body);
+    }
+
     @PostMapping(SEARCH_GENDER)
     public ResponseEntity<List<PerfumeResponse>> findByPerfumeGender(@RequestBody PerfumeSearchRequest filter) {
         return ResponseEntity.ok(perfumeMapper.findByPerfumeGender(filter.getPerfumeGender()));
@@ -68,6 +103,31 @@ public class PerfumeController {
         return ResponseEntity.ok().headers(response.getHeaders()).body(response.getItems());
     }
 
+    @GetMapping(SEARCH_TEXT)
+    public ResponseEntity<List<PerfumeResponse>> getByInputText(SearchTypeRequest searchType,
+                                                                @PageableDefault(size = 15) Pageable pageable) {
+        return findByInputText(searchType, pageable);
+    }
+
+    @PostMapping(SEARCH_FUZZY)
+    public ResponseEntity<PerfumeFuzzySearchResponse> findByFuzzyText(@RequestBody SearchTypeRequest searchType,
+                                                                      @PageableDefault(size = 15) Pageable pageable) {
+        PerfumeFuzzySearchResponse response = perfumeMapper.findByFuzzyText(searchType.getSearchType(), searchType.getText(), pageable);
+        return ResponseEntity.ok().headers(response.getHeaders()).body(response);
+    }
+
+    @GetMapping(SEARCH_FUZZY)
+    public ResponseEntity<PerfumeFuzzySearchResponse> getByFuzzyText(SearchTypeRequest searchType,
+                                                                     @PageableDefault(size = 15) Pageable pageable) {
+        return findByFuzzyText(searchType, pageable);
+    }
+
+    @GetMapping(SUGGEST)
+    public ResponseEntity<List<PerfumeSuggestionResponse>> suggest(@RequestParam("q") String text,
+                                                                   @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(perfumeMapper.suggest(text, limit));
+    }
+
     @PostMapping(GRAPHQL_IDS)
     public ResponseEntity<ExecutionResult> getPerfumesByIdsQuery(@RequestBody GraphQLRequest request) {
         return ResponseEntity.ok(graphQLProvider.getGraphQL().execute(request.getQuery()));
@@ -85,4 +145,5 @@ public class PerfumeController {
 }
 
 // The ExecutionResult class represents the result of executing a GraphQL query or mutation. It contains the data returned by the query or mutation, as well as any errors or extensions associated with the execution.
-// getData(), getErrors(), addExtension(): Extensions can be used to provide additional metadata or custom information about the execution result
\ No newline at end of file
+// getData(), getErrors(), addExtension(): Extensions can be used to provide additional metadata or custom information about the execution result
+// The GET variants of search bind the same request objects from query parameters, e.g. /search?perfumers=Chanel&genders=female&prices=1&prices=200&sortByPrice=true or /search/text?searchType=BRAND&text=dior. Unlike the POST bodies they can be stored by browsers and proxies and revalidated with If-None-Match (see CatalogETagInterceptor).
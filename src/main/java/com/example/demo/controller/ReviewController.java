@@ -1,12 +1,15 @@
 package com.example.demo.controller;
 
+import com.example.demo.dto.HeaderResponse;
 import com.example.demo.dto.review.ReviewRequest;
 import com.example.demo.dto.review.ReviewResponse;
 import com.example.demo.mapper.ReviewMapper;
+import com.example.demo.service.broadcast.ReviewBroadcaster;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
 import org.springframework.http.ResponseEntity;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
 
@@ -20,20 +23,29 @@ import static com.example.demo.constants.PathConstants.*;
 public class ReviewController {
 
     private final ReviewMapper reviewMapper;
-    private final SimpMessagingTemplate messagingTemplate;
+    private final ReviewBroadcaster reviewBroadcaster;
 
     @GetMapping(PERFUME_ID)
-    public ResponseEntity<List<ReviewResponse>> getReviewsByPerfumeId(@PathVariable Long perfumeId) {
-        return ResponseEntity.ok(reviewMapper.getReviewsByPerfumeId(perfumeId));
+    public ResponseEntity<List<ReviewResponse>> getReviewsByPerfumeId(@PathVariable Long perfumeId,
+                                                                      @RequestParam(required = false) String after,
+                                                                      @PageableDefault(size = 15) Pageable pageable) {
+        HeaderResponse<ReviewResponse> response = reviewMapper.getReviewsByPerfumeId(perfumeId, after, pageable);
+        return ResponseEntity.ok().headers(response.getHeaders()).body(response.getItems());
+    }
+
+    @GetMapping(PERFUME_ID_TOP)
+    public ResponseEntity<List<ReviewResponse>> getTopReviews(@PathVariable Long perfumeId) {
+        return ResponseEntity.ok(reviewMapper.getTopReviews(perfumeId));
     }
 
     @PostMapping
     public ResponseEntity<ReviewResponse> addReviewToPerfume(@Valid @RequestBody ReviewRequest reviewRequest,
                                                              BindingResult bindingResult) {
         ReviewResponse review = reviewMapper.addReviewToPerfume(reviewRequest, reviewRequest.getPerfumeId(), bindingResult);
-        messagingTemplate.convertAndSend("/topic/reviews/" + reviewRequest.getPerfumeId(), review);
+        reviewBroadcaster.publish(reviewRequest.getPerfumeId(), review);
         return ResponseEntity.ok(review);
     }
 }
 
-// SimpMessagingTemplate is for WebSocket-based messaging. the client that is subscribed to the specified destination will receive the message.
\ No newline at end of file
+// New reviews are pushed to the subscribers of /topic/reviews/{perfumeId} by ReviewBroadcaster, which coalesces them into one frame (a JSON array of reviews) per perfume and window. The request returns as soon as the review is queued.
+// GET /review/{perfumeId} returns one page of reviews, newest first, with the page-total-count, page-total-elements and page-next-cursor headers used by the other listings. Passing the cursor back as ?after= reads the next page by keyset instead of by offset.
@@ -0,0 +1,79 @@
+package com.example.demo.controller.interceptor;
+
+import com.example.demo.service.catalog.CatalogVersion;
+import com.example.demo.service.catalog.PerfumeBestsellers;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+
+import static com.example.demo.constants.PathConstants.BESTSELLERS;
+
+@Component
+@RequiredArgsConstructor
+public class CatalogETagInterceptor implements HandlerInterceptor {
+
+    private static final Set<String> ORDERED_PARAMETERS = Set.of("prices", "years", "sort");
+
+    private final String epoch = UUID.randomUUID().toString().substring(0, 8);
+
+    private final CatalogVersion catalogVersion;
+    private final PerfumeBestsellers perfumeBestsellers;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!HttpMethod.GET.matches(request.getMethod()) && !HttpMethod.HEAD.matches(request.getMethod())) {
+            return true;
+        }
+        String etag = "\"" + epoch + "-" + catalogVersion.current() + rankingVersion(request) + "-" + hash(request) + "\"";
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().getHeaderValue());
+        return !new ServletWebRequest(request, response).checkNotModified(etag);
+    }
+
+    private String rankingVersion(HttpServletRequest request) {
+        if (request.getRequestURI().endsWith(BESTSELLERS) || "true".equalsIgnoreCase(request.getParameter("sortByPopularity"))) {
+            return "." + perfumeBestsellers.version();
+        }
+        return "";
+    }
+
+    static String canonicalQuery(Map<String, String[]> parameters) {
+        StringBuilder query = new StringBuilder();
+        new TreeMap<>(parameters).forEach((name, values) -> {
+            String[] canonicalValues = values.clone();
+            if (!ORDERED_PARAMETERS.contains(name)) {
+                Arrays.sort(canonicalValues);
+            }
+            for (String value : canonicalValues) {
+                query.append(query.length() == 0 ? "" : "&").append(name).append('=').append(value);
+            }
+        });
+        return query.toString();
+    }
+
+    private static String hash(HttpServletRequest request) {
+        String resource = request.getRequestURI() + "?" + canonicalQuery(request.getParameterMap());
+        return DigestUtils.md5DigestAsHex(resource.getBytes(StandardCharsets.UTF_8)).substring(0, 16);
+    }
+}
+
+// The ETag is "<epoch>-<catalog version>-<hash of path and canonical query>". CatalogVersion is bumped after every committed perfume or review write, so an unchanged version means the response body is unchanged as well and the tag can be strong.
+// The version is read before the controller runs and is only bumped after commit, so the body sent with a tag is never older than the version in the tag. A client holding a tag from an older version always gets a full 200.
+// Responses ordered by sales (/perfumes/bestsellers and searches with sortByPopularity=true) also depend on the bestseller ranking, which orders change without a catalog write. Their tag adds PerfumeBestsellers.version(), which is bumped only when the order of the ranking changes.
+// The epoch is random per process: versions restart from 0 on every start and are independent between instances, so tags from another process never match.
+// checkNotModified() compares the tag with If-None-Match, sets the ETag header and answers 304 without calling the controller, so neither the service layer nor the database is touched for a revalidation.
+// Cache-Control: no-cache lets browsers and proxies store the response but forces them to revalidate it; Spring Security leaves an existing Cache-Control header in place.
+// The query is canonicalized by sorting parameter names and the values of set-like parameters, so ?perfumers=A&perfumers=B and ?perfumers=B&perfumers=A share a tag. The values of prices and years (start, end) and sort keep their order because it changes the result.
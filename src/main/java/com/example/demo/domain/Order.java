@@ -40,6 +40,7 @@ public class Order {
     private Integer postIndex;
 
     @OneToMany(fetch = FetchType.EAGER)
+    @JoinTable(name = "orders_order_items", joinColumns = @JoinColumn(name = "order_id"))
     private List<OrderItem> orderItems;
 
     public Order() {
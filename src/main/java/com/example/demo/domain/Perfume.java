@@ -44,9 +44,32 @@ public class Perfume {
 
     private String type;
 
+    @Column(updatable = false)
     private Double perfumeRating;
 
+    @Column(updatable = false)
+    private Integer reviewsCount = 0;
+
+    @Column(updatable = false)
+    private Long ratingSum = 0L;
+
+    @Column(updatable = false)
+    private Integer oneStarCount = 0;
+
+    @Column(updatable = false)
+    private Integer twoStarCount = 0;
+
+    @Column(updatable = false)
+    private Integer threeStarCount = 0;
+
+    @Column(updatable = false)
+    private Integer fourStarCount = 0;
+
+    @Column(updatable = false)
+    private Integer fiveStarCount = 0;
+
     @OneToMany
+    @JoinColumn(name = "perfume_id", insertable = false, updatable = false)
     @ToString.Exclude
     private List<Review> reviews;
 
@@ -67,4 +90,10 @@ public class Perfume {
 
 // @ToString.Exclude is used to exclude a specific field from being included in the toString() method generated by Lombok.
 
+// reviewsCount, ratingSum, the star counts and perfumeRating are maintained by ReviewServiceImpl with a single UPDATE statement (PerfumeRepository.addRating), so listings can read them without loading the reviews collection. updatable = false keeps a perfume edit from the admin form from resetting them. PerfumeServiceImpl.savePerfume copies them from the stored row before the merge, so the perfume it returns and indexes carries the real values instead of the defaults of the form.
+
+// reviews is read-only: the perfume_id column of review is written through Review.perfumeId (ReviewServiceImpl), and the reviews of a perfume are listed page by page with ReviewRepository. The collection is only loaded for the GraphQL perfume query.
+
+// The stock column of perfume is deliberately not mapped: it is only changed by the conditional UPDATE statements of StockRepository, so saving a perfume from the admin form can never overwrite a concurrent checkout.
+
 // @OneToMany(mappedBy = "perfume") annotation indicates that the class has a one-to-many relationship with the Review entity, and the association is managed by the "perfume" property in the Review entity.
\ No newline at end of file
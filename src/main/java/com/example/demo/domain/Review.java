@@ -1,5 +1,6 @@
 package com.example.demo.domain;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
@@ -29,6 +30,9 @@ public class Review {
 
     private LocalDate date;
 
+    @Column(name = "perfume_id", updatable = false)
+    private Long perfumeId;
+
     public Review() {
         this.date = LocalDate.now();
     }
@@ -7,6 +7,7 @@ import jakarta.validation.constraints.NotNull;
 import lombok.Data;
 
 import java.util.Map;
+import java.util.UUID;
 
 import static com.example.demo.constants.ErrorMessage.*;
 
@@ -15,6 +16,7 @@ public class OrderRequest {
 
     private Double totalPrice;
     private Map<Long, Long> perfumesId;
+    private UUID reservationId;
 
     @NotBlank(message = FILL_IN_THE_INPUT_FIELD)
     private String firstName;
@@ -0,0 +1,14 @@
+package com.example.demo.dto.order;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Getter
+@AllArgsConstructor
+public class StockReservationResponse {
+    private UUID reservationId;
+    private Instant expiresAt;
+}
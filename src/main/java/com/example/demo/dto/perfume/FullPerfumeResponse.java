@@ -1,9 +1,12 @@
 package com.example.demo.dto.perfume;
 
+import com.example.demo.dto.review.ReviewResponse;
 import lombok.Getter;
 import lombok.Setter;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.util.List;
+
 @Getter
 @Setter
 public class FullPerfumeResponse extends PerfumeResponse {
@@ -15,5 +18,11 @@ public class FullPerfumeResponse extends PerfumeResponse {
     private String fragranceBaseNotes;
     private String description;
     private String type;
+    private Integer oneStarCount;
+    private Integer twoStarCount;
+    private Integer threeStarCount;
+    private Integer fourStarCount;
+    private Integer fiveStarCount;
+    private List<ReviewResponse> topReviews;
     private MultipartFile file;
 }
@@ -0,0 +1,12 @@
+package com.example.demo.dto.perfume;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class PerfumeCorrectionResponse {
+    private String text;
+    private Integer distance;
+    private Integer perfumesCount;
+}
@@ -0,0 +1,15 @@
+package com.example.demo.dto.perfume;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+import java.util.Map;
+
+@Getter
+@Setter
+public class PerfumeFacetsResponse {
+    private Map<String, Long> perfumers;
+    private Map<String, Long> genders;
+    private List<PriceBucketResponse> prices;
+}
@@ -0,0 +1,18 @@
+package com.example.demo.dto.perfume;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import org.springframework.http.HttpHeaders;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class PerfumeFuzzySearchResponse {
+    private List<PerfumeCorrectionResponse> corrections;
+    private List<PerfumeResponse> perfumes;
+
+    @JsonIgnore
+    private HttpHeaders headers;
+}
@@ -0,0 +1,27 @@
+package com.example.demo.dto.perfume;
+
+import com.example.demo.enums.ImportEventType;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PerfumeImportEvent {
+    private ImportEventType type;
+    private Long row;
+    private String field;
+    private String message;
+    private Long processed;
+    private Long imported;
+    private Long failed;
+
+    public static PerfumeImportEvent error(long row, String field, String message) {
+        return new PerfumeImportEvent(ImportEventType.ERROR, row, field, message, null, null, null);
+    }
+
+    public static PerfumeImportEvent progress(ImportEventType type, long processed, long imported, long failed) {
+        return new PerfumeImportEvent(type, null, null, null, processed, imported, failed);
+    }
+}
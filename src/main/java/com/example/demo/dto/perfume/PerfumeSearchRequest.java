@@ -8,8 +8,13 @@ import java.util.List;
 public class PerfumeSearchRequest {
     private List<String> perfumers;
     private List<String> genders;
+    private List<String> countries;
+    private List<String> types;
+    private List<String> volumes;
     private List<Integer> prices;
+    private List<Integer> years;
     private Boolean sortByPrice;
+    private Boolean sortByPopularity;
     private String perfumer;
     private String perfumeGender;
 }
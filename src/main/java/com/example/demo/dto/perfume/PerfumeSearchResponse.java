@@ -0,0 +1,13 @@
+package com.example.demo.dto.perfume;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class PerfumeSearchResponse {
+    private List<PerfumeResponse> perfumes;
+    private PerfumeFacetsResponse facets;
+}
@@ -0,0 +1,13 @@
+package com.example.demo.dto.perfume;
+
+import com.example.demo.enums.SearchPerfume;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class PerfumeSuggestionResponse {
+    private String text;
+    private SearchPerfume type;
+    private Long perfumesCount;
+}
@@ -0,0 +1,12 @@
+package com.example.demo.dto.perfume;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class PriceBucketResponse {
+    private Integer priceFrom;
+    private Integer priceTo;
+    private Long count;
+}
@@ -1,5 +1,7 @@
 package com.example.demo.dto.review;
 
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.Data;
@@ -17,6 +19,8 @@ public class ReviewRequest {
     @NotBlank(message = FILL_IN_THE_INPUT_FIELD)
     private String message;
 
+    @Min(value = 1, message = "Choose perfume rating")
+    @Max(value = 5, message = "Choose perfume rating")
     @NotNull(message = "Choose perfume rating")
     private Integer rating;
 }
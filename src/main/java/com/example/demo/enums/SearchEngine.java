@@ -0,0 +1,5 @@
+package com.example.demo.enums;
+
+public enum SearchEngine {
+    INDEX, LIKE, FULL_TEXT
+}
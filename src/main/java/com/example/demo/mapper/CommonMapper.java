@@ -1,14 +1,23 @@
 package com.example.demo.mapper;
 
 import com.example.demo.dto.HeaderResponse;
+import com.example.demo.exception.ApiRequestException;
 import lombok.RequiredArgsConstructor;
 import org.modelmapper.ModelMapper;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
 import java.util.List;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
+import static com.example.demo.constants.ErrorMessage.INVALID_PAGE_CURSOR;
+
 @Component
 @RequiredArgsConstructor
 public class CommonMapper {
@@ -36,7 +45,63 @@ public class CommonMapper {
         responseHeaders.add("page-total-elements", String.valueOf(totalElements));
         return new HeaderResponse<S>(orderResponses, responseHeaders);
     }
+
+    <T, S> HeaderResponse<S> getHeaderResponse(Slice<T> slice, Long totalElements, String nextCursor, Class<S> type) {
+        int pageSize = Math.max(slice.getSize(), 1);
+        int totalPages = (int) ((totalElements + pageSize - 1) / pageSize);
+        HeaderResponse<S> response = getHeaderResponse(slice.getContent(), totalPages, totalElements, type);
+        if (nextCursor != null) {
+            response.getHeaders().add("page-next-cursor", nextCursor);
+        }
+        return response;
+    }
+
+    <T> String getNextCursor(Slice<T> slice, Function<T, Object> sortKey) {
+        if (!slice.hasNext() || slice.getContent().isEmpty()) {
+            return null;
+        }
+        T last = slice.getContent().get(slice.getContent().size() - 1);
+        return encodeCursor(sortKey.apply(last));
+    }
+
+    <T> String getNextCursor(Slice<T> slice, Function<T, Object> sortKey, Function<T, Object> tieBreaker) {
+        if (!slice.hasNext() || slice.getContent().isEmpty()) {
+            return null;
+        }
+        T last = slice.getContent().get(slice.getContent().size() - 1);
+        return encodeCursor(sortKey.apply(last), tieBreaker.apply(last));
+    }
+
+    String encodeCursor(Object... sortKeys) {
+        String cursor = Arrays.stream(sortKeys)
+                .map(String::valueOf)
+                .collect(Collectors.joining("|"));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(cursor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    String[] decodeCursor(String cursor, int sortKeysCount) {
+        try {
+            String[] sortKeys = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|", -1);
+            if (sortKeys.length != sortKeysCount) {
+                throw new ApiRequestException(INVALID_PAGE_CURSOR, HttpStatus.BAD_REQUEST);
+            }
+            return sortKeys;
+        } catch (IllegalArgumentException e) {
+            throw new ApiRequestException(INVALID_PAGE_CURSOR, HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    Long decodeIdCursor(String cursor) {
+        try {
+            return Long.valueOf(decodeCursor(cursor, 1)[0]);
+        } catch (NumberFormatException e) {
+            throw new ApiRequestException(INVALID_PAGE_CURSOR, HttpStatus.BAD_REQUEST);
+        }
+    }
 }
 
 // HttpHeaders provides methods to manipulate and access the headers of an HTTP request or response.
-// add, get, set, remove, containsKey, keySet: Retrieves a set of all header names present in the headers collection
\ No newline at end of file
+// add, get, set, remove, containsKey, keySet: Retrieves a set of all header names present in the headers collection
+
+// Keyset (cursor) pagination: instead of OFFSET n, which makes the database read and discard n rows, the client sends back the sort key of the last row it received and the next page is read with WHERE id > :lastId ORDER BY id LIMIT :size. The cost of a page no longer depends on how deep it is.
+// The cursor is the Base64url encoding of the sort key values joined with '|', so clients treat it as an opaque token and the format can change without breaking them.
\ No newline at end of file
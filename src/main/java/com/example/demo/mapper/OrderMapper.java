@@ -5,15 +5,24 @@ import com.example.demo.dto.HeaderResponse;
 import com.example.demo.dto.order.OrderItemResponse;
 import com.example.demo.dto.order.OrderRequest;
 import com.example.demo.dto.order.OrderResponse;
+import com.example.demo.dto.order.StockReservationResponse;
+import com.example.demo.enums.ExportFormat;
 import com.example.demo.exception.InputFieldException;
+import com.example.demo.service.ExportService;
+import com.example.demo.service.IdempotencyService;
+import com.example.demo.service.InventoryService;
 import com.example.demo.service.OrderService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Component;
 import org.springframework.validation.BindingResult;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 
 @Component
 @RequiredArgsConstructor
@@ -21,6 +30,9 @@ public class OrderMapper {
 
     private final CommonMapper commonMapper;
     private final OrderService orderService;
+    private final ExportService exportService;
+    private final InventoryService inventoryService;
+    private final IdempotencyService idempotencyService;
     
     public OrderResponse getOrderById(Long orderId) {
         return commonMapper.convertToResponse(orderService.getOrderById(orderId), OrderResponse.class);
@@ -30,9 +42,15 @@ public class OrderMapper {
         return commonMapper.convertToResponseList(orderService.getOrderItemsByOrderId(orderId), OrderItemResponse.class);
     }
 
-    public HeaderResponse<OrderResponse> getAllOrders(Pageable pageable) {
-        Page<Order> orders = orderService.getAllOrders(pageable);
-        return commonMapper.getHeaderResponse(orders.getContent(), orders.getTotalPages(), orders.getTotalElements(), OrderResponse.class);
+    public HeaderResponse<OrderResponse> getAllOrders(String after, Pageable pageable) {
+        if (after == null) {
+            Page<Order> orders = orderService.getAllOrders(pageable);
+            String nextCursor = commonMapper.getNextCursor(orders, Order::getId);
+            return commonMapper.getHeaderResponse(orders, orders.getTotalElements(), nextCursor, OrderResponse.class);
+        }
+        Slice<Order> orders = orderService.getAllOrdersAfter(commonMapper.decodeIdCursor(after), pageable);
+        String nextCursor = commonMapper.getNextCursor(orders, Order::getId);
+        return commonMapper.getHeaderResponse(orders, orderService.countOrders(), nextCursor, OrderResponse.class);
     }
 
     public HeaderResponse<OrderResponse> getUserOrders(String email, Pageable pageable) {
@@ -44,11 +62,32 @@ public class OrderMapper {
         return orderService.deleteOrder(orderId);
     }
 
-    public OrderResponse postOrder(OrderRequest orderRequest, BindingResult bindingResult) {
+    public OrderResponse postOrder(OrderRequest orderRequest, String userEmail, String idempotencyKey, BindingResult bindingResult) {
         if (bindingResult.hasErrors()) {
             throw new InputFieldException(bindingResult);
         }
-        Order order = orderService.postOrder(commonMapper.convertToEntity(orderRequest, Order.class), orderRequest.getPerfumesId());
+        if (idempotencyKey == null) {
+            return postOrder(orderRequest, userEmail);
+        }
+        return idempotencyService.execute(userEmail, idempotencyKey, orderRequest, OrderResponse.class, () -> postOrder(orderRequest, userEmail));
+    }
+
+    private OrderResponse postOrder(OrderRequest orderRequest, String userEmail) {
+        Order order = orderService.postOrder(commonMapper.convertToEntity(orderRequest, Order.class), orderRequest.getPerfumesId(),
+                orderRequest.getReservationId(), userEmail);
         return commonMapper.convertToResponse(order, OrderResponse.class);
     }
+
+    public StockReservationResponse reserveStock(String userEmail, Map<Long, Long> perfumesId) {
+        return inventoryService.reserve(userEmail, perfumesId);
+    }
+
+    public String releaseStock(String userEmail, UUID reservationId) {
+        inventoryService.release(userEmail, reservationId);
+        return "Reservation released successfully";
+    }
+
+    public StreamingResponseBody exportOrders(ExportFormat format) {
+        return output -> exportService.exportOrders(format, output);
+    }
 }
@@ -3,20 +3,40 @@ package com.example.demo.mapper;
 import com.example.demo.domain.Perfume;
 import com.example.demo.dto.HeaderResponse;
 import com.example.demo.dto.perfume.FullPerfumeResponse;
+import com.example.demo.dto.perfume.PerfumeCorrectionResponse;
+import com.example.demo.dto.perfume.PerfumeFacetsResponse;
+import com.example.demo.dto.perfume.PerfumeFuzzySearchResponse;
+import com.example.demo.dto.perfume.PerfumeImportEvent;
 import com.example.demo.dto.perfume.PerfumeRequest;
 import com.example.demo.dto.perfume.PerfumeResponse;
 import com.example.demo.dto.perfume.PerfumeSearchRequest;
+import com.example.demo.dto.perfume.PerfumeSuggestionResponse;
+import com.example.demo.dto.review.ReviewResponse;
+import com.example.demo.enums.ExportFormat;
+import com.example.demo.enums.ImportFormat;
 import com.example.demo.enums.SearchPerfume;
 import com.example.demo.exception.InputFieldException;
 import com.example.demo.repository.projection.PerfumeProjection;
+import com.example.demo.service.ExportService;
+import com.example.demo.service.InventoryService;
+import com.example.demo.service.PerfumeImportService;
 import com.example.demo.service.PerfumeService;
+import com.example.demo.service.ReviewService;
+import com.example.demo.service.search.PerfumeFuzzySearch;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Component;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
 
 @Component
@@ -25,18 +45,31 @@ public class PerfumeMapper {
 
     private final CommonMapper commonMapper;
     private final PerfumeService perfumeService;
+    private final ReviewService reviewService;
+    private final PerfumeImportService perfumeImportService;
+    private final ExportService exportService;
+    private final InventoryService inventoryService;
+    private final ObjectMapper objectMapper;
 
     public FullPerfumeResponse getPerfumeById(Long perfumeId) {
-        return commonMapper.convertToResponse(perfumeService.getPerfumeById(perfumeId), FullPerfumeResponse.class);
+        FullPerfumeResponse perfume = commonMapper.convertToResponse(perfumeService.getPerfumeById(perfumeId), FullPerfumeResponse.class);
+        perfume.setTopReviews(commonMapper.convertToResponseList(reviewService.getTopReviews(perfumeId), ReviewResponse.class));
+        return perfume;
     }
 
     public List<PerfumeResponse> getPerfumesByIds(List<Long> perfumesId) {
         return commonMapper.convertToResponseList(perfumeService.getPerfumesByIds(perfumesId), PerfumeResponse.class);
     }
 
-    public HeaderResponse<PerfumeResponse> getAllPerfumes(Pageable pageable) {
-        Page<PerfumeProjection> perfumes = perfumeService.getAllPerfumes(pageable);
-        return commonMapper.getHeaderResponse(perfumes.getContent(), perfumes.getTotalPages(), perfumes.getTotalElements(), PerfumeResponse.class);
+    public HeaderResponse<PerfumeResponse> getAllPerfumes(String after, Pageable pageable) {
+        if (after == null) {
+            Page<PerfumeProjection> perfumes = perfumeService.getAllPerfumes(pageable);
+            String nextCursor = commonMapper.getNextCursor(perfumes, PerfumeProjection::getId);
+            return commonMapper.getHeaderResponse(perfumes, perfumes.getTotalElements(), nextCursor, PerfumeResponse.class);
+        }
+        Slice<PerfumeProjection> perfumes = perfumeService.getAllPerfumesAfter(commonMapper.decodeIdCursor(after), pageable);
+        String nextCursor = commonMapper.getNextCursor(perfumes, PerfumeProjection::getId);
+        return commonMapper.getHeaderResponse(perfumes, perfumeService.countPerfumes(), nextCursor, PerfumeResponse.class);
     }
 
     public HeaderResponse<PerfumeResponse> findPerfumesByFilterParams(PerfumeSearchRequest filter, Pageable pageable) {
@@ -44,6 +77,22 @@ public class PerfumeMapper {
         return commonMapper.getHeaderResponse(perfumes.getContent(), perfumes.getTotalPages(), perfumes.getTotalElements(), PerfumeResponse.class);
     }
 
+    public PerfumeFacetsResponse getFacets(PerfumeSearchRequest filter) {
+        return commonMapper.convertToResponse(perfumeService.getFacets(filter), PerfumeFacetsResponse.class);
+    }
+
+    public List<PerfumeSuggestionResponse> suggest(String text, int limit) {
+        return commonMapper.convertToResponseList(perfumeService.suggest(text, limit), PerfumeSuggestionResponse.class);
+    }
+
+    public List<PerfumeResponse> getSimilarPerfumes(Long perfumeId, int limit) {
+        return commonMapper.convertToResponseList(perfumeService.getSimilarPerfumes(perfumeId, limit), PerfumeResponse.class);
+    }
+
+    public List<PerfumeResponse> getBestsellers(int limit) {
+        return commonMapper.convertToResponseList(perfumeService.getBestsellers(limit), PerfumeResponse.class);
+    }
+
     public List<PerfumeResponse> findByPerfumer(String perfumer) {
         return commonMapper.convertToResponseList(perfumeService.findByPerfumer(perfumer), PerfumeResponse.class);
     }
@@ -57,6 +106,14 @@ public class PerfumeMapper {
         return commonMapper.getHeaderResponse(perfumes.getContent(), perfumes.getTotalPages(), perfumes.getTotalElements(), PerfumeResponse.class);
     }
 
+    public PerfumeFuzzySearchResponse findByFuzzyText(SearchPerfume searchType, String text, Pageable pageable) {
+        PerfumeFuzzySearch search = perfumeService.findByFuzzyText(searchType, text, pageable);
+        Page<PerfumeProjection> perfumes = search.getPerfumes();
+        HeaderResponse<PerfumeResponse> response = commonMapper.getHeaderResponse(perfumes.getContent(), perfumes.getTotalPages(), perfumes.getTotalElements(), PerfumeResponse.class);
+        List<PerfumeCorrectionResponse> corrections = commonMapper.convertToResponseList(search.getCorrections(), PerfumeCorrectionResponse.class);
+        return new PerfumeFuzzySearchResponse(corrections, response.getItems(), response.getHeaders());
+    }
+
     public FullPerfumeResponse savePerfume(PerfumeRequest perfumeRequest, MultipartFile file, BindingResult bindingResult) {
         if (bindingResult.hasErrors()) {
             throw new InputFieldException(bindingResult);
@@ -65,7 +122,29 @@ public class PerfumeMapper {
         return commonMapper.convertToResponse(perfumeService.savePerfume(perfume, file), FullPerfumeResponse.class);
     }
 
+    public Integer restockPerfume(Long perfumeId, int quantity) {
+        return inventoryService.restock(perfumeId, quantity);
+    }
+
     public String deletePerfume(Long perfumeId) {
         return perfumeService.deletePerfume(perfumeId);
     }
+
+    public StreamingResponseBody importPerfumes(ImportFormat format, InputStream input) {
+        return output -> perfumeImportService.importPerfumes(format, input, event -> writeLine(output, event));
+    }
+
+    public StreamingResponseBody exportPerfumes(ExportFormat format) {
+        return output -> exportService.exportPerfumes(format, output);
+    }
+
+    private void writeLine(OutputStream output, PerfumeImportEvent event) {
+        try {
+            output.write(objectMapper.writeValueAsBytes(event));
+            output.write('\n');
+            output.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 }
@@ -1,16 +1,26 @@
 package com.example.demo.mapper;
 
 import com.example.demo.domain.Review;
+import com.example.demo.dto.HeaderResponse;
 import com.example.demo.dto.review.ReviewRequest;
 import com.example.demo.dto.review.ReviewResponse;
+import com.example.demo.exception.ApiRequestException;
 import com.example.demo.exception.InputFieldException;
 import com.example.demo.service.ReviewService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
 import org.springframework.validation.BindingResult;
 
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 
+import static com.example.demo.constants.ErrorMessage.INVALID_PAGE_CURSOR;
+
 @Component
 @RequiredArgsConstructor
 public class ReviewMapper {
@@ -18,8 +28,25 @@ public class ReviewMapper {
     private final CommonMapper commonMapper;
     private final ReviewService reviewService;
 
-    public List<ReviewResponse> getReviewsByPerfumeId(Long perfumeId) {
-        return commonMapper.convertToResponseList(reviewService.getReviewsByPerfumeId(perfumeId), ReviewResponse.class);
+    public HeaderResponse<ReviewResponse> getReviewsByPerfumeId(Long perfumeId, String after, Pageable pageable) {
+        if (after == null) {
+            Page<Review> reviews = reviewService.getReviewsByPerfumeId(perfumeId, pageable);
+            String nextCursor = commonMapper.getNextCursor(reviews, Review::getDate, Review::getId);
+            return commonMapper.getHeaderResponse(reviews, reviews.getTotalElements(), nextCursor, ReviewResponse.class);
+        }
+        String[] cursor = commonMapper.decodeCursor(after, 2);
+        Slice<Review> reviews;
+        try {
+            reviews = reviewService.getReviewsByPerfumeIdAfter(perfumeId, LocalDate.parse(cursor[0]), Long.valueOf(cursor[1]), pageable);
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new ApiRequestException(INVALID_PAGE_CURSOR, HttpStatus.BAD_REQUEST);
+        }
+        String nextCursor = commonMapper.getNextCursor(reviews, Review::getDate, Review::getId);
+        return commonMapper.getHeaderResponse(reviews, reviewService.countReviews(perfumeId), nextCursor, ReviewResponse.class);
+    }
+
+    public List<ReviewResponse> getTopReviews(Long perfumeId) {
+        return commonMapper.convertToResponseList(reviewService.getTopReviews(perfumeId), ReviewResponse.class);
     }
 
     public ReviewResponse addReviewToPerfume(ReviewRequest reviewRequest, Long perfumeId, BindingResult bindingResult) {
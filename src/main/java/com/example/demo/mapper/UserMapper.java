@@ -6,13 +6,17 @@ import com.example.demo.dto.perfume.PerfumeResponse;
 import com.example.demo.dto.user.BaseUserResponse;
 import com.example.demo.dto.user.UpdateUserRequest;
 import com.example.demo.dto.user.UserResponse;
+import com.example.demo.enums.ExportFormat;
 import com.example.demo.exception.InputFieldException;
+import com.example.demo.service.ExportService;
 import com.example.demo.service.UserService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Component;
 import org.springframework.validation.BindingResult;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -22,6 +26,7 @@ public class UserMapper {
 
     private final CommonMapper commonMapper;
     private final UserService userService;
+    private final ExportService exportService;
 
     public UserResponse getUserById(Long userId) {
         return commonMapper.convertToResponse(userService.getUserById(userId), UserResponse.class);
@@ -35,9 +40,15 @@ public class UserMapper {
         return commonMapper.convertToResponseList(userService.getCart(perfumesIds), PerfumeResponse.class);
     }
 
-    public HeaderResponse<BaseUserResponse> getAllUsers(Pageable pageable) {
-        Page<User> users = userService.getAllUsers(pageable);
-        return commonMapper.getHeaderResponse(users.getContent(), users.getTotalPages(), users.getTotalElements(), BaseUserResponse.class);
+    public HeaderResponse<BaseUserResponse> getAllUsers(String after, Pageable pageable) {
+        if (after == null) {
+            Page<User> users = userService.getAllUsers(pageable);
+            String nextCursor = commonMapper.getNextCursor(users, User::getId);
+            return commonMapper.getHeaderResponse(users, users.getTotalElements(), nextCursor, BaseUserResponse.class);
+        }
+        Slice<User> users = userService.getAllUsersAfter(commonMapper.decodeIdCursor(after), pageable);
+        String nextCursor = commonMapper.getNextCursor(users, User::getId);
+        return commonMapper.getHeaderResponse(users, userService.countUsers(), nextCursor, BaseUserResponse.class);
     }
 
     public UserResponse updateUserInfo(String email, UpdateUserRequest userRequest, BindingResult bindingResult) {
@@ -47,4 +58,8 @@ public class UserMapper {
         User user = commonMapper.convertToEntity(userRequest, User.class);
         return commonMapper.convertToResponse(userService.updateUserInfo(email, user), UserResponse.class);
     }
+
+    public StreamingResponseBody exportUsers(ExportFormat format) {
+        return output -> exportService.exportUsers(format, output);
+    }
 }
@@ -0,0 +1,47 @@
+package com.example.demo.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Optional;
+
+@Repository
+@RequiredArgsConstructor
+public class IdempotencyKeyRepository {
+
+    private static final String CLAIM_KEY = "INSERT INTO idempotency_key (key, request_hash, expires_at) VALUES (?, ?, ?) " +
+            "ON CONFLICT (key) DO UPDATE SET request_hash = excluded.request_hash, response = NULL, expires_at = excluded.expires_at " +
+            "WHERE idempotency_key.expires_at < ?";
+    private static final String FIND_KEY = "SELECT request_hash, response FROM idempotency_key WHERE key = ?";
+    private static final String SAVE_RESPONSE = "UPDATE idempotency_key SET response = ? WHERE key = ?";
+    private static final String DELETE_EXPIRED = "DELETE FROM idempotency_key WHERE key IN (" +
+            "SELECT key FROM idempotency_key WHERE expires_at < ? LIMIT ? FOR UPDATE SKIP LOCKED)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public boolean claim(String key, String requestHash, Instant now, Instant expiresAt) {
+        return jdbcTemplate.update(CLAIM_KEY, key, requestHash, Timestamp.from(expiresAt), Timestamp.from(now)) == 1;
+    }
+
+    public Optional<StoredResponse> find(String key) {
+        return jdbcTemplate.query(FIND_KEY, (resultSet, rowNum) -> new StoredResponse(resultSet.getString("request_hash"),
+                resultSet.getString("response")), key).stream().findFirst();
+    }
+
+    public void saveResponse(String key, String response) {
+        jdbcTemplate.update(SAVE_RESPONSE, response, key);
+    }
+
+    public int deleteExpired(Instant now, int limit) {
+        return jdbcTemplate.update(DELETE_EXPIRED, Timestamp.from(now), limit);
+    }
+
+    public record StoredResponse(String requestHash, String response) {
+    }
+}
+
+// claim() inserts the key in the caller's transaction. While that transaction is open, a second claim of the same key from any instance waits on the primary key instead of racing; once the first commits it finds the row and gets 0, and if the first rolls back its insert goes through and it runs the request itself.
+// An expired key that the cleanup has not deleted yet is claimed again by the conditional ON CONFLICT DO UPDATE.
@@ -0,0 +1,62 @@
+package com.example.demo.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+@Repository
+@RequiredArgsConstructor
+public class MailOutboxRepository {
+
+    private static final String INSERT_MAIL = "INSERT INTO mail_outbox (recipient, subject, body, created_at, next_attempt_at) VALUES (?, ?, ?, ?, ?)";
+    private static final String CLAIM_MAILS = "UPDATE mail_outbox SET attempts = attempts + 1, next_attempt_at = ? WHERE id IN (" +
+            "SELECT id FROM mail_outbox WHERE next_attempt_at <= ? ORDER BY next_attempt_at LIMIT ? FOR UPDATE SKIP LOCKED) " +
+            "RETURNING id, recipient, subject, body, attempts, created_at";
+    private static final String DELETE_MAILS = "DELETE FROM mail_outbox WHERE id = ANY(?)";
+    private static final String RESCHEDULE_MAIL = "UPDATE mail_outbox SET next_attempt_at = ?, last_error = ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void save(String recipient, String subject, String body, Instant now) {
+        jdbcTemplate.update(INSERT_MAIL, recipient, subject, body, Timestamp.from(now), Timestamp.from(now));
+    }
+
+    public List<OutboxMail> claim(Instant now, Instant leaseUntil, int limit) {
+        return jdbcTemplate.query(CLAIM_MAILS, (resultSet, rowNum) -> new OutboxMail(
+                resultSet.getLong("id"),
+                resultSet.getString("recipient"),
+                resultSet.getString("subject"),
+                resultSet.getString("body"),
+                resultSet.getInt("attempts"),
+                resultSet.getTimestamp("created_at").toInstant()
+        ), Timestamp.from(leaseUntil), Timestamp.from(now), limit);
+    }
+
+    public void delete(List<Long> ids) {
+        if (!ids.isEmpty()) {
+            jdbcTemplate.update(DELETE_MAILS, (Object) ids.toArray(new Long[0]));
+        }
+    }
+
+    public void reschedule(Map<Long, Instant> nextAttempts, Map<Long, String> errors) {
+        List<Long> ids = new ArrayList<>(nextAttempts.keySet());
+        jdbcTemplate.batchUpdate(RESCHEDULE_MAIL, ids, ids.size(), (statement, id) -> {
+            Instant nextAttempt = nextAttempts.get(id);
+            statement.setTimestamp(1, nextAttempt == null ? null : Timestamp.from(nextAttempt));
+            statement.setString(2, errors.get(id));
+            statement.setLong(3, id);
+        });
+    }
+
+    public record OutboxMail(Long id, String recipient, String subject, String body, int attempts, Instant createdAt) {
+    }
+}
+
+// claim() leases due mails instead of locking them for the whole send: it moves next_attempt_at to the end of the lease and counts the attempt in one autocommitted UPDATE, so no transaction or connection is held while SMTP is slow. FOR UPDATE SKIP LOCKED lets several instances claim disjoint batches, and a dispatcher that dies mid-batch leaves its mails to be claimed again when the lease runs out.
+// A NULL next_attempt_at marks a mail that ran out of attempts; it stays in the table with its last_error for inspection and is never claimed again.
@@ -0,0 +1,49 @@
+package com.example.demo.repository;
+
+import com.example.demo.domain.Order;
+import com.example.demo.domain.OrderItem;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.util.List;
+
+@Repository
+@RequiredArgsConstructor
+public class OrderBatchRepository {
+
+    private static final String NEXT_IDS = "SELECT nextval('orders_seq'), ARRAY(SELECT nextval('order_item_seq') FROM generate_series(1, ?))";
+    private static final String INSERT_ORDER = "INSERT INTO orders (id, total_price, date, first_name, last_name, city, address, email, phone_number, post_index) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_ORDER_ITEM = "INSERT INTO order_item (id, amount, quantity, perfume_id) VALUES (?, ?, ?, ?)";
+    private static final String INSERT_ORDER_ORDER_ITEM = "INSERT INTO orders_order_items (order_id, order_items_id) VALUES (?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void insert(Order order) {
+        List<OrderItem> orderItems = order.getOrderItems();
+        jdbcTemplate.query(NEXT_IDS, resultSet -> {
+            order.setId(resultSet.getLong(1));
+            Long[] itemIds = (Long[]) resultSet.getArray(2).getArray();
+            for (int i = 0; i < orderItems.size(); i++) {
+                orderItems.get(i).setId(itemIds[i]);
+            }
+        }, orderItems.size());
+        jdbcTemplate.update(INSERT_ORDER, order.getId(), order.getTotalPrice(), Date.valueOf(order.getDate()), order.getFirstName(),
+                order.getLastName(), order.getCity(), order.getAddress(), order.getEmail(), order.getPhoneNumber(), order.getPostIndex());
+        jdbcTemplate.batchUpdate(INSERT_ORDER_ITEM, orderItems, orderItems.size(), (statement, orderItem) -> {
+            statement.setLong(1, orderItem.getId());
+            statement.setLong(2, orderItem.getAmount());
+            statement.setLong(3, orderItem.getQuantity());
+            statement.setLong(4, orderItem.getPerfume().getId());
+        });
+        jdbcTemplate.batchUpdate(INSERT_ORDER_ORDER_ITEM, orderItems, orderItems.size(), (statement, orderItem) -> {
+            statement.setLong(1, order.getId());
+            statement.setLong(2, orderItem.getId());
+        });
+    }
+}
+
+// Orders are written with plain JDBC for the same reason as PerfumeBatchRepository: Order and OrderItem use sequences with allocationSize = 1, so save() paid one nextval and one INSERT per cart line plus one INSERT per join row.
+// The order id and every order item id come back from a single SELECT (nextval over generate_series collected into an array), and the item and join rows go out as two JDBC batches, so a cart of any size is committed in the same number of round trips.
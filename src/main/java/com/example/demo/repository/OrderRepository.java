@@ -1,21 +1,40 @@
 package com.example.demo.repository;
 
 import com.example.demo.domain.Order;
+import com.example.demo.repository.projection.OrderExportProjection;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
 
     List<Order> findAllByOrderByIdAsc();
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new com.example.demo.repository.projection.OrderExportProjection(order.id, order.date, order.totalPrice, order.firstName, order.lastName, order.email, order.phoneNumber, order.city, order.address, order.postIndex) " +
+            "FROM orders order ORDER BY order.id ASC")
+    Stream<OrderExportProjection> streamAllByOrderByIdAsc();
+
     Page<Order> findAllByOrderByIdAsc(Pageable pageable);
 
+    Slice<Order> findSliceByOrderByIdAsc(Pageable pageable);
+
+    Slice<Order> findByIdGreaterThanOrderByIdAsc(Long orderId, Pageable pageable);
+
     List<Order> findOrderByEmail(String email);
 
     Page<Order> findOrderByEmail(String email, Pageable pageable);
 }
+
+// streamAllByOrderByIdAsc backs the admin CSV/NDJSON export. The Stream is read from a forward-only JDBC cursor: with a fetch size hint and autocommit off (the caller must hold a transaction), the PostgreSQL driver fetches 1000 rows per round trip instead of materializing the whole result set, and the DTO projection keeps rows out of the persistence context, so memory use does not grow with the table.
+// The Stream holds an open ResultSet and must be closed (try-with-resources) inside that transaction.
@@ -0,0 +1,50 @@
+package com.example.demo.repository;
+
+import com.example.demo.domain.Perfume;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+@RequiredArgsConstructor
+public class PerfumeBatchRepository {
+
+    private static final String INSERT_PERFUME = "INSERT INTO perfume (id, perfume_title, perfumer, year, country, perfume_gender, " +
+            "fragrance_top_notes, fragrance_middle_notes, fragrance_base_notes, description, filename, price, volume, type, perfume_rating) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public List<Long> nextIds(int count) {
+        return jdbcTemplate.queryForList("SELECT nextval('perfume_id_seq') FROM generate_series(1, ?)", Long.class, count);
+    }
+
+    public void insert(List<Perfume> perfumes) {
+        List<Long> ids = nextIds(perfumes.size());
+        for (int i = 0; i < perfumes.size(); i++) {
+            perfumes.get(i).setId(ids.get(i));
+        }
+        jdbcTemplate.batchUpdate(INSERT_PERFUME, perfumes, perfumes.size(), (statement, perfume) -> {
+            statement.setLong(1, perfume.getId());
+            statement.setString(2, perfume.getPerfumeTitle());
+            statement.setString(3, perfume.getPerfumer());
+            statement.setObject(4, perfume.getYear());
+            statement.setString(5, perfume.getCountry());
+            statement.setString(6, perfume.getPerfumeGender());
+            statement.setString(7, perfume.getFragranceTopNotes());
+            statement.setString(8, perfume.getFragranceMiddleNotes());
+            statement.setString(9, perfume.getFragranceBaseNotes());
+            statement.setString(10, perfume.getDescription());
+            statement.setString(11, perfume.getFilename());
+            statement.setObject(12, perfume.getPrice());
+            statement.setString(13, perfume.getVolume());
+            statement.setString(14, perfume.getType());
+            statement.setObject(15, perfume.getPerfumeRating());
+        });
+    }
+}
+
+// Bulk imports bypass JPA: the Perfume entity uses a sequence with allocationSize = 1, so saveAll() would run one nextval and one INSERT per row.
+// nextIds() takes a whole block of ids from perfume_id_seq in a single round trip (nextval over generate_series), and batchUpdate() sends the INSERTs as one JDBC batch, which the driver rewrites into multi-row INSERTs (reWriteBatchedInserts in application.properties).
@@ -0,0 +1,11 @@
+package com.example.demo.repository;
+
+import com.example.demo.dto.perfume.PerfumeSearchRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+
+public interface PerfumeFilterRepository {
+
+    List<Long> findIdsByFilter(PerfumeSearchRequest filter, List<Long> ranking, Pageable pageable);
+}
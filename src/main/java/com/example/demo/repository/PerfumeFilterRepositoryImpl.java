@@ -0,0 +1,69 @@
+package com.example.demo.repository;
+
+import com.example.demo.domain.Perfume;
+import com.example.demo.dto.perfume.PerfumeSearchRequest;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Session;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.springframework.data.domain.Pageable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class PerfumeFilterRepositoryImpl implements PerfumeFilterRepository {
+
+    private final EntityManager entityManager;
+
+    @Override
+    public List<Long> findIdsByFilter(PerfumeSearchRequest filter, List<Long> ranking, Pageable pageable) {
+        HibernateCriteriaBuilder criteriaBuilder = entityManager.unwrap(Session.class).getCriteriaBuilder();
+        CriteriaQuery<Long> query = criteriaBuilder.createQuery(Long.class);
+        Root<Perfume> perfume = query.from(Perfume.class);
+        query.select(perfume.get("id"));
+        Predicate predicate = PerfumeSpecifications.byFilter(filter).toPredicate(perfume, query, criteriaBuilder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        List<Order> orders = new ArrayList<>();
+        if (!ranking.isEmpty()) {
+            orders.add(criteriaBuilder.asc(rank(criteriaBuilder, perfume.get("id"), ranking)));
+        }
+        if (Boolean.TRUE.equals(filter.getSortByPrice())) {
+            orders.add(criteriaBuilder.asc(perfume.get("price"), false));
+            orders.add(criteriaBuilder.asc(perfume.get("id")));
+        } else {
+            orders.add(criteriaBuilder.desc(perfume.get("price"), false));
+            orders.add(criteriaBuilder.desc(perfume.get("id")));
+        }
+        query.orderBy(orders);
+        TypedQuery<Long> typedQuery = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset());
+            typedQuery.setMaxResults(pageable.getPageSize());
+        }
+        return typedQuery.getResultList();
+    }
+
+    private static Expression<Integer> rank(HibernateCriteriaBuilder criteriaBuilder, Path<Long> id, List<Long> ranking) {
+        CriteriaBuilder.SimpleCase<Long, Integer> rank = criteriaBuilder.selectCase(id);
+        for (int i = 0; i < ranking.size(); i++) {
+            rank.when(ranking.get(i), i);
+        }
+        return rank.otherwise(ranking.size());
+    }
+}
+
+// Spring Data picks this class up as the implementation of the PerfumeFilterRepository fragment of PerfumeRepository (the Impl suffix).
+// The query selects only ids, ordered by price ASC NULLS LAST or DESC NULLS LAST with id as the tie-breaker, which is the same order CatalogSnapshot produces. The ORDER BY is a plain column sort instead of the old CASE expression, so it can be read straight from perfume_price_id_idx / perfume_price_desc_id_idx (V7) and stop after the requested page.
+// With a bestseller ranking (sortByPopularity=true) a CASE id WHEN ... expression puts the ranked perfumes first in rank order. The ranking holds at most perfume.bestsellers.size ids, but an expression sort cannot use the indexes, so this shape sorts every matching row.
+// The service then loads the page of projections by primary key (getPerfumesInOrder), like the CatalogSnapshot and search index paths.
@@ -1,74 +1,126 @@
 package com.example.demo.repository;
 
 import com.example.demo.domain.Perfume;
+import com.example.demo.repository.projection.FullPerfumeProjection;
+import com.example.demo.repository.projection.PerfumeExportProjection;
 import com.example.demo.repository.projection.PerfumeProjection;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface PerfumeRepository extends JpaRepository<Perfume, Long> {
+public interface PerfumeRepository extends JpaRepository<Perfume, Long>, JpaSpecificationExecutor<Perfume>, PerfumeFilterRepository {
+
+    String SELECT_PROJECTION = "SELECT perfume.id AS id, perfume.perfumeTitle AS perfumeTitle, perfume.perfumer AS perfumer, " +
+            "perfume.price AS price, perfume.filename AS filename, perfume.perfumeRating AS perfumeRating, " +
+            "perfume.reviewsCount AS reviewsCount, perfume.volume AS volume ";
+
+    String FULL_TEXT_MATCH = "FROM perfume, websearch_to_tsquery('english', :text) query " +
+            "WHERE perfume.search_vector @@ query " +
+            "AND ts_filter(perfume.search_vector, CAST(string_to_array(:weights, ',') AS \"char\"[])) @@ query ";
 
     List<PerfumeProjection> findAllByOrderByIdAsc();
 
-    @Query("SELECT perfume FROM Perfume perfume ORDER BY perfume.id ASC")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new com.example.demo.repository.projection.PerfumeExportProjection(perfume.id, perfume.perfumeTitle, perfume.perfumer, perfume.year, perfume.country, perfume.perfumeGender, perfume.fragranceTopNotes, perfume.fragranceMiddleNotes, perfume.fragranceBaseNotes, perfume.description, perfume.filename, perfume.price, perfume.volume, perfume.type, perfume.perfumeRating, perfume.reviewsCount) " +
+            "FROM Perfume perfume ORDER BY perfume.id ASC")
+    Stream<PerfumeExportProjection> streamAllByOrderByIdAsc();
+
+    @Query(SELECT_PROJECTION + "FROM Perfume perfume ORDER BY perfume.id ASC")
     Page<PerfumeProjection> findAllByOrderByIdAsc(Pageable pageable);
 
+    @Query(SELECT_PROJECTION + "FROM Perfume perfume ORDER BY perfume.id ASC")
+    Slice<PerfumeProjection> findSliceByOrderByIdAsc(Pageable pageable);
+
+    @Query(SELECT_PROJECTION + "FROM Perfume perfume WHERE perfume.id > :perfumeId ORDER BY perfume.id ASC")
+    Slice<PerfumeProjection> findByIdGreaterThanOrderByIdAsc(Long perfumeId, Pageable pageable);
+
     List<Perfume> findByPerfumerOrderByPriceDesc(String perfumer);
 
     List<Perfume> findByPerfumeGenderOrderByPriceDesc(String perfumeGender);
 
     List<Perfume> findByIdIn(List<Long> perfumesIds);
 
-    @Query("SELECT perfume FROM Perfume perfume WHERE perfume.id IN :perfumesIds")
+    @Query(SELECT_PROJECTION + ", perfume.year AS year, perfume.country AS country, perfume.perfumeGender AS perfumeGender, " +
+            "perfume.fragranceTopNotes AS fragranceTopNotes, perfume.fragranceMiddleNotes AS fragranceMiddleNotes, " +
+            "perfume.fragranceBaseNotes AS fragranceBaseNotes, perfume.description AS description, perfume.type AS type, " +
+            "perfume.oneStarCount AS oneStarCount, perfume.twoStarCount AS twoStarCount, perfume.threeStarCount AS threeStarCount, " +
+            "perfume.fourStarCount AS fourStarCount, perfume.fiveStarCount AS fiveStarCount " +
+            "FROM Perfume perfume WHERE perfume.id = :perfumeId")
+    Optional<FullPerfumeProjection> getPerfumeById(Long perfumeId);
+
+    @Query(SELECT_PROJECTION + "FROM Perfume perfume WHERE perfume.id IN :perfumesIds")
     List<PerfumeProjection> getPerfumesByIds(List<Long> perfumesIds);
 
-    @Query("SELECT perfume FROM Perfume perfume " +
-            "WHERE (coalesce(:perfumers, null) IS NULL OR perfume.perfumer IN :perfumers) " +
-            "AND (coalesce(:genders, null) IS NULL OR perfume.perfumeGender IN :genders) " +
-            "AND (coalesce(:priceStart, null) IS NULL OR perfume.price BETWEEN :priceStart AND :priceEnd) " +
-            "ORDER BY CASE WHEN :sortByPrice = true THEN perfume.price ELSE -perfume.price END ASC")
-    Page<PerfumeProjection> findPerfumesByFilterParams(
-            List<String> perfumers,
-            List<String> genders,
-            Integer priceStart,
-            Integer priceEnd,
-            boolean sortByPrice,
-            Pageable pageable);
-
-    @Query("SELECT perfume FROM Perfume perfume " +
+    @Query(SELECT_PROJECTION + "FROM Perfume perfume " +
             "WHERE UPPER(perfume.perfumer) LIKE UPPER(CONCAT('%',:text,'%')) " +
             "ORDER BY perfume.price DESC")
     Page<PerfumeProjection> findByPerfumer(String text, Pageable pageable);
 
-    @Query("SELECT perfume FROM Perfume perfume " +
+    @Query(SELECT_PROJECTION + "FROM Perfume perfume " +
             "WHERE UPPER(perfume.perfumeTitle) LIKE UPPER(CONCAT('%',:text,'%')) " +
             "ORDER BY perfume.price DESC")
     Page<PerfumeProjection> findByPerfumeTitle(String text, Pageable pageable);
 
-    @Query("SELECT perfume FROM Perfume perfume " +
+    @Query(SELECT_PROJECTION + "FROM Perfume perfume " +
             "WHERE UPPER(perfume.country) LIKE UPPER(CONCAT('%',:text,'%')) " +
             "ORDER BY perfume.price DESC")
     Page<PerfumeProjection> findByManufacturerCountry(String text, Pageable pageable);
+
+    @Query(nativeQuery = true,
+            value = "SELECT perfume.id AS id, perfume.perfume_title AS \"perfumeTitle\", perfume.perfumer AS perfumer, " +
+                    "perfume.price AS price, perfume.filename AS filename, perfume.perfume_rating AS \"perfumeRating\", " +
+                    "perfume.reviews_count AS \"reviewsCount\", perfume.volume AS volume " +
+                    FULL_TEXT_MATCH +
+                    "ORDER BY ts_rank_cd(perfume.search_vector, query) DESC, perfume.id ASC",
+            countQuery = "SELECT COUNT(*) " + FULL_TEXT_MATCH)
+    Page<PerfumeProjection> findByFullText(String text, String weights, Pageable pageable);
+
+    @Query("SELECT perfume.reviewsCount FROM Perfume perfume WHERE perfume.id = :perfumeId")
+    Optional<Integer> findReviewsCountById(Long perfumeId);
+
+    @Modifying
+    @Query("UPDATE Perfume perfume SET perfume.reviewsCount = perfume.reviewsCount + 1, " +
+            "perfume.ratingSum = perfume.ratingSum + :rating, " +
+            "perfume.perfumeRating = CAST(perfume.ratingSum + :rating AS Double) / (perfume.reviewsCount + 1), " +
+            "perfume.oneStarCount = perfume.oneStarCount + CASE WHEN :rating = 1 THEN 1 ELSE 0 END, " +
+            "perfume.twoStarCount = perfume.twoStarCount + CASE WHEN :rating = 2 THEN 1 ELSE 0 END, " +
+            "perfume.threeStarCount = perfume.threeStarCount + CASE WHEN :rating = 3 THEN 1 ELSE 0 END, " +
+            "perfume.fourStarCount = perfume.fourStarCount + CASE WHEN :rating = 4 THEN 1 ELSE 0 END, " +
+            "perfume.fiveStarCount = perfume.fiveStarCount + CASE WHEN :rating = 5 THEN 1 ELSE 0 END " +
+            "WHERE perfume.id = :perfumeId")
+    int addRating(Long perfumeId, Integer rating);
 }
 
 
+// SELECT_PROJECTION lists the PerfumeProjection columns with matching aliases, so listing queries return tuples instead of managed entities and never touch the reviews association.
+
 // The sorting behavior is determined by the OrderByIdAsc part of the method name
 
 // The reason for using @Query in this case is to provide a custom sorting behavior for the findAllByOrderByIdAsc() method. By default, when using Spring Data JPA's findAll() method, the results are sorted by the primary key (in this case, the id column) in ascending order. However, using @Query allows you to explicitly define the sorting behavior based on your specific requirements.
 // SELECT perfume: Specifies the entity to be selected. In this case, it selects the Perfume entity.
 // FROM Perfume perfume: Specifies the entity from which the data is retrieved. In this case, it refers to the Perfume entity.
 
-// The coalesce function is used here to handle the case when :perfumers is null or empty and convert it to null. coalesce is a SQL function that returns the first non-null expression from a list of expressions.
+// findByFullText runs against the generated search_vector column (V6). websearch_to_tsquery accepts the same syntax as search boxes ("rose -oud", "\"eau de parfum\""), the GIN index finds the rows containing the query lexemes, and ts_filter keeps only matches inside the requested fields:
+// title has weight A, perfumer B, country C, notes and description D, so weights "b" searches brands only and "a,b,c,d" searches everything. Rows are ranked by ts_rank_cd, which favours matches where the query words appear close together.
+// The LIKE '%text%' queries below can use the trigram GIN indexes on upper(perfume_title), upper(perfumer) and upper(country) from V6 instead of scanning the table.
 
 // UPPER(perfume.perfumer): Converts the perfumer attribute to uppercase.
 // The purpose of % in this context is to represent any number of characters (including zero characters) in the pattern. It allows for partial matching against the perfumer attribute. The % wildcard characters allow for matching any characters before and after the search text.
 // In SQL, the LIKE operator is used to compare a value against a pattern. It allows for pattern matching based on wildcard characters: %: Matches any sequence of characters (including zero characters). _: Matches any single character.
 
-// the END keyword marks the end of the CASE statement
+// streamAllByOrderByIdAsc reads the catalog export through a forward-only cursor, 1000 rows per fetch (see OrderRepository).
 
-// The NULLS LAST keyword can be added to ensure that any rows with NULL values for perfume.price are placed at the end of the sorted result.
\ No newline at end of file
+// Catalog filters are not written as JPQL here: PerfumeFilterRepository builds them from PerfumeSpecifications with only the active predicates, and count(Specification) from JpaSpecificationExecutor counts the same filter.
@@ -0,0 +1,41 @@
+package com.example.demo.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Repository
+@RequiredArgsConstructor
+public class PerfumeSalesRepository {
+
+    private static final String UPSERT_SALES = "INSERT INTO perfume_sales (perfume_id, quantity) " +
+            "SELECT perfume.id, ? FROM perfume WHERE perfume.id = ? " +
+            "ON CONFLICT (perfume_id) DO UPDATE SET quantity = excluded.quantity";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public Map<Long, Long> findAll() {
+        Map<Long, Long> sales = new HashMap<>();
+        jdbcTemplate.query("SELECT perfume_id, quantity FROM perfume_sales",
+                resultSet -> {
+                    sales.put(resultSet.getLong("perfume_id"), resultSet.getLong("quantity"));
+                });
+        return sales;
+    }
+
+    public void save(Map<Long, Long> sales) {
+        List<Map.Entry<Long, Long>> entries = new ArrayList<>(sales.entrySet());
+        jdbcTemplate.batchUpdate(UPSERT_SALES, entries, entries.size(), (statement, entry) -> {
+            statement.setLong(1, entry.getValue());
+            statement.setLong(2, entry.getKey());
+        });
+    }
+}
+
+// perfume_sales holds the checkpointed units sold per perfume (V8 backfills it from order_item). The live counters are in PerfumeBestsellers; this table only has to survive restarts.
+// save() writes absolute totals, so replaying a checkpoint is harmless. The INSERT ... SELECT FROM perfume skips perfumes deleted since the counter was last updated instead of failing on the foreign key.
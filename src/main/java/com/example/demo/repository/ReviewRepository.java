@@ -1,9 +1,27 @@
 package com.example.demo.repository;
 
 import com.example.demo.domain.Review;
+import com.example.demo.repository.projection.ReviewProjection;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.List;
+
 @Repository
 public interface ReviewRepository extends JpaRepository<Review, Long> {
+
+    Slice<Review> findSliceByPerfumeIdOrderByDateDescIdDesc(Long perfumeId, Pageable pageable);
+
+    @Query("SELECT review FROM Review review WHERE review.perfumeId = :perfumeId AND (review.date, review.id) < (:date, :reviewId) " +
+            "ORDER BY review.date DESC, review.id DESC")
+    Slice<Review> findByPerfumeIdAfter(Long perfumeId, LocalDate date, Long reviewId, Pageable pageable);
+
+    List<ReviewProjection> findByPerfumeIdOrderByRatingDescDateDescIdDesc(Long perfumeId, Pageable pageable);
 }
+
+// Reviews are listed newest first. Every query reads the review_perfume_id_date_id_idx (or, for the top reviews, review_perfume_id_rating_date_id_idx) index of V10 in order and stops after the page, so the cost of a page does not depend on how many reviews the perfume has.
+// findByPerfumeIdAfter is the keyset variant: the row-value comparison (date, id) < (:date, :reviewId) starts the index scan right after the last review of the previous page instead of skipping OFFSET rows.
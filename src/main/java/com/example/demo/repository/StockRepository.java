@@ -0,0 +1,105 @@
+package com.example.demo.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.UUID;
+
+@Repository
+@RequiredArgsConstructor
+public class StockRepository {
+
+    private static final String TAKE_STOCK = "UPDATE perfume SET stock = stock - ? WHERE id = ? AND (stock IS NULL OR stock >= ?)";
+    private static final String RETURN_STOCK = "UPDATE perfume SET stock = stock + ? WHERE id = ?";
+    private static final String RESTOCK = "UPDATE perfume SET stock = COALESCE(stock, 0) + ? WHERE id = ? RETURNING stock";
+    private static final String COUNT_PERFUMES = "SELECT COUNT(*) FROM perfume WHERE id = ANY(?)";
+    private static final String LOCK_OWNER = "SELECT pg_advisory_xact_lock(hashtext(?))";
+    private static final String COUNT_OPEN_RESERVATIONS = "SELECT COUNT(DISTINCT reservation_id) FROM stock_reservation WHERE owner = ? AND expires_at >= ?";
+    private static final String INSERT_RESERVATION = "INSERT INTO stock_reservation (reservation_id, perfume_id, quantity, expires_at, owner) VALUES (?, ?, ?, ?, ?)";
+    private static final String DELETE_RESERVATION = "DELETE FROM stock_reservation WHERE reservation_id = ? AND owner = ? RETURNING perfume_id, quantity";
+    private static final String DELETE_EXPIRED = "DELETE FROM stock_reservation WHERE (reservation_id, perfume_id) IN (" +
+            "SELECT reservation_id, perfume_id FROM stock_reservation WHERE expires_at < ? LIMIT ? FOR UPDATE SKIP LOCKED) " +
+            "RETURNING perfume_id, quantity";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public boolean take(Map<Long, Long> quantities) {
+        List<Map.Entry<Long, Long>> entries = new ArrayList<>(new TreeMap<>(quantities).entrySet());
+        int[][] updated = jdbcTemplate.batchUpdate(TAKE_STOCK, entries, entries.size(), (statement, entry) -> {
+            statement.setLong(1, entry.getValue());
+            statement.setLong(2, entry.getKey());
+            statement.setLong(3, entry.getValue());
+        });
+        for (int[] batch : updated) {
+            for (int rows : batch) {
+                if (rows == 0) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    public void giveBack(Map<Long, Long> quantities) {
+        List<Map.Entry<Long, Long>> entries = new ArrayList<>(new TreeMap<>(quantities).entrySet());
+        jdbcTemplate.batchUpdate(RETURN_STOCK, entries, entries.size(), (statement, entry) -> {
+            statement.setLong(1, entry.getValue());
+            statement.setLong(2, entry.getKey());
+        });
+    }
+
+    public Optional<Integer> restock(Long perfumeId, int quantity) {
+        return jdbcTemplate.query(RESTOCK, (resultSet, rowNum) -> resultSet.getInt("stock"), quantity, perfumeId).stream().findFirst();
+    }
+
+    public int countPerfumes(Collection<Long> perfumeIds) {
+        return jdbcTemplate.queryForObject(COUNT_PERFUMES, Integer.class, (Object) perfumeIds.toArray(new Long[0]));
+    }
+
+    public int countOpenReservations(String owner, Instant now) {
+        jdbcTemplate.query(LOCK_OWNER, resultSet -> {
+        }, owner);
+        return jdbcTemplate.queryForObject(COUNT_OPEN_RESERVATIONS, Integer.class, owner, Timestamp.from(now));
+    }
+
+    public void saveReservation(UUID reservationId, String owner, Map<Long, Long> quantities, Instant expiresAt) {
+        List<Map.Entry<Long, Long>> entries = new ArrayList<>(quantities.entrySet());
+        jdbcTemplate.batchUpdate(INSERT_RESERVATION, entries, entries.size(), (statement, entry) -> {
+            statement.setObject(1, reservationId);
+            statement.setLong(2, entry.getKey());
+            statement.setLong(3, entry.getValue());
+            statement.setTimestamp(4, Timestamp.from(expiresAt));
+            statement.setString(5, owner);
+        });
+    }
+
+    public Map<Long, Long> deleteReservation(UUID reservationId, String owner) {
+        return quantities(DELETE_RESERVATION, reservationId, owner);
+    }
+
+    public Map<Long, Long> deleteExpiredReservations(Instant now, int limit) {
+        return quantities(DELETE_EXPIRED, Timestamp.from(now), limit);
+    }
+
+    private Map<Long, Long> quantities(String sql, Object... args) {
+        Map<Long, Long> quantities = new TreeMap<>();
+        jdbcTemplate.query(sql, resultSet -> {
+            quantities.merge(resultSet.getLong("perfume_id"), resultSet.getLong("quantity"), Long::sum);
+        }, args);
+        return quantities;
+    }
+}
+
+// Stock is taken with a conditional UPDATE: the row is only changed when enough units are left, and the database row lock makes concurrent checkouts of the same perfume wait for each other, so stock never goes below zero and no application lock is needed. A NULL stock means the perfume is not tracked and is never sold out.
+// Rows are updated in perfume id order (TreeMap), so two carts holding the same perfumes lock them in the same order and cannot deadlock.
+// deleteExpiredReservations claims at most limit expired rows with FOR UPDATE SKIP LOCKED, so it never waits for a checkout that is consuming the same reservation, and DELETE ... RETURNING hands every row to exactly one caller.
+// Reservations belong to the user who made them: deleteReservation() only matches the owner's rows, so a reservation id alone cannot release or consume someone else's stock. countOpenReservations() first takes a transaction-scoped advisory lock on the owner, so two concurrent reservations of the same user cannot both pass the per-user limit.
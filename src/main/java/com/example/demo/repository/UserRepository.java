@@ -2,22 +2,35 @@ package com.example.demo.repository;
 
 import com.example.demo.domain.User;
 
+import com.example.demo.repository.projection.UserExportProjection;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
 
     List<User> findAllByOrderByIdAsc();
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new com.example.demo.repository.projection.UserExportProjection(user.id, user.email, user.firstName, user.lastName, user.phoneNumber, user.city, user.address, user.postIndex, user.active, user.provider) " +
+            "FROM User user ORDER BY user.id ASC")
+    Stream<UserExportProjection> streamAllByOrderByIdAsc();
+
     Page<User> findAllByOrderByIdAsc(Pageable pageable);
 
+    Slice<User> findByIdGreaterThanOrderByIdAsc(Long userId, Pageable pageable);
+
     Optional<User> findByActivationCode(String code);
 
     Optional<User> findByEmail(String email);
@@ -25,3 +38,5 @@ public interface UserRepository extends JpaRepository<User, Long> {
     @Query("SELECT user.email FROM User user WHERE user.passwordResetCode = :code")
     Optional<String> getEmailByPasswordResetCode(String code);
 }
+
+// streamAllByOrderByIdAsc reads the export through a forward-only cursor, 1000 rows per fetch (see OrderRepository).
@@ -0,0 +1,27 @@
+package com.example.demo.repository.projection;
+
+public interface FullPerfumeProjection {
+    Long getId();
+    String getPerfumeTitle();
+    String getPerfumer();
+    Integer getPrice();
+    String getFilename();
+    Double getPerfumeRating();
+    Integer getReviewsCount();
+    String getVolume();
+    Integer getYear();
+    String getCountry();
+    String getPerfumeGender();
+    String getFragranceTopNotes();
+    String getFragranceMiddleNotes();
+    String getFragranceBaseNotes();
+    String getDescription();
+    String getType();
+    Integer getOneStarCount();
+    Integer getTwoStarCount();
+    Integer getThreeStarCount();
+    Integer getFourStarCount();
+    Integer getFiveStarCount();
+}
+
+// The columns of the perfume page. The getters of PerfumeProjection are repeated rather than inherited because ModelMapper only reads the methods declared by the projection interface. Like PerfumeProjection it is read from a tuple and has no setters and no reviews association, so an instance can be kept in the perfume cache and shared by every request without being changed or touching a closed session.
@@ -0,0 +1,12 @@
+package com.example.demo.repository.projection;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+@JsonPropertyOrder({"id", "perfumeTitle", "perfumer", "year", "country", "perfumeGender", "fragranceTopNotes",
+        "fragranceMiddleNotes", "fragranceBaseNotes", "description", "filename", "price", "volume", "type", "perfumeRating", "reviewsCount"})
+public record PerfumeExportProjection(Long id, String perfumeTitle, String perfumer, Integer year, String country, String perfumeGender,
+                                      String fragranceTopNotes, String fragranceMiddleNotes, String fragranceBaseNotes, String description,
+                                      String filename, Integer price, String volume, String type, Double perfumeRating, Integer reviewsCount) {
+}
+
+// The column names match the fields of PerfumeRequest, so an exported file can be fed back to the bulk import endpoint (unknown columns such as id and perfumeRating are ignored there).
@@ -1,7 +1,5 @@
 package com.example.demo.repository.projection;
 
-import org.springframework.beans.factory.annotation.Value;
-
 public interface PerfumeProjection {
     Long getId();
     String getPerfumeTitle();
@@ -9,17 +7,12 @@ public interface PerfumeProjection {
     Integer getPrice();
     String getFilename();
     Double getPerfumeRating();
-    
-    @Value("#{target.reviews.size()}")
     Integer getReviewsCount();
-
-    void setPerfumer(String perfumer);
-    void setPerfumeGender(String perfumeGender);
-    void setPrice(Integer price);
+    String getVolume();
 }
 
 
-// The target refers to the target entity object being projected.
+// This is a closed projection: every getter maps to a column of the perfume table, so Spring Data selects only these columns and a listing page is loaded with a single query. The review count comes from the materialized reviews_count column instead of initializing the reviews collection for every row.
 
 // Here are a few reasons why you might use projections in JPA repositories:
 //1. Reducing Data Transfer: Projections allow you to retrieve only the required attributes of an entity or a combination of attributes from multiple entities. This helps minimize the amount of data transferred between the database and the application, improving performance and reducing network overhead.
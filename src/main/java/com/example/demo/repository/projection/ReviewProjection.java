@@ -0,0 +1,13 @@
+package com.example.demo.repository.projection;
+
+import java.time.LocalDate;
+
+public interface ReviewProjection {
+    Long getId();
+    String getAuthor();
+    String getMessage();
+    Integer getRating();
+    LocalDate getDate();
+}
+
+// The columns of a review card. It is a closed projection with no setters, so the top reviews can be kept in the reviews cache and shared by every request the same way FullPerfumeProjection is kept in the perfume cache.
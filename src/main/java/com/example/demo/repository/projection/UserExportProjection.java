@@ -0,0 +1,11 @@
+package com.example.demo.repository.projection;
+
+import com.example.demo.enums.AuthProvider;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+@JsonPropertyOrder({"id", "email", "firstName", "lastName", "phoneNumber", "city", "address", "postIndex", "active", "provider"})
+public record UserExportProjection(Long id, String email, String firstName, String lastName, String phoneNumber, String city,
+                                   String address, String postIndex, boolean active, AuthProvider provider) {
+}
+
+// Password hashes and activation/reset codes are deliberately left out of the export. Roles live in the user_role collection table and are not part of this single-table projection.
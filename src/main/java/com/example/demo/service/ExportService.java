@@ -0,0 +1,15 @@
+package com.example.demo.service;
+
+import com.example.demo.enums.ExportFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface ExportService {
+
+    long exportOrders(ExportFormat format, OutputStream output) throws IOException;
+
+    long exportUsers(ExportFormat format, OutputStream output) throws IOException;
+
+    long exportPerfumes(ExportFormat format, OutputStream output) throws IOException;
+}
@@ -0,0 +1,10 @@
+package com.example.demo.service;
+
+import java.util.function.Supplier;
+
+public interface IdempotencyService {
+
+    <T> T execute(String owner, String key, Object request, Class<T> responseType, Supplier<T> action);
+
+    int deleteExpiredKeys();
+}
@@ -12,7 +12,8 @@ import com.example.demo.exception.PasswordException;
 import com.example.demo.repository.UserRepository;
 import com.example.demo.security.JwtProvider;
 import com.example.demo.security.oauth2.OAuth2UserInfo;
-import com.example.demo.service.email.MailSender;
+import com.example.demo.service.email.MailOutbox;
+import com.example.demo.service.pagination.PageTotalCache;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
@@ -39,9 +40,10 @@ public class AuthenticationServiceImpl implements AuthenticationService {
     private final AuthenticationManager authenticationManager;
     private final RestTemplate restTemplate;
     private final JwtProvider jwtProvider;
-    private final MailSender mailSender;
+    private final MailOutbox mailOutbox;
     private final PasswordEncoder passwordEncoder;
     private final UserRepository userRepository;
+    private final PageTotalCache pageTotalCache;
 
     @Value("${hostname}")
     private String hostname;
@@ -88,6 +90,7 @@ public class AuthenticationServiceImpl implements AuthenticationService {
         user.setActivationCode(UUID.randomUUID().toString());
         user.setPassword(passwordEncoder.encode(user.getPassword()));
         userRepository.save(user);
+        pageTotalCache.invalidate(PageTotalCache.USERS);
 
         sendEmail(user, "Activation code", "registration-template", "registrationUrl", "/activate/" + user.getActivationCode());
         return "User successfully registered.";
@@ -103,7 +106,9 @@ public class AuthenticationServiceImpl implements AuthenticationService {
         user.setActive(true);
         user.setRoles(Collections.singleton(Role.USER));
         user.setProvider(AuthProvider.valueOf(provider.toUpperCase()));
-        return userRepository.save(user);
+        User savedUser = userRepository.save(user);
+        pageTotalCache.invalidate(PageTotalCache.USERS);
+        return savedUser;
     }
 
     @Override
@@ -165,6 +170,6 @@ public class AuthenticationServiceImpl implements AuthenticationService {
         Map<String, Object> attributes = new HashMap<>();
         attributes.put("firstName", user.getFirstName());
         attributes.put(urlAttribute, "http://" + hostname + urlPath);
-        mailSender.sendMessageHtml(user.getEmail(), subject, template, attributes);
+        mailOutbox.enqueue(user.getEmail(), subject, template, attributes);
     }
 }
@@ -0,0 +1,88 @@
+package com.example.demo.service.Impl;
+
+import com.example.demo.enums.ExportFormat;
+import com.example.demo.repository.OrderRepository;
+import com.example.demo.repository.PerfumeRepository;
+import com.example.demo.repository.UserRepository;
+import com.example.demo.repository.projection.OrderExportProjection;
+import com.example.demo.repository.projection.PerfumeExportProjection;
+import com.example.demo.repository.projection.UserExportProjection;
+import com.example.demo.service.ExportService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+@Service
+@RequiredArgsConstructor
+public class ExportServiceImpl implements ExportService {
+
+    private static final CsvMapper CSV_MAPPER = CsvMapper.builder()
+            .addModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+            .build();
+
+    private final OrderRepository orderRepository;
+    private final UserRepository userRepository;
+    private final PerfumeRepository perfumeRepository;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    @Transactional(readOnly = true)
+    public long exportOrders(ExportFormat format, OutputStream output) throws IOException {
+        try (Stream<OrderExportProjection> orders = orderRepository.streamAllByOrderByIdAsc()) {
+            return write(orders, OrderExportProjection.class, format, output);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long exportUsers(ExportFormat format, OutputStream output) throws IOException {
+        try (Stream<UserExportProjection> users = userRepository.streamAllByOrderByIdAsc()) {
+            return write(users, UserExportProjection.class, format, output);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long exportPerfumes(ExportFormat format, OutputStream output) throws IOException {
+        try (Stream<PerfumeExportProjection> perfumes = perfumeRepository.streamAllByOrderByIdAsc()) {
+            return write(perfumes, PerfumeExportProjection.class, format, output);
+        }
+    }
+
+    private <T> long write(Stream<T> rows, Class<T> type, ExportFormat format, OutputStream output) throws IOException {
+        ObjectWriter writer = format == ExportFormat.CSV
+                ? CSV_MAPPER.writerFor(type).with(CSV_MAPPER.schemaFor(type).withHeader())
+                : objectMapper.writerFor(type).without(JsonGenerator.Feature.AUTO_CLOSE_TARGET).withRootValueSeparator("\n");
+        long count = 0;
+        try (SequenceWriter sequenceWriter = writer.writeValues(output)) {
+            Iterator<T> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                sequenceWriter.write(iterator.next());
+                count++;
+            }
+            if (format == ExportFormat.NDJSON && count > 0) {
+                output.write('\n');
+            }
+        }
+        output.flush();
+        return count;
+    }
+}
+
+// Exports never build a List: each repository Stream is backed by a forward-only JDBC cursor that fetches 1000 rows at a time, and every row is serialized to the response as soon as it is read, so memory use is the same for ten rows and ten million.
+// The cursor only works inside a transaction (PostgreSQL ignores the fetch size in autocommit mode and loads the whole result set), so each export method is @Transactional(readOnly = true) and runs entirely on the thread that writes the response.
+// CSV rows use the projection's @JsonPropertyOrder for the header, NDJSON writes one JSON object per line. AUTO_CLOSE_TARGET is disabled so closing the SequenceWriter does not close the servlet output stream.
@@ -0,0 +1,173 @@
+package com.example.demo.service.Impl;
+
+import com.example.demo.exception.ApiRequestException;
+import com.example.demo.repository.IdempotencyKeyRepository;
+import com.example.demo.repository.IdempotencyKeyRepository.StoredResponse;
+import com.example.demo.service.IdempotencyService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.SneakyThrows;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+import static com.example.demo.constants.ErrorMessage.IDEMPOTENCY_KEY_REUSED;
+import static com.example.demo.constants.ErrorMessage.IDEMPOTENCY_REQUEST_IN_PROGRESS;
+import static com.example.demo.constants.ErrorMessage.INVALID_IDEMPOTENCY_KEY;
+import static com.example.demo.service.TransactionCallbacks.afterCommit;
+
+@Service
+@RequiredArgsConstructor
+public class IdempotencyServiceImpl implements IdempotencyService {
+
+    private static final Pattern UUID_PATTERN = Pattern.compile("[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}");
+
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, CompletableFuture<Void>> inFlight = new ConcurrentHashMap<>();
+    private Cache<String, StoredResponse> responses;
+
+    @Value("${idempotency.ttl:PT24H}")
+    private Duration ttl;
+
+    @Value("${idempotency.cache.max-size:10000}")
+    private long cacheMaxSize;
+
+    @Value("${idempotency.cleanup-batch-size:1000}")
+    private int cleanupBatchSize;
+
+    @Value("${idempotency.wait-timeout:PT10S}")
+    private Duration waitTimeout;
+
+    @PostConstruct
+    public void init() {
+        responses = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    @Override
+    public <T> T execute(String owner, String idempotencyKey, Object request, Class<T> responseType, Supplier<T> action) {
+        if (!UUID_PATTERN.matcher(idempotencyKey).matches()) {
+            throw new ApiRequestException(INVALID_IDEMPOTENCY_KEY, HttpStatus.BAD_REQUEST);
+        }
+        String key = owner == null ? idempotencyKey.toLowerCase() : owner + ":" + idempotencyKey.toLowerCase();
+        String requestHash = hash(request);
+        long deadline = System.nanoTime() + waitTimeout.toNanos();
+        while (true) {
+            StoredResponse cached = responses.getIfPresent(key);
+            if (cached != null) {
+                count("memory");
+                return replay(cached, requestHash, responseType);
+            }
+            CompletableFuture<Void> flight = new CompletableFuture<>();
+            CompletableFuture<Void> leader = inFlight.putIfAbsent(key, flight);
+            if (leader != null) {
+                await(leader, deadline);
+                continue;
+            }
+            try {
+                return transactionTemplate.execute(status -> executeOnce(key, requestHash, responseType, action));
+            } finally {
+                inFlight.remove(key, flight);
+                flight.complete(null);
+            }
+        }
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${idempotency.cleanup-interval:PT10M}")
+    public int deleteExpiredKeys() {
+        int deleted = 0;
+        int batch;
+        do {
+            batch = idempotencyKeyRepository.deleteExpired(Instant.now(), cleanupBatchSize);
+            deleted += batch;
+        } while (batch == cleanupBatchSize);
+        return deleted;
+    }
+
+    private <T> T executeOnce(String key, String requestHash, Class<T> responseType, Supplier<T> action) {
+        Instant now = Instant.now();
+        if (!idempotencyKeyRepository.claim(key, requestHash, now, now.plus(ttl))) {
+            StoredResponse stored = idempotencyKeyRepository.find(key).orElse(null);
+            if (stored == null) {
+                return executeOnce(key, requestHash, responseType, action);
+            }
+            count("database");
+            afterCommit(() -> responses.put(key, stored));
+            return replay(stored, requestHash, responseType);
+        }
+        T response = action.get();
+        StoredResponse stored = new StoredResponse(requestHash, serialize(response));
+        idempotencyKeyRepository.saveResponse(key, stored.response());
+        count("executed");
+        afterCommit(() -> responses.put(key, stored));
+        return response;
+    }
+
+    private static void await(CompletableFuture<Void> leader, long deadline) {
+        try {
+            leader.get(Math.max(deadline - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            throw new ApiRequestException(IDEMPOTENCY_REQUEST_IN_PROGRESS, HttpStatus.CONFLICT);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ApiRequestException(IDEMPOTENCY_REQUEST_IN_PROGRESS, HttpStatus.CONFLICT);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @SneakyThrows
+    private <T> T replay(StoredResponse stored, String requestHash, Class<T> responseType) {
+        if (!stored.requestHash().equals(requestHash)) {
+            throw new ApiRequestException(IDEMPOTENCY_KEY_REUSED, HttpStatus.UNPROCESSABLE_ENTITY);
+        }
+        return objectMapper.readValue(stored.response(), responseType);
+    }
+
+    @SneakyThrows
+    private String serialize(Object response) {
+        return objectMapper.writeValueAsString(response);
+    }
+
+    @SneakyThrows
+    private String hash(Object request) {
+        byte[] json = objectMapper.writer().with(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS).writeValueAsBytes(request);
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(json));
+    }
+
+    private void count(String result) {
+        meterRegistry.counter("idempotency.requests", "result", result).increment();
+    }
+}
+
+// execute() returns the response stored for a key instead of running the action again. Recent responses are served from a bounded Caffeine cache without touching the database; older ones come from idempotency_key, which keeps them for idempotency.ttl.
+// Concurrent calls with the same key on this instance wait for the first one (inFlight) and then read its response from the cache; duplicates arriving on other instances wait on the key row that the first transaction inserted (see IdempotencyKeyRepository). If the first call fails, its transaction rolls the key back and the next caller runs the action.
+// Keys must be UUIDs. A signed-in user's key is stored as "<email>:<key>", so two users choosing the same key never see each other's responses; anonymous keys are stored as they are and rely on being unguessable.
+// A duplicate waits at most idempotency.wait-timeout for the call already running on this instance and then gets 409, so a stuck first attempt cannot pile up request threads.
+// The action runs inside the same transaction as the key and its stored response, so the order and its replayable response are committed together. A key sent again with a different request body is rejected with 422 rather than answered with the response of another request.
@@ -0,0 +1,127 @@
+package com.example.demo.service.Impl;
+
+import com.example.demo.dto.order.StockReservationResponse;
+import com.example.demo.exception.ApiRequestException;
+import com.example.demo.repository.StockRepository;
+import com.example.demo.service.InventoryService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import static com.example.demo.constants.ErrorMessage.*;
+
+@Service
+@RequiredArgsConstructor
+public class InventoryServiceImpl implements InventoryService {
+
+    private final StockRepository stockRepository;
+
+    @Value("${inventory.reservation.ttl:PT15M}")
+    private Duration reservationTtl;
+
+    @Value("${inventory.reservation.release-batch-size:1000}")
+    private int releaseBatchSize;
+
+    @Value("${inventory.reservation.max-quantity:10}")
+    private long maxReservedQuantity;
+
+    @Value("${inventory.reservation.max-open:3}")
+    private int maxOpenReservations;
+
+    @Override
+    @Transactional
+    public StockReservationResponse reserve(String owner, Map<Long, Long> perfumesId) {
+        validate(perfumesId);
+        if (perfumesId.values().stream().anyMatch(quantity -> quantity > maxReservedQuantity)) {
+            throw new ApiRequestException(RESERVATION_QUANTITY_EXCEEDED, HttpStatus.BAD_REQUEST);
+        }
+        Instant now = Instant.now();
+        if (stockRepository.countOpenReservations(owner, now) >= maxOpenReservations) {
+            throw new ApiRequestException(TOO_MANY_RESERVATIONS, HttpStatus.TOO_MANY_REQUESTS);
+        }
+        take(perfumesId);
+        UUID reservationId = UUID.randomUUID();
+        Instant expiresAt = now.plus(reservationTtl);
+        stockRepository.saveReservation(reservationId, owner, perfumesId, expiresAt);
+        return new StockReservationResponse(reservationId, expiresAt);
+    }
+
+    @Override
+    @Transactional
+    public void release(String owner, UUID reservationId) {
+        Map<Long, Long> reserved = stockRepository.deleteReservation(reservationId, owner);
+        if (reserved.isEmpty()) {
+            throw new ApiRequestException(RESERVATION_NOT_FOUND, HttpStatus.NOT_FOUND);
+        }
+        stockRepository.giveBack(reserved);
+    }
+
+    @Override
+    @Transactional
+    public void checkout(String owner, UUID reservationId, Map<Long, Long> perfumesId) {
+        validate(perfumesId);
+        Map<Long, Long> reserved = reservationId == null || owner == null ? Map.of() : stockRepository.deleteReservation(reservationId, owner);
+        Map<Long, Long> missing = new HashMap<>();
+        Map<Long, Long> surplus = new HashMap<>(reserved);
+        perfumesId.forEach((perfumeId, quantity) -> {
+            long difference = quantity - surplus.getOrDefault(perfumeId, 0L);
+            surplus.remove(perfumeId);
+            if (difference > 0) {
+                missing.put(perfumeId, difference);
+            } else if (difference < 0) {
+                surplus.put(perfumeId, -difference);
+            }
+        });
+        take(missing);
+        stockRepository.giveBack(surplus);
+    }
+
+    @Override
+    @Transactional
+    public int restock(Long perfumeId, int quantity) {
+        if (quantity <= 0) {
+            throw new ApiRequestException(INVALID_QUANTITY, HttpStatus.BAD_REQUEST);
+        }
+        return stockRepository.restock(perfumeId, quantity)
+                .orElseThrow(() -> new ApiRequestException(PERFUME_NOT_FOUND, HttpStatus.NOT_FOUND));
+    }
+
+    @Override
+    @Transactional
+    @Scheduled(fixedDelayString = "${inventory.reservation.release-interval:PT10S}")
+    public int releaseExpiredReservations() {
+        Map<Long, Long> expired = stockRepository.deleteExpiredReservations(Instant.now(), releaseBatchSize);
+        stockRepository.giveBack(expired);
+        return expired.size();
+    }
+
+    private void take(Map<Long, Long> perfumesId) {
+        if (!perfumesId.isEmpty() && !stockRepository.take(perfumesId)) {
+            if (stockRepository.countPerfumes(perfumesId.keySet()) != perfumesId.size()) {
+                throw new ApiRequestException(PERFUME_NOT_FOUND, HttpStatus.NOT_FOUND);
+            }
+            throw new ApiRequestException(OUT_OF_STOCK, HttpStatus.CONFLICT);
+        }
+    }
+
+    private static void validate(Map<Long, Long> perfumesId) {
+        if (perfumesId == null || perfumesId.isEmpty() || perfumesId.values().stream().anyMatch(quantity -> quantity == null || quantity <= 0)) {
+            throw new ApiRequestException(INVALID_QUANTITY, HttpStatus.BAD_REQUEST);
+        }
+    }
+}
+
+// reserve() takes the stock of a cart right away and records it in stock_reservation for inventory.reservation.ttl. The client sends the reservation id with the order, and checkout() turns the reservation into the sale: units already reserved are kept, missing ones are taken now and reserved units the order no longer contains are given back.
+// Reservations that are neither ordered nor released are returned to stock by releaseExpiredReservations, every inventory.reservation.release-interval, at most inventory.reservation.release-batch-size rows per run.
+// A failed take throws inside the transaction, so the units taken for the other perfumes of the same cart are rolled back with it.
+// Reservations need a signed-in user: each user may hold at most inventory.reservation.max-open unexpired reservations of at most inventory.reservation.max-quantity units per perfume, so nobody can hold a perfume's whole stock. checkout() only consumes a reservation of the user placing the order; anonymous orders take their stock directly.
+// When a take fails, the perfume ids are checked only then, so an unknown perfume answers 404 without an extra query on the successful path.
@@ -3,35 +3,52 @@ package com.example.demo.service.Impl;
 import com.example.demo.domain.Order;
 import com.example.demo.domain.OrderItem;
 import com.example.demo.domain.Perfume;
+import com.example.demo.enums.PageCountMode;
 import com.example.demo.exception.ApiRequestException;
-import com.example.demo.repository.OrderItemRepository;
+import com.example.demo.repository.OrderBatchRepository;
 import com.example.demo.repository.OrderRepository;
 import com.example.demo.repository.PerfumeRepository;
+import com.example.demo.service.InventoryService;
 import com.example.demo.service.OrderService;
-import com.example.demo.service.email.MailSender;
+import com.example.demo.service.catalog.PerfumeBestsellers;
+import com.example.demo.service.email.MailOutbox;
+import com.example.demo.service.pagination.PageTotalCache;
 import graphql.schema.DataFetcher;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import static com.example.demo.constants.ErrorMessage.*;
+import static com.example.demo.service.TransactionCallbacks.afterCommit;
 
 @Service
 @RequiredArgsConstructor
 public class OrderServiceImpl implements OrderService {
 
     private final OrderRepository orderRepository;
-    private final OrderItemRepository orderItemRepository;
+    private final OrderBatchRepository orderBatchRepository;
     private final PerfumeRepository perfumeRepository;
-    private final MailSender mailSender;
+    private final MailOutbox mailOutbox;
+    private final PageTotalCache pageTotalCache;
+    private final PerfumeBestsellers perfumeBestsellers;
+    private final InventoryService inventoryService;
+
+    @Value("${pagination.count-mode.orders:CACHED}")
+    private PageCountMode ordersCountMode;
 
     @Override
     public Order getOrderById(Long orderId) {
@@ -47,7 +64,21 @@ public class OrderServiceImpl implements OrderService {
 
     @Override
     public Page<Order> getAllOrders(Pageable pageable) {
-        return orderRepository.findAllByOrderByIdAsc(pageable);
+        if (ordersCountMode == PageCountMode.EXACT) {
+            return orderRepository.findAllByOrderByIdAsc(pageable);
+        }
+        Slice<Order> orders = orderRepository.findSliceByOrderByIdAsc(pageable);
+        return new PageImpl<>(orders.getContent(), pageable, countOrders());
+    }
+
+    @Override
+    public Slice<Order> getAllOrdersAfter(Long orderId, Pageable pageable) {
+        return orderRepository.findByIdGreaterThanOrderByIdAsc(orderId, PageRequest.of(0, pageable.getPageSize()));
+    }
+
+    @Override
+    public long countOrders() {
+        return pageTotalCache.getTotal(PageTotalCache.ORDERS, orderRepository::count);
     }
 
     @Override
@@ -57,26 +88,34 @@ public class OrderServiceImpl implements OrderService {
 
     @Override
     @Transactional
-    public Order postOrder(Order order, Map<Long, Long> perfumesId) {
-        List<OrderItem> orderItemList = new ArrayList<>();
+    public Order postOrder(Order order, Map<Long, Long> perfumesId, UUID reservationId, String reservationOwner) {
+        if (perfumesId == null || perfumesId.isEmpty() || perfumesId.values().stream().anyMatch(quantity -> quantity == null || quantity <= 0)) {
+            throw new ApiRequestException(INVALID_QUANTITY, HttpStatus.BAD_REQUEST);
+        }
+        Map<Long, Perfume> perfumes = perfumeRepository.findAllById(perfumesId.keySet()).stream()
+                .collect(Collectors.toMap(Perfume::getId, Function.identity()));
+        if (perfumes.size() != perfumesId.size()) {
+            throw new ApiRequestException(PERFUME_NOT_FOUND, HttpStatus.NOT_FOUND);
+        }
+        inventoryService.checkout(reservationOwner, reservationId, perfumesId);
 
         for (Map.Entry<Long, Long> entry : perfumesId.entrySet()) {
-            Perfume perfume = perfumeRepository.findById(entry.getKey()).get();
+            Perfume perfume = perfumes.get(entry.getKey());
             OrderItem orderItem = new OrderItem();
             orderItem.setPerfume(perfume);
             orderItem.setAmount((perfume.getPrice() * entry.getValue()));
             orderItem.setQuantity(entry.getValue());
-            orderItemList.add(orderItem);
-            orderItemRepository.save(orderItem);
+            order.getOrderItems().add(orderItem);
         }
-        order.getOrderItems().addAll(orderItemList);
-        orderRepository.save(order);
+        orderBatchRepository.insert(order);
+        pageTotalCache.invalidate(PageTotalCache.ORDERS);
+        afterCommit(() -> perfumeBestsellers.record(perfumesId));
 
         String subject = "Order #" + order.getId();
         String template = "order-template";
         Map<String, Object> attributes = new HashMap<>();
         attributes.put("order", order);
-        mailSender.sendMessageHtml(order.getEmail(), subject, template, attributes);
+        mailOutbox.enqueue(order.getEmail(), subject, template, attributes);
         return order;
     }
 
@@ -86,6 +125,7 @@ public class OrderServiceImpl implements OrderService {
         Order order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new ApiRequestException(ORDER_NOT_FOUND, HttpStatus.NOT_FOUND));
         orderRepository.delete(order);
+        pageTotalCache.invalidate(PageTotalCache.ORDERS);
         return "Order deleted successfully";
     }
 
@@ -105,4 +145,6 @@ public class OrderServiceImpl implements OrderService {
 
 // @Transactional helps in managing transactions by automatically starting a transaction before the annotated method is executed and committing or rolling back the transaction after the method completes. Transactions are used to ensure data integrity and consistency when multiple database operations are performed as a single unit of work.
 // The @Transactional annotation can also be applied at the class level to indicate that all public methods within the class should be transactional
-// @Transactional annotation requires appropriate transaction management configuration, such as enabling transaction management in the application configuration file (@EnableTransactionManagement), configuring a transaction manager, and setting up a data source.
\ No newline at end of file
+// @Transactional annotation requires appropriate transaction management configuration, such as enabling transaction management in the application configuration file (@EnableTransactionManagement), configuring a transaction manager, and setting up a data source.
+// postOrder loads every perfume of the cart with one findAllById and hands the order to OrderBatchRepository, so placing an order costs a fixed number of statements however many lines the cart has.
+// The cart is checked before the lookup: a missing or empty cart, or a quantity that is missing or not positive, answers 400 INVALID_QUANTITY instead of failing inside findAllById.
@@ -2,18 +2,44 @@ package com.example.demo.service.Impl;
 
 import com.amazonaws.services.s3.AmazonS3;
 import com.amazonaws.services.s3.model.PutObjectRequest;
+import com.example.demo.aspect.SingleFlight;
+import com.example.demo.configuration.CacheConfiguration;
 import com.example.demo.domain.Perfume;
 import com.example.demo.dto.perfume.PerfumeSearchRequest;
+import com.example.demo.enums.FilterEngine;
+import com.example.demo.enums.PageCountMode;
+import com.example.demo.enums.SearchEngine;
 import com.example.demo.enums.SearchPerfume;
 import com.example.demo.exception.ApiRequestException;
 import com.example.demo.repository.PerfumeRepository;
+import com.example.demo.repository.PerfumeSpecifications;
+import com.example.demo.repository.projection.FullPerfumeProjection;
 import com.example.demo.repository.projection.PerfumeProjection;
 import com.example.demo.service.PerfumeService;
+import com.example.demo.service.catalog.CatalogSnapshot;
+import com.example.demo.service.catalog.PerfumeBestsellers;
+import com.example.demo.service.catalog.CatalogVersion;
+import com.example.demo.service.pagination.PageTotalCache;
+import com.example.demo.service.search.PerfumeFacetIndex;
+import com.example.demo.service.search.PerfumeCorrection;
+import com.example.demo.service.search.PerfumeFacets;
+import com.example.demo.service.search.PerfumeFuzzyIndex;
+import com.example.demo.service.search.PerfumeFuzzySearch;
+import com.example.demo.service.search.PerfumeIndex;
+import com.example.demo.service.search.PerfumeSearchIndex;
+import com.example.demo.service.search.PerfumeSimilarityIndex;
+import com.example.demo.service.search.PerfumeSuggestIndex;
+import com.example.demo.service.search.PerfumeSuggestion;
 import graphql.schema.DataFetcher;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -22,47 +48,120 @@ import org.springframework.web.multipart.MultipartFile;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.util.Comparator;
 import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
 import static com.example.demo.constants.ErrorMessage.PERFUME_NOT_FOUND;
+import static com.example.demo.service.TransactionCallbacks.afterCommit;
 
 @Service
 @RequiredArgsConstructor
 public class PerfumeServiceImpl implements PerfumeService {
 
+    private static final int MAX_CORRECTIONS = 10;
+
     private final PerfumeRepository perfumeRepository;
     private final AmazonS3 amazonS3client;
+    private final PerfumeSearchIndex perfumeSearchIndex;
+    private final PerfumeFacetIndex perfumeFacetIndex;
+    private final PerfumeFuzzyIndex perfumeFuzzyIndex;
+    private final PerfumeSuggestIndex perfumeSuggestIndex;
+    private final PerfumeSimilarityIndex perfumeSimilarityIndex;
+    private final PerfumeBestsellers perfumeBestsellers;
+    private final CatalogSnapshot catalogSnapshot;
+    private final CatalogVersion catalogVersion;
+    private final PageTotalCache pageTotalCache;
+    private final List<PerfumeIndex> perfumeIndexes;
 
     @Value("${amazon.s3.bucket.name}")
     private String bucketName;
 
+    @Value("${pagination.count-mode.perfumes:CACHED}")
+    private PageCountMode perfumesCountMode;
+
+    @Value("${pagination.count-mode.perfume-search:CACHED}")
+    private PageCountMode perfumeSearchCountMode;
+
+    @Value("${perfume.filter.engine:SNAPSHOT}")
+    private FilterEngine filterEngine;
+
+    @Value("${perfume.search.engine:INDEX}")
+    private SearchEngine searchEngine;
+
     @Override
-    public Perfume getPerfumeById(Long perfumeId) {
-        return perfumeRepository.findById(perfumeId)
+    @SingleFlight
+    @Cacheable(value = CacheConfiguration.PERFUME, key = CacheConfiguration.CATALOG_KEY + "#perfumeId", sync = true)
+    public FullPerfumeProjection getPerfumeById(Long perfumeId) {
+        return perfumeRepository.getPerfumeById(perfumeId)
                 .orElseThrow(() -> new ApiRequestException(PERFUME_NOT_FOUND, HttpStatus.NOT_FOUND));
     }
 
     @Override
     public Page<PerfumeProjection> getAllPerfumes(Pageable pageable) {
-        return perfumeRepository.findAllByOrderByIdAsc(pageable);
+        if (perfumesCountMode == PageCountMode.EXACT) {
+            return perfumeRepository.findAllByOrderByIdAsc(pageable);
+        }
+        Slice<PerfumeProjection> perfumes = perfumeRepository.findSliceByOrderByIdAsc(pageable);
+        return new PageImpl<>(perfumes.getContent(), pageable, countPerfumes());
+    }
+
+    @Override
+    public Slice<PerfumeProjection> getAllPerfumesAfter(Long perfumeId, Pageable pageable) {
+        return perfumeRepository.findByIdGreaterThanOrderByIdAsc(perfumeId, PageRequest.of(0, pageable.getPageSize()));
+    }
+
+    @Override
+    public long countPerfumes() {
+        return pageTotalCache.getTotal(PageTotalCache.PERFUMES + ":" + catalogVersion.current(), perfumeRepository::count);
     }
 
     @Override
+    @SingleFlight
+    @Cacheable(value = CacheConfiguration.PERFUMES, key = CacheConfiguration.CATALOG_KEY + "#perfumesId", sync = true)
     public List<PerfumeProjection> getPerfumesByIds(List<Long> perfumesId) {
-        return perfumeRepository.getPerfumesByIds(perfumesId);
+        return List.copyOf(perfumeRepository.getPerfumesByIds(perfumesId));
     }
 
     @Override
+    @SingleFlight
     public Page<PerfumeProjection> findPerfumesByFilterParams(PerfumeSearchRequest filter, Pageable pageable) {
-        return perfumeRepository.findPerfumesByFilterParams(
-                filter.getPerfumers(),
-                filter.getGenders(),
-                filter.getPrices().get(0),
-                filter.getPrices().get(1),
-                filter.getSortByPrice(),
-                pageable);
+        List<Long> ranking = Boolean.TRUE.equals(filter.getSortByPopularity()) ? perfumeBestsellers.ranking() : List.of();
+        if (filterEngine == FilterEngine.SNAPSHOT) {
+            Page<Long> perfumeIds = catalogSnapshot.filter(filter, ranking, pageable);
+            return new PageImpl<>(getPerfumesInOrder(perfumeIds.getContent()), pageable, perfumeIds.getTotalElements());
+        }
+        List<Long> perfumeIds = perfumeRepository.findIdsByFilter(filter, ranking, pageable);
+        Specification<Perfume> specification = PerfumeSpecifications.byFilter(filter);
+        long total = perfumeSearchCountMode == PageCountMode.EXACT
+                ? perfumeRepository.count(specification)
+                : pageTotalCache.getTotal(PageTotalCache.PERFUMES + ":" + catalogVersion.current() + ":" + filterKey(filter),
+                        () -> perfumeRepository.count(specification));
+        return new PageImpl<>(getPerfumesInOrder(perfumeIds), pageable, total);
+    }
+
+    @Override
+    public PerfumeFacets getFacets(PerfumeSearchRequest filter) {
+        return perfumeFacetIndex.getFacets(filter);
+    }
+
+    @Override
+    public List<PerfumeSuggestion> suggest(String text, int limit) {
+        return perfumeSuggestIndex.suggest(text, Math.min(limit, PerfumeSuggestIndex.MAX_SUGGESTIONS));
+    }
+
+    @Override
+    public List<PerfumeProjection> getSimilarPerfumes(Long perfumeId, int limit) {
+        if (!perfumeSimilarityIndex.contains(perfumeId)) {
+            throw new ApiRequestException(PERFUME_NOT_FOUND, HttpStatus.NOT_FOUND);
+        }
+        return getPerfumesInOrder(perfumeSimilarityIndex.similar(perfumeId, Math.min(limit, PerfumeSimilarityIndex.MAX_SIMILAR)));
+    }
+
+    @Override
+    public List<PerfumeProjection> getBestsellers(int limit) {
+        return getPerfumesInOrder(perfumeBestsellers.top(limit));
     }
 
     @Override
@@ -77,13 +176,31 @@ public class PerfumeServiceImpl implements PerfumeService {
 
     @Override
     public Page<PerfumeProjection> findByInputText(SearchPerfume searchType, String text, Pageable pageable) {
-        if (searchType.equals(SearchPerfume.BRAND)) {
-            return perfumeRepository.findByPerfumer(text, pageable);
-        } else if (searchType.equals(SearchPerfume.PERFUME_TITLE)) {
-            return perfumeRepository.findByPerfumeTitle(text, pageable);
-        } else {
-            return perfumeRepository.findByManufacturerCountry(text, pageable);
+        if (searchEngine == SearchEngine.FULL_TEXT) {
+            return perfumeRepository.findByFullText(text, fullTextWeights(searchType), pageable);
+        }
+        if (searchEngine == SearchEngine.LIKE) {
+            return switch (searchType) {
+                case BRAND -> perfumeRepository.findByPerfumer(text, pageable);
+                case PERFUME_TITLE -> perfumeRepository.findByPerfumeTitle(text, pageable);
+                case COUNTRY -> perfumeRepository.findByManufacturerCountry(text, pageable);
+            };
         }
+        Page<Long> perfumeIds = perfumeSearchIndex.search(searchType, text, pageable);
+        return new PageImpl<>(getPerfumesInOrder(perfumeIds.getContent()), pageable, perfumeIds.getTotalElements());
+    }
+
+    @Override
+    public PerfumeFuzzySearch findByFuzzyText(SearchPerfume searchType, String text, Pageable pageable) {
+        List<PerfumeCorrection> corrections = perfumeFuzzyIndex.corrections(searchType, text);
+        List<Long> perfumeIds = corrections.stream()
+                .flatMap(correction -> correction.getPerfumeIds().stream())
+                .distinct()
+                .collect(Collectors.toList());
+        int from = (int) Math.min(pageable.getOffset(), perfumeIds.size());
+        int to = Math.min(from + pageable.getPageSize(), perfumeIds.size());
+        Page<PerfumeProjection> perfumes = new PageImpl<>(getPerfumesInOrder(perfumeIds.subList(from, to)), pageable, perfumeIds.size());
+        return new PerfumeFuzzySearch(corrections.subList(0, Math.min(corrections.size(), MAX_CORRECTIONS)), perfumes);
     }
 
     @Override
@@ -103,7 +220,13 @@ public class PerfumeServiceImpl implements PerfumeService {
             perfume.setFilename(amazonS3client.getUrl(bucketName, fileName).toString());
             file.delete();
         }
-        return perfumeRepository.save(perfume);
+        if (perfume.getId() != null) {
+            perfumeRepository.findById(perfume.getId()).ifPresent(storedPerfume -> copyReviewAggregates(storedPerfume, perfume));
+        }
+        Perfume savedPerfume = perfumeRepository.save(perfume);
+        afterCommit(() -> perfumeIndexes.forEach(index -> index.index(savedPerfume)));
+        catalogVersion.increment();
+        return savedPerfume;
     }
 
     @Override
@@ -112,6 +235,8 @@ public class PerfumeServiceImpl implements PerfumeService {
         Perfume perfume = perfumeRepository.findById(perfumeId)
                 .orElseThrow(() -> new ApiRequestException(PERFUME_NOT_FOUND, HttpStatus.NOT_FOUND));
         perfumeRepository.delete(perfume);
+        afterCommit(() -> perfumeIndexes.forEach(index -> index.remove(perfumeId)));
+        catalogVersion.increment();
         return "Perfume deleted successfully";
     }
 
@@ -138,4 +263,41 @@ public class PerfumeServiceImpl implements PerfumeService {
             return perfumeRepository.findByIdIn(perfumesId);
         };
     }
+
+    private static String fullTextWeights(SearchPerfume searchType) {
+        if (searchType == null) {
+            return "a,b,c,d";
+        }
+        return switch (searchType) {
+            case PERFUME_TITLE -> "a";
+            case BRAND -> "b";
+            case COUNTRY -> "c";
+        };
+    }
+
+    private static String filterKey(PerfumeSearchRequest filter) {
+        return String.join(":", String.valueOf(filter.getPerfumers()), String.valueOf(filter.getGenders()),
+                String.valueOf(filter.getCountries()), String.valueOf(filter.getTypes()), String.valueOf(filter.getVolumes()),
+                String.valueOf(filter.getPrices()), String.valueOf(filter.getYears()));
+    }
+
+    private static void copyReviewAggregates(Perfume from, Perfume to) {
+        to.setPerfumeRating(from.getPerfumeRating());
+        to.setReviewsCount(from.getReviewsCount());
+        to.setRatingSum(from.getRatingSum());
+        to.setOneStarCount(from.getOneStarCount());
+        to.setTwoStarCount(from.getTwoStarCount());
+        to.setThreeStarCount(from.getThreeStarCount());
+        to.setFourStarCount(from.getFourStarCount());
+        to.setFiveStarCount(from.getFiveStarCount());
+    }
+
+    private List<PerfumeProjection> getPerfumesInOrder(List<Long> perfumesId) {
+        if (perfumesId.isEmpty()) {
+            return List.of();
+        }
+        return perfumeRepository.getPerfumesByIds(perfumesId).stream()
+                .sorted(Comparator.comparingInt(perfume -> perfumesId.indexOf(perfume.getId())))
+                .collect(Collectors.toList());
+    }
 }
@@ -1,16 +1,27 @@
 package com.example.demo.service.Impl;
 
-import com.example.demo.domain.Perfume;
+import com.example.demo.aspect.SingleFlight;
+import com.example.demo.configuration.CacheConfiguration;
 import com.example.demo.domain.Review;
 import com.example.demo.exception.ApiRequestException;
 import com.example.demo.repository.PerfumeRepository;
 import com.example.demo.repository.ReviewRepository;
+import com.example.demo.repository.projection.ReviewProjection;
 import com.example.demo.service.ReviewService;
+import com.example.demo.service.catalog.CatalogVersion;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
 import java.util.List;
 
 import static com.example.demo.constants.ErrorMessage.*;
@@ -21,25 +32,51 @@ public class ReviewServiceImpl implements ReviewService {
 
     private final PerfumeRepository perfumeRepository;
     private final ReviewRepository reviewRepository;
+    private final CatalogVersion catalogVersion;
+
+    @Value("${perfume.reviews.top-size:3}")
+    private int topReviewsSize;
+
+    @Override
+    @SingleFlight
+    public Page<Review> getReviewsByPerfumeId(Long perfumeId, Pageable pageable) {
+        long total = countReviews(perfumeId);
+        Slice<Review> reviews = reviewRepository.findSliceByPerfumeIdOrderByDateDescIdDesc(perfumeId, pageable);
+        return new PageImpl<>(reviews.getContent(), pageable, total);
+    }
+
+    @Override
+    public Slice<Review> getReviewsByPerfumeIdAfter(Long perfumeId, LocalDate date, Long reviewId, Pageable pageable) {
+        return reviewRepository.findByPerfumeIdAfter(perfumeId, date, reviewId, PageRequest.of(0, pageable.getPageSize()));
+    }
 
     @Override
-    public List<Review> getReviewsByPerfumeId(Long perfumeId) {
-        Perfume perfume = perfumeRepository.findById(perfumeId)
+    public long countReviews(Long perfumeId) {
+        return perfumeRepository.findReviewsCountById(perfumeId)
                 .orElseThrow(() -> new ApiRequestException(PERFUME_NOT_FOUND, HttpStatus.NOT_FOUND));
-        return perfume.getReviews();
+    }
+
+    @Override
+    @SingleFlight
+    @Cacheable(value = CacheConfiguration.REVIEWS, key = CacheConfiguration.CATALOG_KEY + "#perfumeId", sync = true)
+    public List<ReviewProjection> getTopReviews(Long perfumeId) {
+        return List.copyOf(reviewRepository.findByPerfumeIdOrderByRatingDescDateDescIdDesc(perfumeId, PageRequest.of(0, topReviewsSize)));
     }
 
     @Override
     @Transactional
     public Review addReviewToPerfume(Review review, Long perfumeId) {
-        Perfume perfume = perfumeRepository.findById(perfumeId)
-                .orElseThrow(() -> new ApiRequestException(PERFUME_NOT_FOUND, HttpStatus.NOT_FOUND));
-        List<Review> reviews = perfume.getReviews();
-        reviews.add(review);
-        double totalReviews = reviews.size();
-        double sumRating = reviews.stream().mapToInt(Review::getRating).sum();
-        perfume.setPerfumeRating(sumRating / totalReviews);
-        // Perfume entity is managed by JPA. When a Perfume entity is retrieved using the findById method from the repository, it becomes managed within the current persistence context. As a result, any modifications made to the managed Perfume entity, such as calling perfume.setPerfumeRating(), will be automatically synchronized with the database when the persistence context is flushed or when the transaction is committed.
-        return reviewRepository.save(review);
+        if (perfumeRepository.addRating(perfumeId, review.getRating()) == 0) {
+            throw new ApiRequestException(PERFUME_NOT_FOUND, HttpStatus.NOT_FOUND);
+        }
+        review.setPerfumeId(perfumeId);
+        Review savedReview = reviewRepository.save(review);
+        catalogVersion.increment();
+        return savedReview;
     }
 }
+
+// addReviewToPerfume no longer loads the perfume and its reviews to re-average the ratings. addRating updates the counters and the average in one UPDATE statement, reading the old values of the row inside the database, so the cost does not grow with the number of reviews.
+// The UPDATE also takes the row lock of the perfume until the transaction ends, so concurrent reviews of the same perfume are applied one after the other and none of them is lost. An UPDATE that matches no row means the perfume does not exist.
+// Reviews are read a page at a time from the review table (newest first). The total for the page headers is the reviews_count column of the perfume, which addRating keeps exact, so no COUNT(*) over the reviews runs and an unknown perfume is still answered with 404.
+// The top reviews (best rated, newest first) are embedded in the perfume page, so they are cached like the perfume itself: keyed by CatalogVersion, which addReviewToPerfume bumps after commit. The cached value is an immutable list of ReviewProjection, not of Review entities, so no request can change what the others read.
@@ -1,15 +1,20 @@
 package com.example.demo.service.Impl;
 
-import com.example.demo.domain.Perfume;
+import com.example.demo.configuration.CacheConfiguration;
 import com.example.demo.domain.User;
 import com.example.demo.exception.ApiRequestException;
 import com.example.demo.repository.PerfumeRepository;
 import com.example.demo.repository.UserRepository;
+import com.example.demo.repository.projection.PerfumeProjection;
 import com.example.demo.service.UserService;
+import com.example.demo.service.pagination.PageTotalCache;
 import graphql.schema.DataFetcher;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -24,6 +29,7 @@ public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
     private final PerfumeRepository perfumeRepository;
+    private final PageTotalCache pageTotalCache;
 
     @Override
     public User getUserById(Long userId) {
@@ -43,8 +49,19 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
-    public List<Perfume> getCart(List<Long> perfumeIds) {
-        return perfumeRepository.findByIdIn(perfumeIds);
+    public Slice<User> getAllUsersAfter(Long userId, Pageable pageable) {
+        return userRepository.findByIdGreaterThanOrderByIdAsc(userId, PageRequest.of(0, pageable.getPageSize()));
+    }
+
+    @Override
+    public long countUsers() {
+        return pageTotalCache.getTotal(PageTotalCache.USERS, userRepository::count);
+    }
+
+    @Override
+    @Cacheable(value = CacheConfiguration.CART, key = CacheConfiguration.CATALOG_KEY + "#perfumeIds", sync = true)
+    public List<PerfumeProjection> getCart(List<Long> perfumeIds) {
+        return List.copyOf(perfumeRepository.getPerfumesByIds(perfumeIds));
     }
 
     @Override
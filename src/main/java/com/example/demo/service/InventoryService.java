@@ -0,0 +1,19 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.order.StockReservationResponse;
+
+import java.util.Map;
+import java.util.UUID;
+
+public interface InventoryService {
+
+    StockReservationResponse reserve(String owner, Map<Long, Long> perfumesId);
+
+    void release(String owner, UUID reservationId);
+
+    void checkout(String owner, UUID reservationId, Map<Long, Long> perfumesId);
+
+    int restock(Long perfumeId, int quantity);
+
+    int releaseExpiredReservations();
+}
@@ -5,9 +5,11 @@ import com.example.demo.domain.OrderItem;
 import graphql.schema.DataFetcher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 
 public interface OrderService {
 
@@ -17,9 +19,13 @@ public interface OrderService {
     
     Page<Order> getAllOrders(Pageable pageable);
 
+    Slice<Order> getAllOrdersAfter(Long orderId, Pageable pageable);
+
+    long countOrders();
+
     Page<Order> getUserOrders(String email, Pageable pageable);
 
-    Order postOrder(Order validOrder, Map<Long, Long> perfumesId);
+    Order postOrder(Order validOrder, Map<Long, Long> perfumesId, UUID reservationId, String reservationOwner);
 
     String deleteOrder(Long orderId);
 
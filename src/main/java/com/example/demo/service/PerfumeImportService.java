@@ -0,0 +1,12 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.perfume.PerfumeImportEvent;
+import com.example.demo.enums.ImportFormat;
+
+import java.io.InputStream;
+import java.util.function.Consumer;
+
+public interface PerfumeImportService {
+
+    PerfumeImportEvent importPerfumes(ImportFormat format, InputStream input, Consumer<PerfumeImportEvent> listener);
+}
@@ -3,30 +3,49 @@ package com.example.demo.service;
 import com.example.demo.domain.Perfume;
 import com.example.demo.dto.perfume.PerfumeSearchRequest;
 import com.example.demo.enums.SearchPerfume;
+import com.example.demo.repository.projection.FullPerfumeProjection;
 import com.example.demo.repository.projection.PerfumeProjection;
+import com.example.demo.service.search.PerfumeFacets;
+import com.example.demo.service.search.PerfumeFuzzySearch;
+import com.example.demo.service.search.PerfumeSuggestion;
 import graphql.schema.DataFetcher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.util.List;
 
 public interface PerfumeService {
 
-    Perfume getPerfumeById(Long perfumeId);
+    FullPerfumeProjection getPerfumeById(Long perfumeId);
 
     Page<PerfumeProjection> getAllPerfumes(Pageable pageable);
 
+    Slice<PerfumeProjection> getAllPerfumesAfter(Long perfumeId, Pageable pageable);
+
+    long countPerfumes();
+
     List<PerfumeProjection> getPerfumesByIds(List<Long> perfumesId);
 
     Page<PerfumeProjection> findPerfumesByFilterParams(PerfumeSearchRequest filter, Pageable pageable);
 
+    PerfumeFacets getFacets(PerfumeSearchRequest filter);
+
+    List<PerfumeSuggestion> suggest(String text, int limit);
+
+    List<PerfumeProjection> getSimilarPerfumes(Long perfumeId, int limit);
+
+    List<PerfumeProjection> getBestsellers(int limit);
+
     List<Perfume> findByPerfumer(String perfumer);
 
     List<Perfume> findByPerfumeGender(String perfumeGender);
 
     Page<PerfumeProjection> findByInputText(SearchPerfume searchType, String text, Pageable pageable);
 
+    PerfumeFuzzySearch findByFuzzyText(SearchPerfume searchType, String text, Pageable pageable);
+
     Perfume savePerfume(Perfume perfume, MultipartFile file);
 
     String deletePerfume(Long perfumeId);
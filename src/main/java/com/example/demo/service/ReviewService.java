@@ -1,12 +1,23 @@
 package com.example.demo.service;
 
 import com.example.demo.domain.Review;
+import com.example.demo.repository.projection.ReviewProjection;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
+import java.time.LocalDate;
 import java.util.List;
 
 public interface ReviewService {
 
-    List<Review> getReviewsByPerfumeId(Long perfumeId);
+    Page<Review> getReviewsByPerfumeId(Long perfumeId, Pageable pageable);
+
+    Slice<Review> getReviewsByPerfumeIdAfter(Long perfumeId, LocalDate date, Long reviewId, Pageable pageable);
+
+    long countReviews(Long perfumeId);
+
+    List<ReviewProjection> getTopReviews(Long perfumeId);
 
     Review addReviewToPerfume(Review review, Long perfumeId);
 }
@@ -1,10 +1,11 @@
 package com.example.demo.service;
 
-import com.example.demo.domain.Perfume;
 import com.example.demo.domain.User;
+import com.example.demo.repository.projection.PerfumeProjection;
 import graphql.schema.DataFetcher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
 import java.util.List;
 
@@ -16,7 +17,11 @@ public interface UserService {
     
     Page<User> getAllUsers(Pageable pageable);
 
-    List<Perfume> getCart(List<Long> perfumeIds);
+    Slice<User> getAllUsersAfter(Long userId, Pageable pageable);
+
+    long countUsers();
+
+    List<PerfumeProjection> getCart(List<Long> perfumeIds);
 
     User updateUserInfo(String email, User user);
 
@@ -0,0 +1,70 @@
+package com.example.demo.service.broadcast;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.SubscribableChannel;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+import org.springframework.web.socket.messaging.SubProtocolWebSocketHandler;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class BoundedSubProtocolWebSocketHandler extends SubProtocolWebSocketHandler {
+
+    private final Map<String, DroppingSession> sessions = new ConcurrentHashMap<>();
+    private final Counter overflows;
+
+    public BoundedSubProtocolWebSocketHandler(MessageChannel clientInboundChannel, SubscribableChannel clientOutboundChannel,
+                                              MeterRegistry meterRegistry) {
+        super(clientInboundChannel, clientOutboundChannel);
+        this.overflows = Counter.builder("websocket.sessions.overflows")
+                .description("Messages that did not fit into the send buffer of a slow session, so older buffered messages were dropped")
+                .register(meterRegistry);
+        Gauge.builder("websocket.sessions.buffered", sessions, BoundedSubProtocolWebSocketHandler::bufferedBytes)
+                .baseUnit("bytes")
+                .description("Bytes waiting in the send buffers of all sessions")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected WebSocketSession decorateSession(WebSocketSession session) {
+        DroppingSession droppingSession = new DroppingSession(session, getSendTimeLimit(), getSendBufferSizeLimit());
+        sessions.put(session.getId(), droppingSession);
+        return droppingSession;
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus closeStatus) throws Exception {
+        sessions.remove(session.getId());
+        super.afterConnectionClosed(session, closeStatus);
+    }
+
+    private static double bufferedBytes(Map<String, DroppingSession> sessions) {
+        return sessions.values().stream().mapToInt(ConcurrentWebSocketSessionDecorator::getBufferSize).sum();
+    }
+
+    private final class DroppingSession extends ConcurrentWebSocketSessionDecorator {
+
+        private DroppingSession(WebSocketSession session, int sendTimeLimit, int sendBufferSizeLimit) {
+            super(session, sendTimeLimit, sendBufferSizeLimit, OverflowStrategy.DROP);
+        }
+
+        @Override
+        public void sendMessage(WebSocketMessage<?> message) throws IOException {
+            if (getBufferSize() + message.getPayloadLength() > getBufferSizeLimit()) {
+                overflows.increment();
+            }
+            super.sendMessage(message);
+        }
+    }
+}
+
+// SubProtocolWebSocketHandler wraps every session it accepts in decorateSession(), by default in a ConcurrentWebSocketSessionDecorator that closes the session once its buffer overflows. Overriding decorateSession() makes that decorator the only one: while a send to a slow client is in progress, further messages wait in a buffer of at most the transport's send buffer size limit, and when it is full the oldest buffered messages are dropped instead of closing the session, so one slow subscriber cannot delay the fan-out to the others.
+// A client that makes no progress at all for the send time limit is still disconnected.
+// The overflow counter is approximate: it counts messages that found the buffer full when they arrived, which is when the decorator starts dropping.
@@ -0,0 +1,110 @@
+package com.example.demo.service.broadcast;
+
+import com.example.demo.dto.review.ReviewResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Component
+public class ReviewBroadcaster {
+
+    public static final String REVIEWS_TOPIC = "/topic/reviews/";
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "review-broadcaster");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Map<Long, Batch> pending = new ConcurrentHashMap<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final Timer fanOutLatency;
+    private final Counter frames;
+    private final Counter merged;
+
+    @Value("${websocket.reviews.coalescing-window:PT0.25S}")
+    private Duration coalescingWindow = Duration.ofMillis(250);
+
+    @Value("${websocket.reviews.max-batch:20}")
+    private int maxBatch = 20;
+
+    public ReviewBroadcaster(SimpMessagingTemplate messagingTemplate, MeterRegistry meterRegistry) {
+        this.messagingTemplate = messagingTemplate;
+        this.fanOutLatency = Timer.builder("reviews.broadcast.latency")
+                .description("Time from accepting a review to handing its frame to every subscriber")
+                .register(meterRegistry);
+        this.frames = Counter.builder("reviews.broadcast.frames").register(meterRegistry);
+        this.merged = Counter.builder("reviews.broadcast.merged")
+                .description("Reviews dropped from a coalesced frame because the topic exceeded max-batch in one window")
+                .register(meterRegistry);
+        Gauge.builder("reviews.broadcast.queued", queued, AtomicInteger::get)
+                .description("Reviews waiting for their coalescing window to close")
+                .register(meterRegistry);
+    }
+
+    public void publish(Long perfumeId, ReviewResponse review) {
+        pending.compute(perfumeId, (id, batch) -> {
+            if (batch == null) {
+                batch = new Batch(System.nanoTime());
+                scheduler.schedule(() -> flush(id), coalescingWindow.toNanos(), TimeUnit.NANOSECONDS);
+            }
+            batch.reviews.addLast(review);
+            if (batch.reviews.size() > maxBatch) {
+                batch.reviews.removeFirst();
+                merged.increment();
+            } else {
+                queued.incrementAndGet();
+            }
+            return batch;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+        pending.keySet().forEach(this::flush);
+    }
+
+    private void flush(Long perfumeId) {
+        Batch batch = pending.remove(perfumeId);
+        if (batch == null) {
+            return;
+        }
+        List<ReviewResponse> reviews = new ArrayList<>(batch.reviews);
+        queued.addAndGet(-reviews.size());
+        messagingTemplate.convertAndSend(REVIEWS_TOPIC + perfumeId, reviews);
+        frames.increment();
+        fanOutLatency.record(System.nanoTime() - batch.createdAt, TimeUnit.NANOSECONDS);
+    }
+
+    private static final class Batch {
+        private final long createdAt;
+        private final Deque<ReviewResponse> reviews = new ArrayDeque<>();
+
+        private Batch(long createdAt) {
+            this.createdAt = createdAt;
+        }
+    }
+}
+
+// publish() only appends the review to the batch of its perfume and returns, so the request thread no longer runs the broker fan-out. The first review of a batch schedules its flush coalescingWindow later on the broadcaster thread, and every review that arrives before then joins the same frame.
+// A frame is a JSON array of reviews (oldest first). During a burst a topic gets at most one frame per window instead of one per review. A batch keeps only the newest maxBatch reviews, and older ones are counted in reviews.broadcast.merged: clients reload the review list when they need the full history.
+// The batches are changed inside ConcurrentHashMap.compute, which locks only the entry of one perfume, so a flush cannot lose a review that is being added at the same moment.
+// reviews.broadcast.latency includes the coalescing window: it measures how stale a review is when it reaches the outbound channel. Per-session send buffers are bounded by BoundedSubProtocolWebSocketHandler.
@@ -0,0 +1,261 @@
+package com.example.demo.service.catalog;
+
+import com.example.demo.domain.Perfume;
+import com.example.demo.dto.perfume.PerfumeSearchRequest;
+import com.example.demo.service.search.PerfumeIndex;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+@Component
+public class CatalogSnapshot implements PerfumeIndex {
+
+    private static final int NO_VALUE = Integer.MIN_VALUE;
+
+    private static final Comparator<Row> BY_PRICE_ASC = Comparator
+            .comparing(Row::price, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(Row::id);
+
+    private final Map<Long, Row> rows = new HashMap<>();
+    private final ThreadLocal<Scratch> scratch = ThreadLocal.withInitial(Scratch::new);
+
+    private volatile Columns columns = Columns.of(List.of());
+
+    @Override
+    public synchronized void rebuild(Collection<Perfume> perfumes) {
+        rows.clear();
+        perfumes.forEach(perfume -> rows.put(perfume.getId(), Row.of(perfume)));
+        columns = Columns.of(rows.values());
+    }
+
+    @Override
+    public synchronized void index(Perfume perfume) {
+        rows.put(perfume.getId(), Row.of(perfume));
+        columns = Columns.of(rows.values());
+    }
+
+    @Override
+    public synchronized void remove(Long perfumeId) {
+        if (rows.remove(perfumeId) != null) {
+            columns = Columns.of(rows.values());
+        }
+    }
+
+    public Page<Long> filter(PerfumeSearchRequest filter, Pageable pageable) {
+        return filter(filter, List.of(), pageable);
+    }
+
+    public Page<Long> filter(PerfumeSearchRequest filter, List<Long> ranking, Pageable pageable) {
+        Columns current = columns;
+        Scratch buffers = scratch.get();
+        BitSet mask = buffers.mask;
+        mask.clear();
+
+        Integer priceStart = start(filter.getPrices());
+        Integer priceEnd = end(filter.getPrices());
+        if (priceStart == null && priceEnd == null) {
+            mask.set(0, current.ids.length);
+        } else {
+            int from = priceStart == null ? 0 : lowerBound(current.prices, priceStart);
+            int to = priceEnd == null ? current.prices.length : lowerBound(current.prices, priceEnd + 1L);
+            if (from < to) {
+                mask.set(from, to);
+            }
+        }
+        restrict(mask, buffers.values, current.perfumers, filter.getPerfumers());
+        restrict(mask, buffers.values, current.genders, filter.getGenders());
+        restrict(mask, buffers.values, current.countries, filter.getCountries());
+        restrict(mask, buffers.values, current.types, filter.getTypes());
+        restrict(mask, buffers.values, current.volumes, filter.getVolumes());
+        restrictRange(mask, current.years, start(filter.getYears()), end(filter.getYears()));
+
+        int total = mask.cardinality();
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(collect(current, mask, filter, ranking, 0, total), pageable, total);
+        }
+        int offset = (int) Math.min(pageable.getOffset(), total);
+        int size = Math.min(pageable.getPageSize(), total - offset);
+        return new PageImpl<>(collect(current, mask, filter, ranking, offset, size), pageable, total);
+    }
+
+    public int size() {
+        return columns.ids.length;
+    }
+
+    private static void restrict(BitSet mask, BitSet values, Map<String, BitSet> dictionary, List<String> selected) {
+        if (selected == null || selected.isEmpty()) {
+            return;
+        }
+        values.clear();
+        for (String value : selected) {
+            BitSet ordinals = dictionary.get(value);
+            if (ordinals != null) {
+                values.or(ordinals);
+            }
+        }
+        mask.and(values);
+    }
+
+    private static void restrictRange(BitSet mask, int[] values, Integer start, Integer end) {
+        if (start == null && end == null) {
+            return;
+        }
+        long from = start == null ? Integer.MIN_VALUE + 1L : start;
+        long to = end == null ? Integer.MAX_VALUE : end;
+        for (int i = mask.nextSetBit(0); i >= 0; i = mask.nextSetBit(i + 1)) {
+            if (values[i] == NO_VALUE || values[i] < from || values[i] > to) {
+                mask.clear(i);
+            }
+        }
+    }
+
+    private static Integer start(List<Integer> range) {
+        return range == null || range.isEmpty() ? null : range.get(0);
+    }
+
+    private static Integer end(List<Integer> range) {
+        return range == null || range.size() < 2 ? null : range.get(1);
+    }
+
+    private static List<Long> collect(Columns columns, BitSet mask, PerfumeSearchRequest filter, List<Long> ranking,
+                                      int offset, int size) {
+        List<Long> ids = new ArrayList<>(size);
+        int skipped = 0;
+        for (Long perfumeId : ranking) {
+            Integer ordinal = columns.ordinals.get(perfumeId);
+            if (ordinal == null || !mask.get(ordinal)) {
+                continue;
+            }
+            if (ids.size() == size) {
+                return ids;
+            }
+            mask.clear(ordinal);
+            if (skipped++ >= offset) {
+                ids.add(perfumeId);
+            }
+        }
+        if (Boolean.TRUE.equals(filter.getSortByPrice())) {
+            for (int i = mask.nextSetBit(0); i >= 0 && ids.size() < size; i = mask.nextSetBit(i + 1)) {
+                if (skipped++ >= offset) {
+                    ids.add(columns.ids[i]);
+                }
+            }
+            return ids;
+        }
+        int priced = columns.prices.length;
+        for (int i = mask.previousSetBit(priced - 1); i >= 0 && ids.size() < size; i = mask.previousSetBit(i - 1)) {
+            if (skipped++ >= offset) {
+                ids.add(columns.ids[i]);
+            }
+        }
+        for (int i = mask.previousSetBit(columns.ids.length - 1); i >= priced && ids.size() < size; i = mask.previousSetBit(i - 1)) {
+            if (skipped++ >= offset) {
+                ids.add(columns.ids[i]);
+            }
+        }
+        return ids;
+    }
+
+    private static int lowerBound(int[] prices, long price) {
+        int low = 0;
+        int high = prices.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (prices[middle] < price) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private record Row(Long id, String perfumer, String gender, String country, String type, String volume, Integer year,
+                       Integer price) {
+
+        private static Row of(Perfume perfume) {
+            return new Row(perfume.getId(), perfume.getPerfumer(), perfume.getPerfumeGender(), perfume.getCountry(),
+                    perfume.getType(), perfume.getVolume(), perfume.getYear(), perfume.getPrice());
+        }
+    }
+
+    private static final class Columns {
+        private final long[] ids;
+        private final Map<Long, Integer> ordinals;
+        private final int[] prices;
+        private final int[] years;
+        private final Map<String, BitSet> perfumers;
+        private final Map<String, BitSet> genders;
+        private final Map<String, BitSet> countries;
+        private final Map<String, BitSet> types;
+        private final Map<String, BitSet> volumes;
+
+        private Columns(long[] ids, Map<Long, Integer> ordinals, int[] prices, int[] years, Map<String, BitSet> perfumers, Map<String, BitSet> genders,
+                        Map<String, BitSet> countries, Map<String, BitSet> types, Map<String, BitSet> volumes) {
+            this.ids = ids;
+            this.ordinals = ordinals;
+            this.prices = prices;
+            this.years = years;
+            this.perfumers = perfumers;
+            this.genders = genders;
+            this.countries = countries;
+            this.types = types;
+            this.volumes = volumes;
+        }
+
+        private static Columns of(Collection<Row> rows) {
+            List<Row> sorted = new ArrayList<>(rows);
+            sorted.sort(BY_PRICE_ASC);
+            long[] ids = new long[sorted.size()];
+            Map<Long, Integer> ordinals = new HashMap<>();
+            int priced = (int) sorted.stream().filter(row -> row.price() != null).count();
+            int[] prices = new int[priced];
+            int[] years = new int[sorted.size()];
+            Map<String, BitSet> perfumers = new HashMap<>();
+            Map<String, BitSet> genders = new HashMap<>();
+            Map<String, BitSet> countries = new HashMap<>();
+            Map<String, BitSet> types = new HashMap<>();
+            Map<String, BitSet> volumes = new HashMap<>();
+            for (int ordinal = 0; ordinal < sorted.size(); ordinal++) {
+                Row row = sorted.get(ordinal);
+                ids[ordinal] = row.id();
+                ordinals.put(row.id(), ordinal);
+                if (ordinal < priced) {
+                    prices[ordinal] = row.price();
+                }
+                years[ordinal] = row.year() == null ? NO_VALUE : row.year();
+                add(perfumers, row.perfumer(), ordinal, ids.length);
+                add(genders, row.gender(), ordinal, ids.length);
+                add(countries, row.country(), ordinal, ids.length);
+                add(types, row.type(), ordinal, ids.length);
+                add(volumes, row.volume(), ordinal, ids.length);
+            }
+            return new Columns(ids, ordinals, prices, years, Map.copyOf(perfumers), Map.copyOf(genders), Map.copyOf(countries),
+                    Map.copyOf(types), Map.copyOf(volumes));
+        }
+
+        private static void add(Map<String, BitSet> dictionary, String value, int ordinal, int size) {
+            if (value != null) {
+                dictionary.computeIfAbsent(value, key -> new BitSet(size)).set(ordinal);
+            }
+        }
+    }
+
+    private static final class Scratch {
+        private final BitSet mask = new BitSet();
+        private final BitSet values = new BitSet();
+    }
+}
+
+// The snapshot is an immutable set of columns. Rows are ordered by price ascending (perfumes without a price last, ties by id), so the ordinal of a row is its position in price order:
+// - ids: long[] of perfume ids by ordinal.
+// - prices: int[] of the priced rows. Because it is sorted, price BETWEEN start AND end is a contiguous ordinal range found by two binary searches.
+// - perfumers/genders/countries/types/volumes: each distinct value (the dictionary) maps to a BitSet of the ordinals holding it, so IN (...) is an OR of a few bitsets and the whole filter is an AND of them.
+// - years: int[] by ordinal. A year range is not contiguous in price order, so it clears the non-matching bits of the mask after the dictionary filters have narrowed it down.
+// A filter therefore never compares strings or sorts: the matching ordinals are already in price order, ascending for sortByPrice=true and descending (nulls last, ties by id descending, like the PerfumeFilterRepository query) otherwise, and the page is read by walking the set bits.
+// With sortByPopularity=true the caller passes the bestseller ranking: ranked ids whose bit is set come first, in rank order, and their bits are cleared so the price walk that follows skips them. The offset counts across both parts, the total does not change, and the extra cost is one map lookup per ranked id.
+// The mask bitsets are reused per thread, so the only allocation per request is the page of ids. The total is mask.cardinality().
+// Every write rebuilds the columns from the row map and publishes them through a volatile field; readers keep using the snapshot they started with. Writes happen a few times a day, so O(n log n) per write is cheaper than making every read slower.
@@ -0,0 +1,24 @@
+package com.example.demo.service.catalog;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.example.demo.service.TransactionCallbacks.afterCommit;
+
+@Component
+public class CatalogVersion {
+
+    private final AtomicLong version = new AtomicLong();
+
+    public long current() {
+        return version.get();
+    }
+
+    public void increment() {
+        afterCommit(version::incrementAndGet);
+    }
+}
+
+// The version is bumped only after the surrounding transaction commits. Bumping earlier would let a concurrent reader cache the old rows under the new version before the write becomes visible.
+// Callbacks run in registration order, so in-memory indexes updated in an earlier afterCommit callback are already current when the new version is published.
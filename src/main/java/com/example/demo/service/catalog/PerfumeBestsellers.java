@@ -0,0 +1,204 @@
+package com.example.demo.service.catalog;
+
+import com.example.demo.domain.Perfume;
+import com.example.demo.repository.PerfumeSalesRepository;
+import com.example.demo.service.search.PerfumeIndex;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+@Component
+@RequiredArgsConstructor
+public class PerfumeBestsellers implements PerfumeIndex {
+
+    private static final Comparator<Bestseller> BY_QUANTITY = Comparator
+            .comparingLong(Bestseller::quantity).reversed()
+            .thenComparingLong(Bestseller::perfumeId);
+
+    private final PerfumeSalesRepository perfumeSalesRepository;
+
+    private final Map<Long, LongAdder> sales = new ConcurrentHashMap<>();
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+    private final AtomicLong version = new AtomicLong();
+
+    private volatile Leaderboard leaderboard = Leaderboard.of(List.of());
+    private boolean loaded;
+
+    @Value("${perfume.bestsellers.size:100}")
+    private int size = 100;
+
+    public void record(Map<Long, Long> quantities) {
+        quantities.forEach(this::record);
+    }
+
+    public void record(Long perfumeId, long quantity) {
+        LongAdder counter = sales.get(perfumeId);
+        if (counter == null) {
+            counter = sales.computeIfAbsent(perfumeId, id -> new LongAdder());
+        }
+        counter.add(quantity);
+        if (!dirty.contains(perfumeId)) {
+            dirty.add(perfumeId);
+        }
+        long sold = counter.sum();
+        Leaderboard current = leaderboard;
+        Integer rank = current.ranks().get(perfumeId);
+        if (rank == null) {
+            int last = current.ids().length - 1;
+            if (last < size - 1 || current.isOvertakenBy(last, perfumeId, sold)) {
+                promote(perfumeId);
+            }
+        } else if (rank > 0 && current.isOvertakenBy(rank - 1, perfumeId, sold)) {
+            promote(perfumeId);
+        }
+    }
+
+    public List<Long> top(int limit) {
+        long[] ids = leaderboard.ids();
+        int count = Math.max(0, Math.min(limit, ids.length));
+        List<Long> top = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            top.add(ids[i]);
+        }
+        return top;
+    }
+
+    public List<Long> ranking() {
+        return top(size);
+    }
+
+    public long sold(Long perfumeId) {
+        LongAdder counter = sales.get(perfumeId);
+        return counter == null ? 0 : counter.sum();
+    }
+
+    public long version() {
+        return version.get();
+    }
+
+    @Override
+    public synchronized void rebuild(Collection<Perfume> perfumes) {
+        if (!loaded) {
+            perfumeSalesRepository.findAll().forEach((perfumeId, quantity) ->
+                    sales.computeIfAbsent(perfumeId, id -> new LongAdder()).add(quantity));
+            loaded = true;
+        }
+        Set<Long> perfumeIds = perfumes.stream().map(Perfume::getId).collect(Collectors.toSet());
+        sales.keySet().retainAll(perfumeIds);
+        dirty.retainAll(perfumeIds);
+        publish(rank());
+    }
+
+    @Override
+    public void index(Perfume perfume) {
+    }
+
+    @Override
+    public synchronized void remove(Long perfumeId) {
+        sales.remove(perfumeId);
+        dirty.remove(perfumeId);
+        if (leaderboard.ranks().containsKey(perfumeId)) {
+            publish(rank());
+        }
+    }
+
+    @PreDestroy
+    @Scheduled(fixedDelayString = "${perfume.bestsellers.checkpoint-interval:PT1M}")
+    public void checkpoint() {
+        Map<Long, Long> changed = new HashMap<>();
+        for (Iterator<Long> iterator = dirty.iterator(); iterator.hasNext(); ) {
+            Long perfumeId = iterator.next();
+            iterator.remove();
+            LongAdder counter = sales.get(perfumeId);
+            if (counter != null) {
+                changed.put(perfumeId, counter.sum());
+            }
+        }
+        if (changed.isEmpty()) {
+            return;
+        }
+        try {
+            perfumeSalesRepository.save(changed);
+        } catch (DataAccessException e) {
+            dirty.addAll(changed.keySet());
+            throw e;
+        }
+    }
+
+    private synchronized void promote(Long perfumeId) {
+        List<Bestseller> ranking = new ArrayList<>(leaderboard.ids().length + 1);
+        for (long id : leaderboard.ids()) {
+            if (id != perfumeId) {
+                add(ranking, id);
+            }
+        }
+        add(ranking, perfumeId);
+        ranking.sort(BY_QUANTITY);
+        publish(ranking.subList(0, Math.min(size, ranking.size())));
+    }
+
+    private void add(List<Bestseller> ranking, long perfumeId) {
+        LongAdder counter = sales.get(perfumeId);
+        if (counter != null) {
+            ranking.add(new Bestseller(perfumeId, counter.sum()));
+        }
+    }
+
+    private List<Bestseller> rank() {
+        PriorityQueue<Bestseller> heap = new PriorityQueue<>(BY_QUANTITY.reversed());
+        sales.forEach((perfumeId, counter) -> {
+            heap.add(new Bestseller(perfumeId, counter.sum()));
+            if (heap.size() > size) {
+                heap.poll();
+            }
+        });
+        List<Bestseller> ranking = new ArrayList<>(heap);
+        ranking.sort(BY_QUANTITY);
+        return ranking;
+    }
+
+    private void publish(List<Bestseller> ranking) {
+        Leaderboard previous = leaderboard;
+        leaderboard = Leaderboard.of(ranking);
+        if (!Arrays.equals(previous.ids(), leaderboard.ids())) {
+            version.incrementAndGet();
+        }
+    }
+
+    private record Bestseller(long perfumeId, long quantity) {
+    }
+
+    private record Leaderboard(long[] ids, long[] quantities, Map<Long, Integer> ranks) {
+
+        private static Leaderboard of(List<Bestseller> ranking) {
+            long[] ids = new long[ranking.size()];
+            long[] quantities = new long[ranking.size()];
+            Map<Long, Integer> ranks = new HashMap<>();
+            for (int rank = 0; rank < ranking.size(); rank++) {
+                ids[rank] = ranking.get(rank).perfumeId();
+                quantities[rank] = ranking.get(rank).quantity();
+                ranks.put(ids[rank], rank);
+            }
+            return new Leaderboard(ids, quantities, ranks);
+        }
+
+        private boolean isOvertakenBy(int rank, long perfumeId, long sold) {
+            return sold > quantities[rank] || sold == quantities[rank] && perfumeId < ids[rank];
+        }
+    }
+}
+
+// Units sold are counted exactly, one LongAdder per perfume: LongAdder spreads concurrent increments over striped cells, so orders for the same bestseller do not contend on a single atomic.
+// The leaderboard is the top perfume.bestsellers.size perfumes, kept as an immutable ranked list behind a volatile field, so GET /perfumes/bestsellers and the popularity sort read it in O(K) without touching the counters.
+// The quantities stored with the leaderboard are lower bounds of the live counters. A sale therefore only takes the leaderboard lock when the perfume may have caught up with the entry ranked above it (or with the last entry, if it is not on the board yet). Re-ranking re-reads the K + 1 counters and sorts them. Every other sale is a lock-free increment.
+// Counters are loaded once from perfume_sales, and only perfumes changed since the last checkpoint are written back (every perfume.bestsellers.checkpoint-interval and on shutdown). A failed checkpoint marks them dirty again, so at most one interval of sales is lost on a crash.
+// version() changes only when the order of the board changes; CatalogETagInterceptor adds it to the ETag of responses that depend on the ranking.
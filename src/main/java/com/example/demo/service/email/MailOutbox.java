@@ -0,0 +1,153 @@
+package com.example.demo.service.email;
+
+import com.example.demo.repository.MailOutboxRepository;
+import com.example.demo.repository.MailOutboxRepository.OutboxMail;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.mail.internet.MimeMessage;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Component
+public class MailOutbox {
+
+    private final MailSender mailSender;
+    private final MailOutboxRepository mailOutboxRepository;
+    private final Timer delay;
+    private final Counter sent;
+    private final Counter retried;
+    private final Counter dead;
+
+    @Value("${mail.outbox.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${mail.outbox.batch-size:50}")
+    private int batchSize = 50;
+
+    @Value("${mail.outbox.max-attempts:8}")
+    private int maxAttempts = 8;
+
+    @Value("${mail.outbox.initial-backoff:PT30S}")
+    private Duration initialBackoff = Duration.ofSeconds(30);
+
+    @Value("${mail.outbox.max-backoff:PT1H}")
+    private Duration maxBackoff = Duration.ofHours(1);
+
+    @Value("${mail.outbox.lease:PT5M}")
+    private Duration lease = Duration.ofMinutes(5);
+
+    public MailOutbox(MailSender mailSender, MailOutboxRepository mailOutboxRepository, MeterRegistry meterRegistry) {
+        this.mailSender = mailSender;
+        this.mailOutboxRepository = mailOutboxRepository;
+        this.delay = Timer.builder("mail.outbox.delay")
+                .description("Time from enqueueing a mail to handing it to the SMTP server")
+                .register(meterRegistry);
+        this.sent = Counter.builder("mail.outbox.sent").register(meterRegistry);
+        this.retried = Counter.builder("mail.outbox.retried")
+                .description("Failed deliveries scheduled for another attempt")
+                .register(meterRegistry);
+        this.dead = Counter.builder("mail.outbox.dead")
+                .description("Mails given up after max-attempts failed deliveries")
+                .register(meterRegistry);
+    }
+
+    public void enqueue(String to, String subject, String template, Map<String, Object> attributes) {
+        mailOutboxRepository.save(to, subject, mailSender.render(template, attributes), Instant.now());
+    }
+
+    @Scheduled(fixedDelayString = "${mail.outbox.dispatch-interval:PT1S}")
+    public void scheduledDispatch() {
+        if (enabled) {
+            dispatch();
+        }
+    }
+
+    public int dispatch() {
+        int dispatched = 0;
+        List<OutboxMail> batch;
+        do {
+            Instant now = Instant.now();
+            batch = mailOutboxRepository.claim(now, now.plus(lease), batchSize);
+            send(batch);
+            dispatched += batch.size();
+        } while (batch.size() == batchSize);
+        return dispatched;
+    }
+
+    private void send(List<OutboxMail> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        Map<OutboxMail, Exception> failures = new HashMap<>();
+        Map<Object, OutboxMail> mailsByMessage = new IdentityHashMap<>();
+        List<MimeMessage> messages = new ArrayList<>(batch.size());
+        for (OutboxMail mail : batch) {
+            try {
+                MimeMessage message = mailSender.createMessage(mail.recipient(), mail.subject(), mail.body());
+                mailsByMessage.put(message, mail);
+                messages.add(message);
+            } catch (RuntimeException e) {
+                failures.put(mail, e);
+            }
+        }
+        try {
+            if (!messages.isEmpty()) {
+                mailSender.send(messages.toArray(new MimeMessage[0]));
+            }
+        } catch (MailSendException e) {
+            e.getFailedMessages().forEach((message, exception) -> failures.put(mailsByMessage.get(message), exception));
+            if (e.getFailedMessages().isEmpty()) {
+                mailsByMessage.values().forEach(mail -> failures.put(mail, e));
+            }
+        } catch (MailException e) {
+            mailsByMessage.values().forEach(mail -> failures.put(mail, e));
+        }
+
+        Instant now = Instant.now();
+        List<Long> sentIds = new ArrayList<>(batch.size());
+        for (OutboxMail mail : batch) {
+            if (!failures.containsKey(mail)) {
+                sentIds.add(mail.id());
+                delay.record(Duration.between(mail.createdAt(), now));
+            }
+        }
+        mailOutboxRepository.delete(sentIds);
+        sent.increment(sentIds.size());
+        reschedule(failures, now);
+    }
+
+    private void reschedule(Map<OutboxMail, Exception> failures, Instant now) {
+        Map<Long, Instant> nextAttempts = new HashMap<>();
+        Map<Long, String> errors = new HashMap<>();
+        failures.forEach((mail, exception) -> {
+            boolean givenUp = mail.attempts() >= maxAttempts;
+            nextAttempts.put(mail.id(), givenUp ? null : now.plus(backoff(mail.attempts())));
+            errors.put(mail.id(), String.valueOf(exception.getMessage()));
+            (givenUp ? dead : retried).increment();
+        });
+        mailOutboxRepository.reschedule(nextAttempts, errors);
+    }
+
+    private Duration backoff(int attempts) {
+        Duration backoff = initialBackoff.multipliedBy(1L << Math.min(attempts - 1, 20));
+        return backoff.compareTo(maxBackoff) > 0 ? maxBackoff : backoff;
+    }
+}
+
+// enqueue() renders the template right away and only stores the finished mail, so it runs inside the caller's transaction: the mail is committed together with the order or user it belongs to, and a rolled back request leaves no mail behind. Rendering at enqueue time also freezes the content as it was when the transaction committed.
+// dispatch() runs on the scheduler every mail.outbox.dispatch-interval and drains the outbox in batches of mail.outbox.batch-size; every batch goes out over one SMTP connection, and request threads never wait for the SMTP server.
+// mail.outbox.enabled=false turns the scheduled dispatcher off while enqueue() keeps storing mails; the build sets it for the test run, so test contexts never send mails to the real SMTP host or take the mails another test is dispatching. dispatch() itself is not affected.
+// The dispatcher shares the application scheduler, so a hanging SMTP server must not hold it forever: the SMTP connect, read and write timeouts (spring.mail.properties.mail.smtps.*) bound every call of a run.
+// A failed mail is retried after initial-backoff, doubling with every attempt up to max-backoff; after max-attempts it is kept in mail_outbox with its last error and counted in mail.outbox.dead.
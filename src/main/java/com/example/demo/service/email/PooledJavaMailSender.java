@@ -0,0 +1,170 @@
+package com.example.demo.service.email;
+
+import jakarta.mail.Address;
+import jakarta.mail.AuthenticationFailedException;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import org.springframework.mail.MailAuthenticationException;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+public class PooledJavaMailSender extends JavaMailSenderImpl implements AutoCloseable {
+
+    private static final long RECHECK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final BlockingDeque<Connection> idle = new LinkedBlockingDeque<>();
+    private final Semaphore connections;
+    private final int maxMessagesPerConnection;
+    private final long idleTimeoutNanos;
+    private final long acquireTimeoutNanos;
+
+    public PooledJavaMailSender(int poolSize, int maxMessagesPerConnection, Duration idleTimeout, Duration acquireTimeout) {
+        this.connections = new Semaphore(poolSize);
+        this.maxMessagesPerConnection = maxMessagesPerConnection;
+        this.idleTimeoutNanos = idleTimeout.toNanos();
+        this.acquireTimeoutNanos = acquireTimeout.toNanos();
+    }
+
+    @Override
+    protected void doSend(MimeMessage[] mimeMessages, Object[] originalMessages) throws MailException {
+        Map<Object, Exception> failedMessages = new LinkedHashMap<>();
+        Connection connection = null;
+        try {
+            for (int i = 0; i < mimeMessages.length; i++) {
+                MimeMessage mimeMessage = mimeMessages[i];
+                Object original = originalMessages != null ? originalMessages[i] : mimeMessage;
+                if (connection == null) {
+                    try {
+                        connection = borrow();
+                    } catch (AuthenticationFailedException ex) {
+                        throw new MailAuthenticationException(ex);
+                    } catch (MessagingException ex) {
+                        for (int j = i; j < mimeMessages.length; j++) {
+                            failedMessages.put(originalMessages != null ? originalMessages[j] : mimeMessages[j], ex);
+                        }
+                        break;
+                    }
+                }
+                try {
+                    prepare(mimeMessage);
+                    Address[] addresses = mimeMessage.getAllRecipients();
+                    connection.transport.sendMessage(mimeMessage, addresses != null ? addresses : new Address[0]);
+                    connection.sent++;
+                } catch (SendFailedException ex) {
+                    failedMessages.put(original, ex);
+                } catch (MessagingException ex) {
+                    failedMessages.put(original, ex);
+                    close(connection);
+                    connection = null;
+                }
+                if (connection != null && connection.sent >= maxMessagesPerConnection) {
+                    close(connection);
+                    connection = null;
+                }
+            }
+        } finally {
+            if (connection != null) {
+                release(connection);
+            }
+        }
+        if (!failedMessages.isEmpty()) {
+            throw new MailSendException(failedMessages);
+        }
+    }
+
+    @Override
+    public void close() {
+        Connection connection;
+        while ((connection = idle.pollFirst()) != null) {
+            close(connection);
+        }
+    }
+
+    private Connection borrow() throws MessagingException {
+        long deadline = System.nanoTime() + acquireTimeoutNanos;
+        Connection connection = idle.pollFirst();
+        while (true) {
+            if (connection != null) {
+                if (System.nanoTime() - connection.lastUsed < idleTimeoutNanos && connection.transport.isConnected()) {
+                    return connection;
+                }
+                close(connection);
+                connection = idle.pollFirst();
+                continue;
+            }
+            if (connections.tryAcquire()) {
+                try {
+                    return new Connection(connectTransport());
+                } catch (MessagingException | RuntimeException ex) {
+                    connections.release();
+                    throw ex;
+                }
+            }
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                throw new MessagingException("No SMTP connection became available within " + Duration.ofNanos(acquireTimeoutNanos));
+            }
+            try {
+                connection = idle.pollFirst(Math.min(remaining, RECHECK_NANOS), TimeUnit.NANOSECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new MessagingException("Interrupted while waiting for an SMTP connection", ex);
+            }
+        }
+    }
+
+    private void release(Connection connection) {
+        connection.lastUsed = System.nanoTime();
+        if (!idle.offerFirst(connection)) {
+            close(connection);
+        }
+    }
+
+    private static void prepare(MimeMessage mimeMessage) throws MessagingException {
+        if (mimeMessage.getSentDate() == null) {
+            mimeMessage.setSentDate(new Date());
+        }
+        String messageId = mimeMessage.getMessageID();
+        mimeMessage.saveChanges();
+        if (messageId != null) {
+            mimeMessage.setHeader("Message-ID", messageId);
+        }
+    }
+
+    private void close(Connection connection) {
+        try {
+            connection.transport.close();
+        } catch (MessagingException ignored) {
+        } finally {
+            connections.release();
+        }
+    }
+
+    private static final class Connection {
+        private final Transport transport;
+        private int sent;
+        private long lastUsed = System.nanoTime();
+
+        private Connection(Transport transport) {
+            this.transport = transport;
+        }
+    }
+}
+
+// JavaMailSenderImpl opens, authenticates and closes a new SMTP connection for every send() call. doSend() here keeps up to poolSize connected Transports between calls and sends every message of a call over one of them, so the TLS handshake and AUTH are paid once per connection instead of once per mail.
+// A pooled connection is reused only while it has been idle for less than idleTimeout and still answers isConnected() (a NOOP), because SMTP servers close idle sessions; it is replaced after maxMessagesPerConnection messages, which providers limit per session.
+// A rejected recipient (SendFailedException) leaves the session usable, any other MessagingException drops the connection and the next message opens a new one. Failed messages are reported in MailSendException.getFailedMessages() just like JavaMailSenderImpl does.
+// If a connection cannot be opened, the message and every message after it in the call fail with that error and no further connection is tried, as in JavaMailSenderImpl; a failed login is thrown as MailAuthenticationException.
+// The connections semaphore holds one permit per open connection, idle or in use, so there are never more than poolSize connections to the SMTP server. A sender finding none idle and no permit left waits for a connection to come back, at most acquireTimeout, and then fails like a connect failure.
@@ -0,0 +1,69 @@
+package com.example.demo.service.pagination;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+
+import static com.example.demo.service.TransactionCallbacks.afterCommit;
+
+@Component
+public class PageTotalCache {
+
+    public static final String PERFUMES = "perfumes";
+    public static final String ORDERS = "orders";
+    public static final String USERS = "users";
+
+    private static final int MAX_ENTRIES = 10_000;
+
+    private final Map<String, Entry> totals = new ConcurrentHashMap<>();
+
+    @Value("${pagination.total-cache.ttl:60s}")
+    private Duration ttl;
+
+    public long getTotal(String key, LongSupplier counter) {
+        Entry entry = totals.get(key);
+        if (entry == null) {
+            if (totals.size() >= MAX_ENTRIES) {
+                totals.clear();
+            }
+            return totals.computeIfAbsent(key, cacheKey -> new Entry(counter.getAsLong())).total;
+        }
+        if (entry.isExpired(ttl) && entry.refreshing.compareAndSet(false, true)) {
+            try {
+                Entry refreshed = new Entry(counter.getAsLong());
+                totals.replace(key, entry, refreshed);
+                return refreshed.total;
+            } finally {
+                entry.refreshing.set(false);
+            }
+        }
+        return entry.total;
+    }
+
+    public void invalidate(String key) {
+        afterCommit(() -> totals.remove(key));
+    }
+
+    private static final class Entry {
+        private final long total;
+        private final long loadedAt = System.nanoTime();
+        private final AtomicBoolean refreshing = new AtomicBoolean();
+
+        private Entry(long total) {
+            this.total = total;
+        }
+
+        private boolean isExpired(Duration ttl) {
+            return System.nanoTime() - loadedAt > ttl.toNanos();
+        }
+    }
+}
+
+// A Page<> query runs SELECT COUNT(*) next to every page select. Endpoints in CACHED mode read a Slice<> (the page select fetches size + 1 rows to know whether there is a next page) and take page-total-elements from this cache instead.
+// An entry is counted once and then reused until it is invalidated by a write or its TTL passes. When the TTL has passed, a single request recounts while the others keep getting the previous total, so a popular key never causes a burst of COUNT queries.
+// Keys that depend on the catalog include the catalog version, so they are replaced on catalog writes without explicit invalidation.
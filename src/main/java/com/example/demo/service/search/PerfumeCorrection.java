@@ -0,0 +1,15 @@
+package com.example.demo.service.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class PerfumeCorrection {
+    private final String text;
+    private final Integer distance;
+    private final Integer perfumesCount;
+    private final List<Long> perfumeIds;
+}
@@ -0,0 +1,129 @@
+package com.example.demo.service.search;
+
+import com.example.demo.domain.Perfume;
+import com.example.demo.dto.perfume.PerfumeSearchRequest;
+import com.example.demo.service.catalog.CatalogVersion;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+@RequiredArgsConstructor
+public class PerfumeFacetIndex implements PerfumeIndex {
+
+    private static final int MAX_CACHED_FILTERS = 1_000;
+
+    private final CatalogVersion catalogVersion;
+
+    private final Map<Long, Row> rows = new ConcurrentHashMap<>();
+    private final Map<FacetKey, PerfumeFacets> cache = new ConcurrentHashMap<>();
+
+    @Value("${perfume.facets.price-bucket-size:25}")
+    private int priceBucketSize;
+
+    @Override
+    public void rebuild(Collection<Perfume> perfumes) {
+        rows.clear();
+        perfumes.forEach(this::index);
+        cache.clear();
+    }
+
+    @Override
+    public void index(Perfume perfume) {
+        rows.put(perfume.getId(), new Row(perfume.getPerfumer(), perfume.getPerfumeGender(), perfume.getCountry(),
+                perfume.getType(), perfume.getVolume(), perfume.getYear(), perfume.getPrice()));
+    }
+
+    @Override
+    public void remove(Long perfumeId) {
+        rows.remove(perfumeId);
+    }
+
+    public PerfumeFacets getFacets(PerfumeSearchRequest filter) {
+        FacetKey key = FacetKey.of(catalogVersion.current(), filter);
+        PerfumeFacets facets = cache.get(key);
+        if (facets != null) {
+            return facets;
+        }
+        if (cache.size() >= MAX_CACHED_FILTERS) {
+            cache.keySet().removeIf(cached -> cached.version() != key.version());
+            if (cache.size() >= MAX_CACHED_FILTERS) {
+                cache.clear();
+            }
+        }
+        return cache.computeIfAbsent(key, this::computeFacets);
+    }
+
+    private PerfumeFacets computeFacets(FacetKey key) {
+        Map<String, Long> perfumers = new TreeMap<>();
+        Map<String, Long> genders = new TreeMap<>();
+        Map<Integer, Long> prices = new TreeMap<>();
+
+        for (Row row : rows.values()) {
+            if (!key.matchesOtherFilters(row)) {
+                continue;
+            }
+            boolean perfumerMatches = key.perfumers().isEmpty() || key.perfumers().contains(row.perfumer());
+            boolean genderMatches = key.genders().isEmpty() || key.genders().contains(row.gender());
+            boolean priceMatches = (key.priceStart() == null || (row.price() != null && row.price() >= key.priceStart()))
+                    && (key.priceEnd() == null || (row.price() != null && row.price() <= key.priceEnd()));
+
+            if (genderMatches && priceMatches && row.perfumer() != null) {
+                perfumers.merge(row.perfumer(), 1L, Long::sum);
+            }
+            if (perfumerMatches && priceMatches && row.gender() != null) {
+                genders.merge(row.gender(), 1L, Long::sum);
+            }
+            if (perfumerMatches && genderMatches && row.price() != null) {
+                prices.merge(row.price() / priceBucketSize, 1L, Long::sum);
+            }
+        }
+        List<PerfumeFacets.PriceBucket> priceBuckets = new ArrayList<>();
+        prices.forEach((bucket, count) -> priceBuckets.add(new PerfumeFacets.PriceBucket(
+                bucket * priceBucketSize, (bucket + 1) * priceBucketSize - 1, count)));
+        return new PerfumeFacets(perfumers, genders, priceBuckets);
+    }
+
+    private record Row(String perfumer, String gender, String country, String type, String volume, Integer year, Integer price) {
+    }
+
+    private record FacetKey(long version, Set<String> perfumers, Set<String> genders, Integer priceStart, Integer priceEnd,
+                            Set<String> countries, Set<String> types, Set<String> volumes, Integer yearStart, Integer yearEnd) {
+
+        private static FacetKey of(long version, PerfumeSearchRequest filter) {
+            List<Integer> prices = filter.getPrices();
+            List<Integer> years = filter.getYears();
+            return new FacetKey(
+                    version,
+                    values(filter.getPerfumers()),
+                    values(filter.getGenders()),
+                    prices == null || prices.isEmpty() ? null : prices.get(0),
+                    prices == null || prices.size() < 2 ? null : prices.get(1),
+                    values(filter.getCountries()),
+                    values(filter.getTypes()),
+                    values(filter.getVolumes()),
+                    years == null || years.isEmpty() ? null : years.get(0),
+                    years == null || years.size() < 2 ? null : years.get(1));
+        }
+
+        private static Set<String> values(List<String> selected) {
+            return selected == null ? Set.of() : new TreeSet<>(selected);
+        }
+
+        private boolean matchesOtherFilters(Row row) {
+            return (countries.isEmpty() || countries.contains(row.country()))
+                    && (types.isEmpty() || types.contains(row.type()))
+                    && (volumes.isEmpty() || volumes.contains(row.volume()))
+                    && (yearStart == null || (row.year() != null && row.year() >= yearStart))
+                    && (yearEnd == null || (row.year() != null && row.year() <= yearEnd));
+        }
+    }
+}
+
+// Facet counts are disjunctive: every facet is counted against all the active filters except its own, so the perfumer list still shows how many perfumes each other perfumer would add to the current selection. All three facets are accumulated in one pass over the in-memory rows.
+// Country, type, volume and year have no facet of their own; they narrow the rows every facet is counted over.
+// Price and year ranges may be open on either side, as in PerfumeSpecifications: a missing start or end bound is simply not checked.
+// Results are cached per (catalog version, canonical filter). A catalog write bumps the version, so stale entries are never returned and are dropped the next time the cache fills up.
@@ -0,0 +1,23 @@
+package com.example.demo.service.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.Map;
+
+@Getter
+@AllArgsConstructor
+public class PerfumeFacets {
+    private final Map<String, Long> perfumers;
+    private final Map<String, Long> genders;
+    private final List<PriceBucket> prices;
+
+    @Getter
+    @AllArgsConstructor
+    public static class PriceBucket {
+        private final Integer priceFrom;
+        private final Integer priceTo;
+        private final Long count;
+    }
+}
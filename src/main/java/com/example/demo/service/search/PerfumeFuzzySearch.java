@@ -0,0 +1,15 @@
+package com.example.demo.service.search;
+
+import com.example.demo.repository.projection.PerfumeProjection;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.data.domain.Page;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class PerfumeFuzzySearch {
+    private final List<PerfumeCorrection> corrections;
+    private final Page<PerfumeProjection> perfumes;
+}
@@ -0,0 +1,14 @@
+package com.example.demo.service.search;
+
+import com.example.demo.domain.Perfume;
+
+import java.util.Collection;
+
+public interface PerfumeIndex {
+
+    void rebuild(Collection<Perfume> perfumes);
+
+    void index(Perfume perfume);
+
+    void remove(Long perfumeId);
+}
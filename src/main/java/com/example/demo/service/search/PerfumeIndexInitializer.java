@@ -0,0 +1,25 @@
+package com.example.demo.service.search;
+
+import com.example.demo.domain.Perfume;
+import com.example.demo.repository.PerfumeRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+public class PerfumeIndexInitializer {
+
+    private final PerfumeRepository perfumeRepository;
+    private final List<PerfumeIndex> perfumeIndexes;
+
+    @PostConstruct
+    public void rebuildIndexes() {
+        List<Perfume> perfumes = perfumeRepository.findAll();
+        perfumeIndexes.forEach(index -> index.rebuild(perfumes));
+    }
+}
+
+// The indexes are built in @PostConstruct rather than on ApplicationReadyEvent, because the embedded web server is already accepting requests by the time ApplicationReadyEvent is published and a search during that window would see an empty index.
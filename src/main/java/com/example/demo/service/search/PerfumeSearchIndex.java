@@ -0,0 +1,269 @@
+package com.example.demo.service.search;
+
+import com.example.demo.domain.Perfume;
+import com.example.demo.enums.SearchPerfume;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+public class PerfumeSearchIndex implements PerfumeIndex {
+
+    private static final int GRAM_SIZE = 3;
+
+    private static final Comparator<Document> BY_PRICE_DESC = Comparator
+            .comparing(Document::price, Comparator.nullsFirst(Comparator.reverseOrder()))
+            .thenComparing(Document::id);
+
+    private volatile State state = new State();
+
+    @Override
+    public synchronized void rebuild(Collection<Perfume> perfumes) {
+        State newState = new State();
+        Map<SearchPerfume, Map<String, IntBuffer>> buffers = new EnumMap<>(SearchPerfume.class);
+        for (SearchPerfume field : SearchPerfume.values()) {
+            buffers.put(field, new HashMap<>());
+        }
+        for (Perfume perfume : perfumes) {
+            int ordinal = newState.nextOrdinal++;
+            Document document = Document.of(perfume);
+            newState.ordinals.put(document.id(), ordinal);
+            newState.documents.put(ordinal, document);
+            for (SearchPerfume field : SearchPerfume.values()) {
+                for (String gram : grams(document.value(field))) {
+                    buffers.get(field).computeIfAbsent(gram, key -> new IntBuffer()).add(ordinal);
+                }
+            }
+        }
+        buffers.forEach((field, grams) -> grams.forEach((gram, buffer) ->
+                newState.postings.get(field).put(gram, buffer.toArray())));
+        state = newState;
+    }
+
+    @Override
+    public synchronized void index(Perfume perfume) {
+        State current = state;
+        Integer ordinal = current.ordinals.get(perfume.getId());
+        if (ordinal != null) {
+            removePostings(current, ordinal, current.documents.get(ordinal));
+        } else {
+            ordinal = current.nextOrdinal++;
+        }
+        Document document = Document.of(perfume);
+        current.documents.put(ordinal, document);
+        current.ordinals.put(document.id(), ordinal);
+        for (SearchPerfume field : SearchPerfume.values()) {
+            Map<String, int[]> postings = current.postings.get(field);
+            for (String gram : grams(document.value(field))) {
+                postings.put(gram, insert(postings.get(gram), ordinal));
+            }
+        }
+    }
+
+    @Override
+    public synchronized void remove(Long perfumeId) {
+        State current = state;
+        Integer ordinal = current.ordinals.remove(perfumeId);
+        if (ordinal != null) {
+            removePostings(current, ordinal, current.documents.remove(ordinal));
+        }
+    }
+
+    public Page<Long> search(SearchPerfume field, String text, Pageable pageable) {
+        State current = state;
+        String query = normalize(text);
+        List<Document> matches = new ArrayList<>();
+
+        if (query.length() < GRAM_SIZE) {
+            for (Document document : current.documents.values()) {
+                if (document.matches(field, query)) {
+                    matches.add(document);
+                }
+            }
+        } else {
+            for (int ordinal : candidates(current, field, query)) {
+                Document document = current.documents.get(ordinal);
+                if (document != null && document.matches(field, query)) {
+                    matches.add(document);
+                }
+            }
+        }
+        return toPage(matches, pageable);
+    }
+
+    public int size() {
+        return state.documents.size();
+    }
+
+    private static int[] candidates(State state, SearchPerfume field, String query) {
+        Map<String, int[]> postings = state.postings.get(field);
+        int[] smallest = null;
+        for (String gram : grams(query)) {
+            int[] ordinals = postings.get(gram);
+            if (ordinals == null) {
+                return new int[0];
+            }
+            if (smallest == null || ordinals.length < smallest.length) {
+                smallest = ordinals;
+            }
+        }
+        return smallest == null ? new int[0] : smallest;
+    }
+
+    private static Page<Long> toPage(List<Document> matches, Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            matches.sort(BY_PRICE_DESC);
+            return new PageImpl<>(matches.stream().map(Document::id).toList(), pageable, matches.size());
+        }
+        int from = (int) Math.min(pageable.getOffset(), matches.size());
+        int to = Math.min(from + pageable.getPageSize(), matches.size());
+        List<Document> top = topN(matches, to);
+        List<Long> ids = top.subList(from, to).stream().map(Document::id).toList();
+        return new PageImpl<>(ids, pageable, matches.size());
+    }
+
+    private static List<Document> topN(List<Document> matches, int limit) {
+        if (limit >= matches.size()) {
+            matches.sort(BY_PRICE_DESC);
+            return matches;
+        }
+        PriorityQueue<Document> heap = new PriorityQueue<>(limit + 1, BY_PRICE_DESC.reversed());
+        for (Document document : matches) {
+            heap.offer(document);
+            if (heap.size() > limit) {
+                heap.poll();
+            }
+        }
+        List<Document> top = new ArrayList<>(heap);
+        top.sort(BY_PRICE_DESC);
+        return top;
+    }
+
+    private static void removePostings(State state, int ordinal, Document document) {
+        if (document == null) {
+            return;
+        }
+        for (SearchPerfume field : SearchPerfume.values()) {
+            Map<String, int[]> postings = state.postings.get(field);
+            for (String gram : grams(document.value(field))) {
+                int[] ordinals = delete(postings.get(gram), ordinal);
+                if (ordinals == null) {
+                    postings.remove(gram);
+                } else {
+                    postings.put(gram, ordinals);
+                }
+            }
+        }
+    }
+
+    private static int[] insert(int[] ordinals, int ordinal) {
+        if (ordinals == null) {
+            return new int[]{ordinal};
+        }
+        int position = Arrays.binarySearch(ordinals, ordinal);
+        if (position >= 0) {
+            return ordinals;
+        }
+        position = -position - 1;
+        int[] result = new int[ordinals.length + 1];
+        System.arraycopy(ordinals, 0, result, 0, position);
+        result[position] = ordinal;
+        System.arraycopy(ordinals, position, result, position + 1, ordinals.length - position);
+        return result;
+    }
+
+    private static int[] delete(int[] ordinals, int ordinal) {
+        if (ordinals == null) {
+            return null;
+        }
+        int position = Arrays.binarySearch(ordinals, ordinal);
+        if (position < 0) {
+            return ordinals;
+        }
+        if (ordinals.length == 1) {
+            return null;
+        }
+        int[] result = new int[ordinals.length - 1];
+        System.arraycopy(ordinals, 0, result, 0, position);
+        System.arraycopy(ordinals, position + 1, result, position, ordinals.length - position - 1);
+        return result;
+    }
+
+    private static Set<String> grams(String value) {
+        if (value == null || value.length() < GRAM_SIZE) {
+            return Collections.emptySet();
+        }
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM_SIZE <= value.length(); i++) {
+            grams.add(value.substring(i, i + GRAM_SIZE));
+        }
+        return grams;
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.toUpperCase(Locale.ROOT);
+    }
+
+    private static final class State {
+        private final Map<Long, Integer> ordinals = new ConcurrentHashMap<>();
+        private final Map<Integer, Document> documents = new ConcurrentHashMap<>();
+        private final Map<SearchPerfume, Map<String, int[]>> postings = new EnumMap<>(SearchPerfume.class);
+        private int nextOrdinal;
+
+        private State() {
+            for (SearchPerfume field : SearchPerfume.values()) {
+                postings.put(field, new ConcurrentHashMap<>());
+            }
+        }
+    }
+
+    private record Document(Long id, Integer price, String perfumeTitle, String perfumer, String country) {
+
+        private static Document of(Perfume perfume) {
+            return new Document(perfume.getId(), perfume.getPrice(), upper(perfume.getPerfumeTitle()),
+                    upper(perfume.getPerfumer()), upper(perfume.getCountry()));
+        }
+
+        private static String upper(String value) {
+            return value == null ? null : value.toUpperCase(Locale.ROOT);
+        }
+
+        private String value(SearchPerfume field) {
+            return switch (field) {
+                case BRAND -> perfumer;
+                case PERFUME_TITLE -> perfumeTitle;
+                case COUNTRY -> country;
+            };
+        }
+
+        private boolean matches(SearchPerfume field, String query) {
+            String value = value(field);
+            return value != null && value.contains(query);
+        }
+    }
+
+    private static final class IntBuffer {
+        private int[] data = new int[4];
+        private int size;
+
+        private void add(int value) {
+            if (size == data.length) {
+                data = Arrays.copyOf(data, size * 2);
+            }
+            data[size++] = value;
+        }
+
+        private int[] toArray() {
+            return Arrays.copyOf(data, size);
+        }
+    }
+}
+
+// Each field keeps an inverted index from every 3-character substring (trigram) of its upper-cased value to the sorted ordinals of the perfumes containing it. A query of three or more characters can only match documents that contain all of its trigrams, so the shortest posting list is a complete candidate set and each candidate is verified with String.contains() to reproduce the UPPER(x) LIKE UPPER('%text%') semantics exactly.
+// Queries shorter than a trigram fall back to scanning the in-memory documents, which is still far cheaper than a sequential scan of the perfume table.
+// Posting lists are copy-on-write int[] arrays: writers are serialized by synchronized and replace whole arrays, so readers never observe a partially updated list.
+// Results are ordered by price descending like the repository queries; only the top (offset + size) matches are kept in a bounded heap instead of sorting every match.
@@ -0,0 +1,191 @@
+package com.example.demo.service.search;
+
+import com.example.demo.domain.Perfume;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+@Component
+public class PerfumeSimilarityIndex implements PerfumeIndex {
+
+    public static final int MAX_SIMILAR = 20;
+
+    private static final int HASHES = 64;
+    private static final int BANDS = 16;
+    private static final int ROWS = HASHES / BANDS;
+    private static final long[] SEEDS = new long[HASHES];
+
+    static {
+        for (int i = 0; i < HASHES; i++) {
+            SEEDS[i] = mix(i + 1L);
+        }
+    }
+
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Long>> buckets = new ConcurrentHashMap<>();
+
+    @Override
+    public synchronized void rebuild(Collection<Perfume> perfumes) {
+        entries.clear();
+        buckets.clear();
+        perfumes.forEach(this::add);
+    }
+
+    @Override
+    public synchronized void index(Perfume perfume) {
+        delete(perfume.getId());
+        add(perfume);
+    }
+
+    @Override
+    public synchronized void remove(Long perfumeId) {
+        delete(perfumeId);
+    }
+
+    public boolean contains(Long perfumeId) {
+        return entries.containsKey(perfumeId);
+    }
+
+    public List<Long> similar(Long perfumeId, int limit) {
+        Entry entry = entries.get(perfumeId);
+        if (entry == null || entry.notes().length == 0 || limit <= 0) {
+            return List.of();
+        }
+        Comparator<Match> worstFirst = Comparator.comparingDouble(Match::similarity)
+                .thenComparing(Match::perfumeId, Comparator.reverseOrder());
+        PriorityQueue<Match> top = new PriorityQueue<>(limit + 1, worstFirst);
+        Set<Long> seen = new HashSet<>();
+        seen.add(perfumeId);
+        for (long bandKey : entry.bandKeys()) {
+            for (Long candidateId : buckets.getOrDefault(bandKey, Set.of())) {
+                if (!seen.add(candidateId)) {
+                    continue;
+                }
+                Entry candidate = entries.get(candidateId);
+                if (candidate == null) {
+                    continue;
+                }
+                top.add(new Match(candidateId, jaccard(entry.notes(), candidate.notes())));
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            }
+        }
+        List<Long> perfumeIds = new ArrayList<>(top.size());
+        while (!top.isEmpty()) {
+            perfumeIds.add(top.poll().perfumeId());
+        }
+        Collections.reverse(perfumeIds);
+        return perfumeIds;
+    }
+
+    private void add(Perfume perfume) {
+        Entry entry = Entry.of(perfume);
+        entries.put(perfume.getId(), entry);
+        for (long bandKey : entry.bandKeys()) {
+            buckets.computeIfAbsent(bandKey, key -> ConcurrentHashMap.newKeySet()).add(perfume.getId());
+        }
+    }
+
+    private void delete(Long perfumeId) {
+        Entry entry = entries.remove(perfumeId);
+        if (entry == null) {
+            return;
+        }
+        for (long bandKey : entry.bandKeys()) {
+            Set<Long> bucket = buckets.get(bandKey);
+            if (bucket != null) {
+                bucket.remove(perfumeId);
+                if (bucket.isEmpty()) {
+                    buckets.remove(bandKey);
+                }
+            }
+        }
+    }
+
+    static long[] notes(Perfume perfume) {
+        return Stream.of(perfume.getFragranceTopNotes(), perfume.getFragranceMiddleNotes(), perfume.getFragranceBaseNotes())
+                .filter(Objects::nonNull)
+                .flatMap(notes -> Arrays.stream(notes.split("[,;/]")))
+                .map(note -> note.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT))
+                .filter(note -> !note.isEmpty())
+                .mapToLong(PerfumeSimilarityIndex::hash)
+                .sorted()
+                .distinct()
+                .toArray();
+    }
+
+    static double jaccard(long[] first, long[] second) {
+        int shared = 0;
+        int i = 0;
+        int j = 0;
+        while (i < first.length && j < second.length) {
+            if (first[i] == second[j]) {
+                shared++;
+                i++;
+                j++;
+            } else if (first[i] < second[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        int union = first.length + second.length - shared;
+        return union == 0 ? 0 : (double) shared / union;
+    }
+
+    private static long[] bandKeys(long[] notes) {
+        if (notes.length == 0) {
+            return new long[0];
+        }
+        long[] signature = new long[HASHES];
+        Arrays.fill(signature, Long.MAX_VALUE);
+        for (long note : notes) {
+            for (int i = 0; i < HASHES; i++) {
+                signature[i] = Math.min(signature[i], mix(note ^ SEEDS[i]));
+            }
+        }
+        long[] bandKeys = new long[BANDS];
+        for (int band = 0; band < BANDS; band++) {
+            long key = band;
+            for (int row = 0; row < ROWS; row++) {
+                key = mix(key ^ signature[band * ROWS + row]);
+            }
+            bandKeys[band] = key;
+        }
+        return bandKeys;
+    }
+
+    private static long hash(String note) {
+        long hash = 1125899906842597L;
+        for (int i = 0; i < note.length(); i++) {
+            hash = 31 * hash + note.charAt(i);
+        }
+        return mix(hash);
+    }
+
+    private static long mix(long value) {
+        value = (value ^ (value >>> 30)) * 0xbf58476d1ce4e5b9L;
+        value = (value ^ (value >>> 27)) * 0x94d049bb133111ebL;
+        return value ^ (value >>> 31);
+    }
+
+    private record Entry(long[] notes, long[] bandKeys) {
+
+        private static Entry of(Perfume perfume) {
+            long[] notes = PerfumeSimilarityIndex.notes(perfume);
+            return new Entry(notes, PerfumeSimilarityIndex.bandKeys(notes));
+        }
+    }
+
+    private record Match(Long perfumeId, double similarity) {
+    }
+}
+
+// Similarity is the Jaccard index of the two perfumes' note sets. Notes are the comma separated values of the top, middle and base notes, lower-cased, so "Vanilla" in one perfume's base notes matches "vanilla" in another's middle notes.
+// Comparing a perfume with every other one is O(n) per request, so candidates come from MinHash/LSH instead: each note set gets a 64-value MinHash signature, cut into 16 bands of 4 values. Two perfumes land in the same bucket for a band when all 4 values agree,
+// which happens with probability J^4 per band, so pairs with J = 0.5 share at least one bucket ~65% of the time, J = 0.7 ~98%, and unrelated perfumes almost never. A request only scores the perfumes in its own 16 buckets, with the exact Jaccard of the sorted note hashes.
+// Only the band keys and the note hashes are kept per perfume; the signature itself is needed only to compute the keys.
+// Unlike the other indexes, a write only moves the one perfume between buckets, so savePerfume costs O(notes x 64) regardless of catalog size. Readers are lock-free and may see a perfume in an old and a new bucket for the duration of one write.
@@ -0,0 +1,173 @@
+package com.example.demo.service.search;
+
+import com.example.demo.domain.Perfume;
+import com.example.demo.enums.SearchPerfume;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+@Component
+public class PerfumeSuggestIndex implements PerfumeIndex {
+
+    public static final int MAX_SUGGESTIONS = 20;
+
+    private static final int SHORT_PREFIX = 2;
+
+    private static final Comparator<PerfumeSuggestion> BY_RANK = Comparator
+            .comparing(PerfumeSuggestion::getPerfumesCount, Comparator.reverseOrder())
+            .thenComparing(suggestion -> suggestion.getText().length())
+            .thenComparing(PerfumeSuggestion::getText)
+            .thenComparing(PerfumeSuggestion::getType);
+
+    private final Map<Long, Row> rows = new HashMap<>();
+
+    private volatile Terms terms = Terms.of(List.of());
+
+    @Override
+    public synchronized void rebuild(Collection<Perfume> perfumes) {
+        rows.clear();
+        perfumes.forEach(perfume -> rows.put(perfume.getId(), Row.of(perfume)));
+        terms = Terms.of(rows.values());
+    }
+
+    @Override
+    public synchronized void index(Perfume perfume) {
+        rows.put(perfume.getId(), Row.of(perfume));
+        terms = Terms.of(rows.values());
+    }
+
+    @Override
+    public synchronized void remove(Long perfumeId) {
+        if (rows.remove(perfumeId) != null) {
+            terms = Terms.of(rows.values());
+        }
+    }
+
+    public List<PerfumeSuggestion> suggest(String text, int limit) {
+        Terms current = terms;
+        String prefix = normalize(text);
+        if (prefix.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        int[] top = prefix.length() <= SHORT_PREFIX
+                ? current.shortPrefixes.getOrDefault(prefix, new int[0])
+                : topRanks(current.keys, current.ranks, prefix, MAX_SUGGESTIONS);
+        int size = Math.min(top.length, limit);
+        List<PerfumeSuggestion> suggestions = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            suggestions.add(current.suggestions[top[i]]);
+        }
+        return suggestions;
+    }
+
+    private static int[] topRanks(String[] keys, int[] ranks, String prefix, int limit) {
+        int[] top = new int[limit];
+        int size = 0;
+        for (int i = lowerBound(keys, prefix); i < keys.length && keys[i].startsWith(prefix); i++) {
+            int rank = ranks[i];
+            if (size == limit && rank >= top[size - 1]) {
+                continue;
+            }
+            int position = Arrays.binarySearch(top, 0, size, rank);
+            if (position >= 0) {
+                continue;
+            }
+            position = -position - 1;
+            int moved = Math.min(size, limit - 1) - position;
+            System.arraycopy(top, position, top, position + 1, moved);
+            top[position] = rank;
+            size = Math.min(size + 1, limit);
+        }
+        return size == limit ? top : Arrays.copyOf(top, size);
+    }
+
+    private static int lowerBound(String[] keys, String prefix) {
+        int low = 0;
+        int high = keys.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (keys[middle].compareTo(prefix) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private record Row(String perfumeTitle, String perfumer) {
+
+        private static Row of(Perfume perfume) {
+            return new Row(perfume.getPerfumeTitle(), perfume.getPerfumer());
+        }
+    }
+
+    private record Term(String key, int rank) {
+    }
+
+    private static final class Terms {
+        private final String[] keys;
+        private final int[] ranks;
+        private final PerfumeSuggestion[] suggestions;
+        private final Map<String, int[]> shortPrefixes;
+
+        private Terms(String[] keys, int[] ranks, PerfumeSuggestion[] suggestions, Map<String, int[]> shortPrefixes) {
+            this.keys = keys;
+            this.ranks = ranks;
+            this.suggestions = suggestions;
+            this.shortPrefixes = shortPrefixes;
+        }
+
+        private static Terms of(Collection<Row> rows) {
+            Map<String, Long> titles = new HashMap<>();
+            Map<String, Long> perfumers = new HashMap<>();
+            for (Row row : rows) {
+                if (row.perfumeTitle() != null && !row.perfumeTitle().isBlank()) {
+                    titles.merge(row.perfumeTitle().trim(), 1L, Long::sum);
+                }
+                if (row.perfumer() != null && !row.perfumer().isBlank()) {
+                    perfumers.merge(row.perfumer().trim(), 1L, Long::sum);
+                }
+            }
+            List<PerfumeSuggestion> suggestions = new ArrayList<>(titles.size() + perfumers.size());
+            titles.forEach((title, count) -> suggestions.add(new PerfumeSuggestion(title, SearchPerfume.PERFUME_TITLE, count)));
+            perfumers.forEach((perfumer, count) -> suggestions.add(new PerfumeSuggestion(perfumer, SearchPerfume.BRAND, count)));
+            suggestions.sort(BY_RANK);
+
+            List<Term> terms = new ArrayList<>();
+            for (int rank = 0; rank < suggestions.size(); rank++) {
+                String value = normalize(suggestions.get(rank).getText());
+                for (int start = 0; start < value.length(); start++) {
+                    if (start == 0 || (!Character.isLetterOrDigit(value.charAt(start - 1)) && Character.isLetterOrDigit(value.charAt(start)))) {
+                        terms.add(new Term(value.substring(start), rank));
+                    }
+                }
+            }
+            terms.sort(Comparator.comparing(Term::key).thenComparingInt(Term::rank));
+
+            String[] keys = new String[terms.size()];
+            int[] ranks = new int[terms.size()];
+            for (int i = 0; i < terms.size(); i++) {
+                keys[i] = terms.get(i).key();
+                ranks[i] = terms.get(i).rank();
+            }
+            Map<String, int[]> shortPrefixes = new HashMap<>();
+            for (String key : keys) {
+                for (int length = 1; length <= Math.min(SHORT_PREFIX, key.length()); length++) {
+                    shortPrefixes.computeIfAbsent(key.substring(0, length), prefix -> topRanks(keys, ranks, prefix, MAX_SUGGESTIONS));
+                }
+            }
+            return new Terms(keys, ranks, suggestions.toArray(new PerfumeSuggestion[0]), Map.copyOf(shortPrefixes));
+        }
+    }
+}
+
+// Suggestions are the distinct perfume titles and perfumer names. Each one is ranked once at build time (most perfumes first, then shorter, then alphabetical), so a lookup compares ints instead of strings.
+// The keys are the lower-cased value and every word start inside it ("dior homme intense" is also reachable as "homme intense" and "intense"), sorted in one String[]. All keys with a given prefix are a contiguous range found by binary search.
+// A lookup walks that range and keeps the best MAX_SUGGESTIONS ranks in a small sorted int[], skipping anything worse than the current last entry and ranks already taken by another word of the same suggestion.
+// One- and two-character prefixes match the largest ranges, so their results are computed once per build and a lookup for them is a single map read. Longer prefixes select short ranges and are scanned per request.
+// Like CatalogSnapshot, every write rebuilds the arrays from the row map and publishes them through a volatile field.
@@ -0,0 +1,13 @@
+package com.example.demo.service.search;
+
+import com.example.demo.enums.SearchPerfume;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class PerfumeSuggestion {
+    private final String text;
+    private final SearchPerfume type;
+    private final Long perfumesCount;
+}
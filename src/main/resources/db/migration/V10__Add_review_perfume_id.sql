@@ -0,0 +1,11 @@
+alter table review add column perfume_id int8 references perfume on delete cascade;
+
+update review
+set perfume_id = perfume_reviews.perfume_id
+from perfume_reviews
+where perfume_reviews.reviews_id = review.id;
+
+drop table perfume_reviews;
+
+create index review_perfume_id_date_id_idx on review (perfume_id, date desc, id desc);
+create index review_perfume_id_rating_date_id_idx on review (perfume_id, rating desc, date desc, id desc);
@@ -0,0 +1,12 @@
+alter table perfume add column stock int4 check (stock >= 0);
+
+create table stock_reservation
+(
+    reservation_id uuid      not null,
+    perfume_id     int8      not null references perfume on delete cascade,
+    quantity       int8      not null check (quantity > 0),
+    expires_at     timestamp not null,
+    primary key (reservation_id, perfume_id)
+);
+
+create index stock_reservation_expires_at_idx on stock_reservation (expires_at);
@@ -0,0 +1,14 @@
+create table mail_outbox
+(
+    id              bigserial    not null,
+    recipient       varchar(255) not null,
+    subject         varchar(255) not null,
+    body            text         not null,
+    attempts        int4         not null default 0,
+    created_at      timestamp    not null,
+    next_attempt_at timestamp,
+    last_error      text,
+    primary key (id)
+);
+
+create index mail_outbox_next_attempt_at_idx on mail_outbox (next_attempt_at) where next_attempt_at is not null;
@@ -0,0 +1,10 @@
+create table idempotency_key
+(
+    key          varchar(255) not null,
+    request_hash varchar(64)  not null,
+    response     text,
+    expires_at   timestamp    not null,
+    primary key (key)
+);
+
+create index idempotency_key_expires_at_idx on idempotency_key (expires_at);
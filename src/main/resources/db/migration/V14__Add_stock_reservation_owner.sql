@@ -0,0 +1,3 @@
+alter table stock_reservation add column owner varchar(255);
+
+create index stock_reservation_owner_idx on stock_reservation (owner);
@@ -0,0 +1 @@
+alter table idempotency_key alter column key type varchar(300);
@@ -0,0 +1,4 @@
+alter table perfume add column reviews_count int4 not null default 0;
+
+update perfume
+set reviews_count = (select count(*) from perfume_reviews where perfume_reviews.perfume_id = perfume.id);
@@ -0,0 +1,17 @@
+create extension if not exists pg_trgm;
+
+alter table perfume add column search_vector tsvector generated always as (
+    setweight(to_tsvector('english', coalesce(perfume_title, '')), 'A') ||
+    setweight(to_tsvector('english', coalesce(perfumer, '')), 'B') ||
+    setweight(to_tsvector('english', coalesce(country, '')), 'C') ||
+    setweight(to_tsvector('english', coalesce(fragrance_top_notes, '') || ' ' ||
+                                     coalesce(fragrance_middle_notes, '') || ' ' ||
+                                     coalesce(fragrance_base_notes, '') || ' ' ||
+                                     coalesce(description, '')), 'D')
+) stored;
+
+create index perfume_search_vector_idx on perfume using gin (search_vector);
+
+create index perfume_title_trgm_idx on perfume using gin (upper(perfume_title) gin_trgm_ops);
+create index perfume_perfumer_trgm_idx on perfume using gin (upper(perfumer) gin_trgm_ops);
+create index perfume_country_trgm_idx on perfume using gin (upper(country) gin_trgm_ops);
@@ -0,0 +1,7 @@
+create index perfume_price_id_idx on perfume (price, id);
+create index perfume_price_desc_id_idx on perfume (price desc nulls last, id desc);
+
+create index perfume_perfumer_price_idx on perfume (perfumer, price, id);
+create index perfume_gender_price_idx on perfume (perfume_gender, price, id);
+create index perfume_country_price_idx on perfume (country, price, id);
+create index perfume_year_price_idx on perfume (year, price, id);
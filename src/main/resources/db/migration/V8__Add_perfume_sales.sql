@@ -0,0 +1,12 @@
+create table perfume_sales
+(
+    perfume_id int8 not null references perfume on delete cascade,
+    quantity   int8 not null,
+    primary key (perfume_id)
+);
+
+insert into perfume_sales (perfume_id, quantity)
+select order_item.perfume_id, sum(order_item.quantity)
+from order_item
+where order_item.perfume_id is not null
+group by order_item.perfume_id;
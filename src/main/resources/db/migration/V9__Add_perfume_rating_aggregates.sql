@@ -0,0 +1,29 @@
+alter table perfume
+    add column rating_sum       int8 not null default 0,
+    add column one_star_count   int4 not null default 0,
+    add column two_star_count   int4 not null default 0,
+    add column three_star_count int4 not null default 0,
+    add column four_star_count  int4 not null default 0,
+    add column five_star_count  int4 not null default 0;
+
+update perfume
+set rating_sum       = ratings.rating_sum,
+    one_star_count   = ratings.one_star_count,
+    two_star_count   = ratings.two_star_count,
+    three_star_count = ratings.three_star_count,
+    four_star_count  = ratings.four_star_count,
+    five_star_count  = ratings.five_star_count,
+    reviews_count    = ratings.reviews_count,
+    perfume_rating   = ratings.rating_sum::float8 / ratings.reviews_count
+from (select perfume_reviews.perfume_id,
+             count(*)                                    as reviews_count,
+             coalesce(sum(review.rating), 0)             as rating_sum,
+             count(*) filter (where review.rating = 1)   as one_star_count,
+             count(*) filter (where review.rating = 2)   as two_star_count,
+             count(*) filter (where review.rating = 3)   as three_star_count,
+             count(*) filter (where review.rating = 4)   as four_star_count,
+             count(*) filter (where review.rating = 5)   as five_star_count
+      from perfume_reviews
+               join review on review.id = perfume_reviews.reviews_id
+      group by perfume_reviews.perfume_id) as ratings
+where ratings.perfume_id = perfume.id;
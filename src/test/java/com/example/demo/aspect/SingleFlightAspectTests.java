@@ -0,0 +1,101 @@
+package com.example.demo.aspect;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightAspectTests {
+
+    private MeterRegistry meterRegistry;
+    private Catalog catalog;
+    private Catalog proxy;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        catalog = new Catalog();
+        AspectJProxyFactory factory = new AspectJProxyFactory(catalog);
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new SingleFlightAspect(meterRegistry));
+        proxy = factory.getProxy();
+    }
+
+    @Test
+    void identicalConcurrentCallsShareOneExecution() throws Exception {
+        int callers = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        List<Future<String>> results = new ArrayList<>();
+
+        for (int i = 0; i < callers; i++) {
+            results.add(executor.submit(() -> proxy.find(1L)));
+        }
+        awaitWaiting(callers - 1);
+        catalog.release.countDown();
+        for (Future<String> result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("perfume-1");
+        }
+        executor.shutdown();
+
+        assertThat(catalog.calls).hasValue(1);
+        assertThat(count("leader")).isEqualTo(1);
+        assertThat(count("coalesced")).isEqualTo(callers - 1);
+        assertThat(meterRegistry.get("singleflight.wait").timer().count()).isEqualTo(callers - 1);
+    }
+
+    @Test
+    void differentArgumentsAndLaterCallsRunSeparately() throws Exception {
+        catalog.release.countDown();
+
+        assertThat(proxy.find(1L)).isEqualTo("perfume-1");
+        assertThat(proxy.find(2L)).isEqualTo("perfume-2");
+        assertThat(proxy.find(1L)).isEqualTo("perfume-1");
+
+        assertThat(catalog.calls).hasValue(3);
+        assertThat(count("coalesced")).isZero();
+    }
+
+    @Test
+    void failureIsNotRemembered() {
+        catalog.release.countDown();
+
+        assertThatThrownBy(() -> proxy.find(-1L)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> proxy.find(-1L)).isInstanceOf(IllegalArgumentException.class);
+        assertThat(catalog.calls).hasValue(2);
+    }
+
+    private void awaitWaiting(int coalesced) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (count("coalesced") < coalesced && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    private double count(String result) {
+        return meterRegistry.counter("singleflight.requests", "method", "Catalog.find", "result", result).count();
+    }
+
+    static class Catalog {
+        final AtomicInteger calls = new AtomicInteger();
+        final CountDownLatch release = new CountDownLatch(1);
+
+        @SingleFlight
+        public String find(Long id) throws InterruptedException {
+            calls.incrementAndGet();
+            release.await();
+            if (id < 0) {
+                throw new IllegalArgumentException("id");
+            }
+            return "perfume-" + id;
+        }
+    }
+}
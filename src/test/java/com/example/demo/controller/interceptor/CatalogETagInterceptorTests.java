@@ -0,0 +1,96 @@
+package com.example.demo.controller.interceptor;
+
+import com.example.demo.repository.PerfumeSalesRepository;
+import com.example.demo.service.catalog.CatalogVersion;
+import com.example.demo.service.catalog.PerfumeBestsellers;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class CatalogETagInterceptorTests {
+
+    private final CatalogVersion catalogVersion = new CatalogVersion();
+    private final PerfumeBestsellers perfumeBestsellers = new PerfumeBestsellers(mock(PerfumeSalesRepository.class));
+    private final CatalogETagInterceptor interceptor = new CatalogETagInterceptor(catalogVersion, perfumeBestsellers);
+
+    @Test
+    void answersNotModifiedUntilCatalogVersionChanges() {
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        assertThat(interceptor.preHandle(get(null), first, null)).isTrue();
+        String etag = first.getHeader(HttpHeaders.ETAG);
+        assertThat(etag).startsWith("\"").endsWith("\"");
+        assertThat(first.getHeader(HttpHeaders.CACHE_CONTROL)).isEqualTo("no-cache");
+
+        MockHttpServletResponse revalidated = new MockHttpServletResponse();
+        assertThat(interceptor.preHandle(get(etag), revalidated, null)).isFalse();
+        assertThat(revalidated.getStatus()).isEqualTo(HttpStatus.NOT_MODIFIED.value());
+
+        catalogVersion.increment();
+
+        MockHttpServletResponse changed = new MockHttpServletResponse();
+        assertThat(interceptor.preHandle(get(etag), changed, null)).isTrue();
+        assertThat(changed.getHeader(HttpHeaders.ETAG)).isNotEqualTo(etag);
+    }
+
+    @Test
+    void changesBestsellerTagsOnlyWhenRankingChanges() {
+        MockHttpServletRequest bestsellers = new MockHttpServletRequest("GET", "/api/v1/perfumes/bestsellers");
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        interceptor.preHandle(bestsellers, first, null);
+        MockHttpServletResponse search = new MockHttpServletResponse();
+        interceptor.preHandle(get(null), search, null);
+
+        perfumeBestsellers.record(1L, 5);
+        perfumeBestsellers.record(1L, 5);
+
+        MockHttpServletResponse reranked = new MockHttpServletResponse();
+        interceptor.preHandle(bestsellers, reranked, null);
+        MockHttpServletResponse unchanged = new MockHttpServletResponse();
+        interceptor.preHandle(get(null), unchanged, null);
+        assertThat(reranked.getHeader(HttpHeaders.ETAG)).isNotEqualTo(first.getHeader(HttpHeaders.ETAG));
+        assertThat(unchanged.getHeader(HttpHeaders.ETAG)).isEqualTo(search.getHeader(HttpHeaders.ETAG));
+
+        perfumeBestsellers.record(1L, 5);
+
+        MockHttpServletResponse sameOrder = new MockHttpServletResponse();
+        interceptor.preHandle(bestsellers, sameOrder, null);
+        assertThat(sameOrder.getHeader(HttpHeaders.ETAG)).isEqualTo(reranked.getHeader(HttpHeaders.ETAG));
+    }
+
+    @Test
+    void ignoresNonGetRequests() {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/perfumes/search");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertThat(interceptor.preHandle(request, response, null)).isTrue();
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isNull();
+    }
+
+    @Test
+    void canonicalizesQueryParameters() {
+        Map<String, String[]> parameters = new LinkedHashMap<>();
+        parameters.put("sort", new String[]{"price,desc", "id"});
+        parameters.put("perfumers", new String[]{"Dior", "Chanel"});
+        parameters.put("prices", new String[]{"200", "1"});
+
+        assertThat(CatalogETagInterceptor.canonicalQuery(parameters))
+                .isEqualTo("perfumers=Chanel&perfumers=Dior&prices=200&prices=1&sort=price,desc&sort=id");
+    }
+
+    private static MockHttpServletRequest get(String ifNoneMatch) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/perfumes/search");
+        request.addParameter("perfumers", "Chanel");
+        if (ifNoneMatch != null) {
+            request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        return request;
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.demo.mapper;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "pagination.count-mode.perfumes=CACHED"
+})
+@Transactional
+class PerfumeMapperCachedCountTests {
+
+    @Autowired
+    private PerfumeMapper perfumeMapper;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void cachedCountModeSkipsTheCountQueryOfRepeatedPages() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        int requests = 20;
+        for (int i = 0; i < requests; i++) {
+            assertThat(perfumeMapper.getAllPerfumes(null, PageRequest.of(i % 5, 15)).getItems()).isNotEmpty();
+        }
+
+        assertThat(statistics.getPrepareStatementCount()).isBetween((long) requests, requests + 1L);
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.demo.mapper;
+
+import com.example.demo.domain.Perfume;
+import com.example.demo.domain.Review;
+import com.example.demo.dto.HeaderResponse;
+import com.example.demo.dto.perfume.FullPerfumeResponse;
+import com.example.demo.dto.perfume.PerfumeRequest;
+import com.example.demo.dto.perfume.PerfumeResponse;
+import com.example.demo.repository.PerfumeRepository;
+import com.example.demo.service.ReviewService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.validation.BeanPropertyBindingResult;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "pagination.count-mode.perfumes=EXACT"
+})
+@Transactional
+class PerfumeMapperTests {
+
+    @Autowired
+    private PerfumeMapper perfumeMapper;
+
+    @Autowired
+    private ReviewService reviewService;
+
+    @Autowired
+    private PerfumeRepository perfumeRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void loadsCatalogPageWithPageAndCountQueries() {
+        HeaderResponse<PerfumeResponse> response = perfumeMapper.getAllPerfumes(null, PageRequest.of(0, 15));
+
+        assertThat(response.getItems()).hasSize(15);
+        assertThat(response.getItems()).allSatisfy(perfume -> assertThat(perfume.getReviewsCount()).isNotNull());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(statistics.getCollectionFetchCount()).isZero();
+    }
+
+    @Test
+    void exactCountModeCountsEveryPage() {
+        int requests = 20;
+        for (int i = 0; i < requests; i++) {
+            assertThat(perfumeMapper.getAllPerfumes(null, PageRequest.of(i % 5, 15)).getItems()).isNotEmpty();
+        }
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2L * requests);
+    }
+
+    @Test
+    void cachesPerfumePageWithoutLoadingEntities() {
+        Perfume perfume = perfumeRepository.findById(perfumeRepository.findAllByOrderByIdAsc().get(0).getId()).orElseThrow();
+        entityManager.clear();
+        statistics.clear();
+
+        FullPerfumeResponse first = perfumeMapper.getPerfumeById(perfume.getId());
+        first.setPerfumeTitle("Changed by the caller");
+        long statements = statistics.getPrepareStatementCount();
+        FullPerfumeResponse second = perfumeMapper.getPerfumeById(perfume.getId());
+
+        assertThat(second.getPerfumeTitle()).isEqualTo(perfume.getPerfumeTitle());
+        assertThat(second.getCountry()).isEqualTo(perfume.getCountry());
+        assertThat(second.getFragranceBaseNotes()).isEqualTo(perfume.getFragranceBaseNotes());
+        assertThat(second.getFiveStarCount()).isEqualTo(perfume.getFiveStarCount());
+        assertThat(statistics.getEntityStatistics(Perfume.class.getName()).getLoadCount()).isZero();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(statements);
+    }
+
+    @Test
+    void addReviewIncrementsReviewsCount() {
+        Long perfumeId = perfumeRepository.findAllByOrderByIdAsc().get(0).getId();
+        int reviewsCount = perfumeRepository.getPerfumesByIds(List.of(perfumeId)).get(0).getReviewsCount();
+        reviewService.addReviewToPerfume(review(5), perfumeId);
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThat(perfumeRepository.getPerfumesByIds(List.of(perfumeId)).get(0).getReviewsCount())
+                .isEqualTo(reviewsCount + 1);
+    }
+
+    @Test
+    void editingAPerfumeKeepsItsReviewAggregates() {
+        Long perfumeId = perfumeRepository.findAllByOrderByIdAsc().get(0).getId();
+        reviewService.addReviewToPerfume(review(5), perfumeId);
+        reviewService.addReviewToPerfume(review(2), perfumeId);
+        entityManager.flush();
+        entityManager.clear();
+        Perfume stored = perfumeRepository.findById(perfumeId).orElseThrow();
+        entityManager.clear();
+
+        PerfumeRequest request = perfumeRequest(stored);
+        request.setPerfumeTitle("Edited by the admin");
+        FullPerfumeResponse edited = perfumeMapper.savePerfume(request, null, new BeanPropertyBindingResult(request, "perfume"));
+
+        assertThat(edited.getPerfumeTitle()).isEqualTo("Edited by the admin");
+        assertThat(edited.getReviewsCount()).isEqualTo(stored.getReviewsCount()).isPositive();
+        assertThat(edited.getPerfumeRating()).isEqualTo(stored.getPerfumeRating());
+        assertThat(edited.getFiveStarCount()).isEqualTo(stored.getFiveStarCount());
+        assertThat(edited.getTwoStarCount()).isEqualTo(stored.getTwoStarCount());
+    }
+
+    private static Review review(int rating) {
+        Review review = new Review();
+        review.setAuthor("Author");
+        review.setMessage("Message");
+        review.setRating(rating);
+        return review;
+    }
+
+    private static PerfumeRequest perfumeRequest(Perfume perfume) {
+        PerfumeRequest request = new PerfumeRequest();
+        request.setId(perfume.getId());
+        request.setFilename(perfume.getFilename());
+        request.setPerfumeTitle(perfume.getPerfumeTitle());
+        request.setPerfumer(perfume.getPerfumer());
+        request.setYear(perfume.getYear());
+        request.setCountry(perfume.getCountry());
+        request.setPerfumeGender(perfume.getPerfumeGender());
+        request.setFragranceTopNotes(perfume.getFragranceTopNotes());
+        request.setFragranceMiddleNotes(perfume.getFragranceMiddleNotes());
+        request.setFragranceBaseNotes(perfume.getFragranceBaseNotes());
+        request.setPrice(perfume.getPrice());
+        request.setVolume(perfume.getVolume());
+        request.setType(perfume.getType());
+        return request;
+    }
+}
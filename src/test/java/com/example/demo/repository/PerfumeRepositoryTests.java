@@ -0,0 +1,162 @@
+package com.example.demo.repository;
+
+import com.example.demo.dto.perfume.PerfumeSearchRequest;
+import com.example.demo.repository.projection.PerfumeProjection;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.example.demo.repository.PerfumeRepositoryTests$SqlCapture",
+        "spring.jpa.properties.hibernate.criteria.value_handling_mode=inline"})
+@Transactional
+class PerfumeRepositoryTests {
+
+    private static final String[] WORDS = {"amber", "cedar", "musk", "vetiver", "iris", "neroli", "tonka", "patchouli", "leather", "saffron"};
+    private static final String[] TYPES = {"Eau de parfum", "Eau de toilette", "Parfum"};
+
+    @Autowired
+    private PerfumeRepository perfumeRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void insertPerfumes() {
+        Random random = new Random(42);
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            rows.add(new Object[]{1_000_000L + i, "Perfume " + i, "Perfumer " + (i % 500), "Country " + (i % 40),
+                    WORDS[random.nextInt(WORDS.length)] + ", " + WORDS[random.nextInt(WORDS.length)], random.nextInt(300),
+                    1950 + random.nextInt(70), TYPES[random.nextInt(TYPES.length)], String.valueOf(50 * (1 + random.nextInt(2)))});
+        }
+        rows.add(new Object[]{1_100_000L, "Zephyrine Noir", "Maison Zephyrine", "France", "Bergamot", 120, 2019, "Parfum", "50"});
+        rows.add(new Object[]{1_100_001L, "Blue Night", "Maison Blue", "France", "Zephyrine, Jasmine", 90, 2021, "Parfum", "100"});
+        jdbcTemplate.batchUpdate("INSERT INTO perfume (id, perfume_title, perfumer, country, fragrance_top_notes, price, year, type, volume) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)", rows);
+        jdbcTemplate.execute("ANALYZE perfume");
+    }
+
+    @Test
+    void ranksFullTextMatchesAndRestrictsThemToTheRequestedFields() {
+        Page<PerfumeProjection> everywhere = perfumeRepository.findByFullText("zephyrine", "a,b,c,d", PageRequest.of(0, 10));
+        assertThat(everywhere.getContent()).extracting(PerfumeProjection::getId).containsExactly(1_100_000L, 1_100_001L);
+        assertThat(everywhere.getTotalElements()).isEqualTo(2);
+
+        assertThat(perfumeRepository.findByFullText("zephyrine", "a", PageRequest.of(0, 10)).getContent())
+                .extracting(PerfumeProjection::getPerfumeTitle).containsExactly("Zephyrine Noir");
+        assertThat(perfumeRepository.findByFullText("maison blue", "b", PageRequest.of(0, 10)).getContent())
+                .extracting(PerfumeProjection::getPerfumer).containsExactly("Maison Blue");
+        assertThat(perfumeRepository.findByFullText("zephyrine -noir", "a,b,c,d", PageRequest.of(0, 10)).getContent())
+                .extracting(PerfumeProjection::getId).containsExactly(1_100_001L);
+    }
+
+    @Test
+    void usesGinIndexesForFullTextAndSubstringSearch() {
+        perfumeRepository.findByFullText("zephyrine", "a,b,c,d", PageRequest.of(0, 10));
+        String fullTextPlan = explainLast("zephyrine", "a,b,c,d", 10);
+        assertThat(perfumeRepository.findByPerfumer("son zeph", PageRequest.of(0, 10)).getContent())
+                .extracting(PerfumeProjection::getId).containsExactly(1_100_000L);
+        String substringPlan = explainLast("son zeph", 0, 10);
+
+        assertThat(fullTextPlan).contains("perfume_search_vector_idx").doesNotContain("Seq Scan");
+        assertThat(substringPlan).contains("perfume_perfumer_trgm_idx").doesNotContain("Seq Scan");
+    }
+
+    @Test
+    void filtersWithOnlyTheActivePredicates() {
+        PerfumeSearchRequest filter = filter(true);
+        filter.setCountries(List.of("Country 3", "Country 5"));
+        filter.setTypes(List.of("Parfum"));
+        filter.setVolumes(List.of("50"));
+        filter.setPrices(List.of(100, 200));
+        filter.setYears(List.of(1990, 2010));
+
+        List<Long> ids = perfumeRepository.findIdsByFilter(filter, List.of(), PageRequest.of(0, 10));
+
+        String sql = SqlCapture.last();
+        assertThat(sql).doesNotContain("perfumer", "perfume_gender", " is null", "case");
+        List<Long> expected = jdbcTemplate.queryForList("SELECT id FROM perfume WHERE country IN ('Country 3', 'Country 5') " +
+                "AND type = 'Parfum' AND volume = '50' AND price BETWEEN 100 AND 200 AND year BETWEEN 1990 AND 2010 " +
+                "ORDER BY price, id LIMIT 10", Long.class);
+        assertThat(ids).isNotEmpty().isEqualTo(expected);
+        assertThat(perfumeRepository.count(PerfumeSpecifications.byFilter(filter))).isEqualTo(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM perfume WHERE country IN ('Country 3', 'Country 5') AND type = 'Parfum' AND volume = '50' " +
+                        "AND price BETWEEN 100 AND 200 AND year BETWEEN 1990 AND 2010", Long.class));
+
+        PerfumeSearchRequest descending = filter(false);
+        descending.setYears(Arrays.asList(2019, null));
+        descending.setPrices(Arrays.asList(null, 120));
+        assertThat(perfumeRepository.findIdsByFilter(descending, List.of(), PageRequest.of(0, 5))).isEqualTo(jdbcTemplate.queryForList(
+                "SELECT id FROM perfume WHERE year >= 2019 AND price <= 120 ORDER BY price DESC NULLS LAST, id DESC LIMIT 5", Long.class));
+    }
+
+    @Test
+    void usesCompositeIndexesForFilterShapes() {
+        String ascending = explainFilter(filter(true));
+        String descending = explainFilter(filter(false));
+        PerfumeSearchRequest perfumer = filter(true);
+        perfumer.setPerfumers(List.of("Perfumer 7"));
+        PerfumeSearchRequest gender = filter(true);
+        gender.setGenders(List.of("unisex"));
+        PerfumeSearchRequest country = filter(false);
+        country.setCountries(List.of("Country 3"));
+        country.setPrices(List.of(100, 150));
+        PerfumeSearchRequest year = filter(true);
+        year.setYears(List.of(1980, 1980));
+        year.setTypes(List.of("Parfum"));
+        String perfumerPlan = explainFilter(perfumer);
+        String genderPlan = explainFilter(gender);
+        String countryPlan = explainFilter(country);
+        String yearPlan = explainFilter(year);
+
+        assertThat(ascending).contains("perfume_price_id_idx").doesNotContain("Sort", "Seq Scan");
+        assertThat(descending).contains("perfume_price_desc_id_idx").doesNotContain("Sort", "Seq Scan");
+        assertThat(perfumerPlan).contains("perfume_perfumer_price_idx").doesNotContain("Sort", "Seq Scan");
+        assertThat(genderPlan).contains("perfume_gender_price_idx").doesNotContain("Seq Scan");
+        assertThat(countryPlan).contains("perfume_country_price_idx").doesNotContain("Seq Scan");
+        assertThat(yearPlan).contains("perfume_year_price_idx").doesNotContain("Seq Scan");
+    }
+
+    private String explainFilter(PerfumeSearchRequest filter) {
+        perfumeRepository.findIdsByFilter(filter, List.of(), PageRequest.of(0, 15));
+        return explainLast(0, 15);
+    }
+
+    private static PerfumeSearchRequest filter(boolean sortByPrice) {
+        PerfumeSearchRequest filter = new PerfumeSearchRequest();
+        filter.setSortByPrice(sortByPrice);
+        return filter;
+    }
+
+    private String explainLast(Object... parameters) {
+        return String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + SqlCapture.last(), String.class, parameters));
+    }
+
+    public static class SqlCapture implements StatementInspector {
+        private static final ThreadLocal<String> LAST = new ThreadLocal<>();
+
+        static String last() {
+            return LAST.get();
+        }
+
+        @Override
+        public String inspect(String sql) {
+            LAST.set(sql);
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.demo.service.Impl;
+
+import com.example.demo.security.oauth2.GoogleOAuth2UserInfo;
+import com.example.demo.service.AuthenticationService;
+import com.example.demo.service.UserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class AuthenticationServiceImplTests {
+
+    private static final String EMAIL = "authentication-tests@example.com";
+
+    @Autowired
+    private AuthenticationService authenticationService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void deleteUser() {
+        jdbcTemplate.update("DELETE FROM user_role WHERE user_id IN (SELECT id FROM users WHERE email = ?)", EMAIL);
+        jdbcTemplate.update("DELETE FROM users WHERE email = ?", EMAIL);
+    }
+
+    @Test
+    void oauth2SignUpRefreshesTheCachedUserTotal() {
+        long before = userService.countUsers();
+
+        authenticationService.registerOauth2User("google", new GoogleOAuth2UserInfo(Map.of(
+                "sub", "1", "email", EMAIL, "given_name", "First", "family_name", "Last")));
+
+        assertThat(userService.countUsers()).isEqualTo(before + 1);
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.demo.service.Impl;
+
+import com.example.demo.enums.ExportFormat;
+import com.example.demo.service.ExportService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class ExportServiceImplTests {
+
+    private static final String EMAIL = "export-tests@example.com";
+    private static final int ORDERS = 100_000;
+    private static final long MAX_RETAINED_BYTES = 16L * 1_048_576;
+
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeAll
+    static void insertOrders(@Autowired JdbcTemplate jdbcTemplate) {
+        List<Object[]> rows = new ArrayList<>(ORDERS);
+        for (int i = 0; i < ORDERS; i++) {
+            rows.add(new Object[]{10_000_000L + i, "Street " + i, "Paris, France", EMAIL, "First " + i, "Last", "+33 1 23", 75000, 10.5 + i});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO orders (id, address, city, date, email, first_name, last_name, phone_number, post_index, total_price) " +
+                "VALUES (?, ?, ?, DATE '2023-06-01', ?, ?, ?, ?, ?, ?)", rows);
+    }
+
+    @AfterAll
+    static void deleteOrders(@Autowired JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.update("DELETE FROM orders WHERE email = ?", EMAIL);
+    }
+
+    @Test
+    void exportsOrdersAsCsvWithHeader() throws Exception {
+        long total = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM orders", Long.class);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        long exported = exportService.exportOrders(ExportFormat.CSV, output);
+
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(exported).isEqualTo(total);
+        assertThat(lines).hasSize((int) total + 1);
+        assertThat(lines[0]).isEqualTo("id,date,totalPrice,firstName,lastName,email,phoneNumber,city,address,postIndex");
+        assertThat(lines[lines.length - 1])
+                .isEqualTo("10099999,2023-06-01,100009.5,\"First 99999\",Last,export-tests@example.com,\"+33 1 23\",\"Paris, France\",\"Street 99999\",75000");
+    }
+
+    @Test
+    void exportsUsersAndPerfumesAsNdjson() throws Exception {
+        ByteArrayOutputStream users = new ByteArrayOutputStream();
+        ByteArrayOutputStream perfumes = new ByteArrayOutputStream();
+
+        long exportedUsers = exportService.exportUsers(ExportFormat.NDJSON, users);
+        long exportedPerfumes = exportService.exportPerfumes(ExportFormat.NDJSON, perfumes);
+
+        String[] userLines = users.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(userLines).hasSize((int) exportedUsers);
+        JsonNode user = objectMapper.readTree(userLines[0]);
+        assertThat(user.has("email")).isTrue();
+        assertThat(user.has("password")).isFalse();
+        assertThat(perfumes.toString(StandardCharsets.UTF_8).split("\n")).hasSize((int) exportedPerfumes);
+        assertThat(exportedPerfumes).isEqualTo(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM perfume", Long.class));
+    }
+
+    @Test
+    void streamsOrdersWithoutHoldingThemInMemory() throws Exception {
+        HeapSamplingOutputStream output = new HeapSamplingOutputStream();
+
+        long exported = exportService.exportOrders(ExportFormat.NDJSON, output);
+
+        assertThat(exported).isGreaterThanOrEqualTo(ORDERS);
+        assertThat(output.lines).isEqualTo(exported);
+        assertThat(output.peak).isLessThan(MAX_RETAINED_BYTES);
+    }
+
+    private static long usedHeap() {
+        System.gc();
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static final class HeapSamplingOutputStream extends OutputStream {
+        private final long baseline = usedHeap();
+        private long lines;
+        private long peak;
+
+        @Override
+        public void write(int b) {
+            if (b == '\n' && ++lines % 10_000 == 0) {
+                peak = Math.max(peak, usedHeap() - baseline);
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            for (int i = off; i < off + len; i++) {
+                write(b[i]);
+            }
+        }
+    }
+}
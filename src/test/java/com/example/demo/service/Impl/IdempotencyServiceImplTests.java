@@ -0,0 +1,237 @@
+package com.example.demo.service.Impl;
+
+import com.example.demo.dto.order.OrderRequest;
+import com.example.demo.dto.order.OrderResponse;
+import com.example.demo.exception.ApiRequestException;
+import com.example.demo.mapper.OrderMapper;
+import com.example.demo.service.IdempotencyService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.validation.BeanPropertyBindingResult;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class IdempotencyServiceImplTests {
+
+    private static final String EMAIL = "idempotency-tests@example.com";
+    private static final String OTHER_USER = "idempotency-tests-other@example.com";
+    private static final long PERFUME_ID = 9_300_001L;
+    private static final int THREADS = 8;
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private OrderMapper orderMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void insertPerfume() {
+        jdbcTemplate.update("INSERT INTO perfume (id, perfume_title, perfumer, price, stock) VALUES (?, 'Idempotent', 'Idempotency Tests', 50, 10)", PERFUME_ID);
+    }
+
+    @AfterEach
+    void deleteOrders() {
+        jdbcTemplate.update("DELETE FROM idempotency_key WHERE key LIKE ? OR key LIKE ?", EMAIL + ":%", OTHER_USER + ":%");
+        jdbcTemplate.update("DELETE FROM mail_outbox WHERE recipient = ?", EMAIL);
+        jdbcTemplate.update("DELETE FROM orders_order_items WHERE order_id IN (SELECT id FROM orders WHERE email = ?)", EMAIL);
+        jdbcTemplate.update("DELETE FROM order_item WHERE perfume_id = ?", PERFUME_ID);
+        jdbcTemplate.update("DELETE FROM orders WHERE email = ?", EMAIL);
+        jdbcTemplate.update("DELETE FROM perfume WHERE id = ?", PERFUME_ID);
+    }
+
+    @Test
+    void placesARetriedOrderOnce() {
+        String key = newKey();
+        OrderRequest request = orderRequest();
+
+        OrderResponse first = orderMapper.postOrder(request, EMAIL, key, new BeanPropertyBindingResult(request, "order"));
+        OrderResponse retry = orderMapper.postOrder(orderRequest(), EMAIL, key, new BeanPropertyBindingResult(request, "order"));
+
+        assertThat(retry.getId()).isEqualTo(first.getId());
+        assertThat(retry.getDate()).isEqualTo(first.getDate());
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM orders WHERE email = ?", Integer.class, EMAIL)).isOne();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM mail_outbox WHERE recipient = ?", Integer.class, EMAIL)).isOne();
+        assertThat(jdbcTemplate.queryForObject("SELECT stock FROM perfume WHERE id = ?", Integer.class, PERFUME_ID)).isEqualTo(8);
+    }
+
+    @Test
+    void runsConcurrentDuplicatesOnce() throws Exception {
+        String key = newKey();
+        AtomicInteger executions = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<String>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < THREADS; i++) {
+                results.add(executor.submit(() -> idempotencyService.execute(EMAIL, key, "request", String.class, () -> {
+                    sleep(200);
+                    return "response-" + executions.incrementAndGet();
+                })));
+            }
+            for (Future<String> result : results) {
+                assertThat(result.get()).isEqualTo("response-1");
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertThat(executions).hasValue(1);
+    }
+
+    @Test
+    void waitsForADuplicateRunningOnAnotherInstance() throws Exception {
+        String key = newKey();
+        String otherResponse = idempotencyService.execute(EMAIL, newKey(), "request", String.class, () -> "other instance");
+        CountDownLatch claimed = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        ExecutorService otherInstance = Executors.newSingleThreadExecutor();
+        ExecutorService thisInstance = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> firstRequest = otherInstance.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.update("INSERT INTO idempotency_key (key, request_hash, response, expires_at) " +
+                        "SELECT ?, request_hash, response, expires_at FROM idempotency_key WHERE key LIKE ? LIMIT 1", EMAIL + ":" + key, EMAIL + ":%");
+                claimed.countDown();
+                await(commit);
+            }));
+            claimed.await(10, TimeUnit.SECONDS);
+            Future<String> duplicate = thisInstance.submit(() ->
+                    idempotencyService.execute(EMAIL, key, "request", String.class, () -> "executed twice"));
+
+            sleep(300);
+            assertThat(duplicate.isDone()).isFalse();
+            commit.countDown();
+            firstRequest.get();
+
+            assertThat(duplicate.get(10, TimeUnit.SECONDS)).isEqualTo(otherResponse);
+        } finally {
+            otherInstance.shutdown();
+            thisInstance.shutdown();
+        }
+    }
+
+    @Test
+    void runsAgainAfterAFailureAndRejectsADifferentRequest() {
+        String key = newKey();
+
+        assertThatThrownBy(() -> idempotencyService.execute(EMAIL, key, "request", String.class, () -> {
+            throw new ApiRequestException("Not enough perfumes in stock.", HttpStatus.CONFLICT);
+        })).isInstanceOf(ApiRequestException.class);
+        assertThat(idempotencyService.execute(EMAIL, key, "request", String.class, () -> "second attempt")).isEqualTo("second attempt");
+
+        assertThatThrownBy(() -> idempotencyService.execute(EMAIL, key, "another request", String.class, () -> "third attempt"))
+                .isInstanceOfSatisfying(ApiRequestException.class, e -> assertThat(e.getStatus()).isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY));
+    }
+
+    @Test
+    void deletesExpiredKeys() {
+        String expired = newKey();
+        idempotencyService.execute(EMAIL, expired, "request", String.class, () -> "expired");
+        idempotencyService.execute(EMAIL, newKey(), "request", String.class, () -> "fresh");
+        jdbcTemplate.update("UPDATE idempotency_key SET expires_at = now() - interval '1 minute' WHERE key = ?", EMAIL + ":" + expired);
+
+        assertThat(idempotencyService.deleteExpiredKeys()).isGreaterThanOrEqualTo(1);
+
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM idempotency_key WHERE key LIKE ?", Integer.class, EMAIL + ":%")).isOne();
+    }
+
+    @Test
+    void keepsTheKeysOfDifferentUsersApartAndOnlyAcceptsUuids() {
+        String key = newKey();
+
+        assertThat(idempotencyService.execute(EMAIL, key, "request", String.class, () -> "first user")).isEqualTo("first user");
+        assertThat(idempotencyService.execute(OTHER_USER, key, "another request", String.class, () -> "second user")).isEqualTo("second user");
+        assertThat(idempotencyService.execute(EMAIL, key.toUpperCase(), "request", String.class, () -> "executed twice")).isEqualTo("first user");
+        assertThatThrownBy(() -> idempotencyService.execute(EMAIL, "order-1", "request", String.class, () -> "not a uuid"))
+                .isInstanceOfSatisfying(ApiRequestException.class, e -> assertThat(e.getStatus()).isEqualTo(HttpStatus.BAD_REQUEST));
+    }
+
+    @Test
+    void givesUpWaitingForASlowDuplicate() throws Exception {
+        Object target = AopTestUtils.getUltimateTargetObject(idempotencyService);
+        Object waitTimeout = ReflectionTestUtils.getField(target, "waitTimeout");
+        ReflectionTestUtils.setField(target, "waitTimeout", Duration.ofMillis(200));
+        String key = newKey();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<String> first = executor.submit(() -> idempotencyService.execute(EMAIL, key, "request", String.class, () -> {
+                started.countDown();
+                await(finish);
+                return "first";
+            }));
+            started.await(10, TimeUnit.SECONDS);
+
+            assertThatThrownBy(() -> idempotencyService.execute(EMAIL, key, "request", String.class, () -> "executed twice"))
+                    .isInstanceOfSatisfying(ApiRequestException.class, e -> assertThat(e.getStatus()).isEqualTo(HttpStatus.CONFLICT));
+            finish.countDown();
+            assertThat(first.get(10, TimeUnit.SECONDS)).isEqualTo("first");
+        } finally {
+            finish.countDown();
+            executor.shutdown();
+            ReflectionTestUtils.setField(target, "waitTimeout", waitTimeout);
+        }
+        assertThat(idempotencyService.execute(EMAIL, key, "request", String.class, () -> "executed twice")).isEqualTo("first");
+    }
+
+    private OrderRequest orderRequest() {
+        OrderRequest request = new OrderRequest();
+        request.setTotalPrice(100.0);
+        request.setPerfumesId(Map.of(PERFUME_ID, 2L));
+        request.setFirstName("Idempotency");
+        request.setLastName("Tests");
+        request.setCity("Paris");
+        request.setAddress("Street 1");
+        request.setEmail(EMAIL);
+        request.setPhoneNumber("+33 1 23");
+        request.setPostIndex(75000);
+        return request;
+    }
+
+    private static String newKey() {
+        return UUID.randomUUID().toString();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.demo.service.Impl;
+
+import com.example.demo.dto.order.StockReservationResponse;
+import com.example.demo.exception.ApiRequestException;
+import com.example.demo.service.InventoryService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class InventoryServiceImplTests {
+
+    private static final long HOT_PERFUME = 9_100_001L;
+    private static final long SECOND_PERFUME = 9_100_002L;
+    private static final long UNTRACKED_PERFUME = 9_100_003L;
+    private static final String OWNER = "inventory-tests@example.com";
+    private static final int STOCK = 200;
+    private static final int THREADS = 16;
+    private static final int ATTEMPTS_PER_THREAD = 50;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void insertPerfumes() {
+        jdbcTemplate.update("INSERT INTO perfume (id, perfume_title, perfumer, price, stock) VALUES (?, 'Hot', 'Inventory Tests', 100, ?)", HOT_PERFUME, STOCK);
+        jdbcTemplate.update("INSERT INTO perfume (id, perfume_title, perfumer, price, stock) VALUES (?, 'Second', 'Inventory Tests', 100, 10)", SECOND_PERFUME);
+        jdbcTemplate.update("INSERT INTO perfume (id, perfume_title, perfumer, price) VALUES (?, 'Untracked', 'Inventory Tests', 100)", UNTRACKED_PERFUME);
+    }
+
+    @AfterEach
+    void deletePerfumes() {
+        jdbcTemplate.update("DELETE FROM perfume WHERE perfumer = 'Inventory Tests'");
+    }
+
+    @Test
+    void neverOversellsAHotPerfume() throws Exception {
+        List<Callable<Boolean>> checkouts = new ArrayList<>();
+        for (int i = 0; i < THREADS * ATTEMPTS_PER_THREAD; i++) {
+            String owner = "inventory-tests-" + i + "@example.com";
+            checkouts.add(() -> {
+                try {
+                    inventoryService.reserve(owner, Map.of(HOT_PERFUME, 1L));
+                    return true;
+                } catch (ApiRequestException e) {
+                    assertThat(e.getStatus()).isEqualTo(HttpStatus.CONFLICT);
+                    return false;
+                }
+            });
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        int reserved = 0;
+        try {
+            for (Future<Boolean> result : executor.invokeAll(checkouts)) {
+                reserved += result.get() ? 1 : 0;
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertThat(reserved).isEqualTo(STOCK);
+        assertThat(stock(HOT_PERFUME)).isZero();
+        assertThat(jdbcTemplate.queryForObject("SELECT SUM(quantity) FROM stock_reservation WHERE perfume_id = ?", Long.class, HOT_PERFUME))
+                .isEqualTo(STOCK);
+    }
+
+    @Test
+    void checkoutKeepsReservedUnitsAndSettlesTheDifference() {
+        StockReservationResponse reservation = inventoryService.reserve(OWNER, Map.of(HOT_PERFUME, 3L, SECOND_PERFUME, 2L));
+        assertThat(stock(HOT_PERFUME)).isEqualTo(STOCK - 3);
+        assertThat(stock(SECOND_PERFUME)).isEqualTo(8);
+
+        inventoryService.checkout(OWNER, reservation.getReservationId(), Map.of(HOT_PERFUME, 4L, UNTRACKED_PERFUME, 5L));
+
+        assertThat(stock(HOT_PERFUME)).isEqualTo(STOCK - 4);
+        assertThat(stock(SECOND_PERFUME)).isEqualTo(10);
+        assertThat(stock(UNTRACKED_PERFUME)).isNull();
+        assertThat(reservations()).isZero();
+    }
+
+    @Test
+    void rollsBackTheWholeCartWhenOnePerfumeIsSoldOut() {
+        assertThatThrownBy(() -> inventoryService.checkout(null, null, Map.of(HOT_PERFUME, 1L, SECOND_PERFUME, 11L)))
+                .isInstanceOfSatisfying(ApiRequestException.class, e -> assertThat(e.getStatus()).isEqualTo(HttpStatus.CONFLICT));
+        assertThatThrownBy(() -> inventoryService.checkout(null, null, Map.of(HOT_PERFUME, -1L)))
+                .isInstanceOfSatisfying(ApiRequestException.class, e -> assertThat(e.getStatus()).isEqualTo(HttpStatus.BAD_REQUEST));
+        assertThatThrownBy(() -> inventoryService.reserve(OWNER, Map.of(HOT_PERFUME, 1L, 9_100_999L, 1L)))
+                .isInstanceOfSatisfying(ApiRequestException.class, e -> assertThat(e.getStatus()).isEqualTo(HttpStatus.NOT_FOUND));
+
+        assertThat(stock(HOT_PERFUME)).isEqualTo(STOCK);
+        assertThat(stock(SECOND_PERFUME)).isEqualTo(10);
+        assertThat(reservations()).isZero();
+    }
+
+    @Test
+    void returnsExpiredAndReleasedReservationsToStock() {
+        StockReservationResponse expired = inventoryService.reserve(OWNER, Map.of(HOT_PERFUME, 5L));
+        StockReservationResponse released = inventoryService.reserve(OWNER, Map.of(SECOND_PERFUME, 4L));
+        inventoryService.reserve(OWNER, Map.of(HOT_PERFUME, 1L));
+        jdbcTemplate.update("UPDATE stock_reservation SET expires_at = now() - interval '1 minute' WHERE reservation_id = ?", expired.getReservationId());
+
+        inventoryService.releaseExpiredReservations();
+        assertThatThrownBy(() -> inventoryService.release("someone-else@example.com", released.getReservationId()))
+                .isInstanceOfSatisfying(ApiRequestException.class, e -> assertThat(e.getStatus()).isEqualTo(HttpStatus.NOT_FOUND));
+        inventoryService.release(OWNER, released.getReservationId());
+
+        assertThat(stock(HOT_PERFUME)).isEqualTo(STOCK - 1);
+        assertThat(stock(SECOND_PERFUME)).isEqualTo(10);
+        assertThat(inventoryService.restock(SECOND_PERFUME, 5)).isEqualTo(15);
+        assertThat(inventoryService.restock(UNTRACKED_PERFUME, 5)).isEqualTo(5);
+    }
+
+    @Test
+    void capsReservationsPerUser() {
+        assertThatThrownBy(() -> inventoryService.reserve(OWNER, Map.of(HOT_PERFUME, 11L)))
+                .isInstanceOfSatisfying(ApiRequestException.class, e -> assertThat(e.getStatus()).isEqualTo(HttpStatus.BAD_REQUEST));
+        for (int i = 0; i < 3; i++) {
+            inventoryService.reserve(OWNER, Map.of(HOT_PERFUME, 10L));
+        }
+
+        assertThatThrownBy(() -> inventoryService.reserve(OWNER, Map.of(HOT_PERFUME, 1L)))
+                .isInstanceOfSatisfying(ApiRequestException.class, e -> assertThat(e.getStatus()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS));
+        assertThat(stock(HOT_PERFUME)).isEqualTo(STOCK - 30);
+        inventoryService.reserve("another-user@example.com", Map.of(HOT_PERFUME, 1L));
+        assertThat(stock(HOT_PERFUME)).isEqualTo(STOCK - 31);
+    }
+
+    private Integer stock(long perfumeId) {
+        return jdbcTemplate.queryForObject("SELECT stock FROM perfume WHERE id = ?", Integer.class, perfumeId);
+    }
+
+    private int reservations() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM stock_reservation sr JOIN perfume p ON p.id = sr.perfume_id WHERE p.perfumer = 'Inventory Tests'", Integer.class);
+    }
+}
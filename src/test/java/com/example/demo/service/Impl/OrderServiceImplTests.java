@@ -0,0 +1,171 @@
+package com.example.demo.service.Impl;
+
+import com.example.demo.domain.Order;
+import com.example.demo.exception.ApiRequestException;
+import com.example.demo.service.OrderService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class OrderServiceImplTests {
+
+    private static final String EMAIL = "order-tests@example.com";
+    private static final long FIRST_PERFUME = 9_200_001L;
+    private static final int CART_LINES = 20;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void insertPerfumes() {
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < CART_LINES; i++) {
+            rows.add(new Object[]{FIRST_PERFUME + i, "Perfume " + i, 10 + i});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO perfume (id, perfume_title, perfumer, price, stock) VALUES (?, ?, 'Order Tests', ?, 100)", rows);
+    }
+
+    @AfterEach
+    void deleteOrders() {
+        jdbcTemplate.update("DELETE FROM mail_outbox WHERE recipient = ?", EMAIL);
+        jdbcTemplate.update("DELETE FROM orders_order_items WHERE order_id IN (SELECT id FROM orders WHERE email = ?)", EMAIL);
+        jdbcTemplate.update("DELETE FROM order_item WHERE perfume_id IN (SELECT id FROM perfume WHERE perfumer = 'Order Tests')");
+        jdbcTemplate.update("DELETE FROM orders WHERE email = ?", EMAIL);
+        jdbcTemplate.update("DELETE FROM perfume WHERE perfumer = 'Order Tests'");
+    }
+
+    @Test
+    void postsAnOrderInAConstantNumberOfStatements() {
+        StatementCounter.start();
+        orderService.postOrder(newOrder(), cart(1), null, null);
+        int singleLine = StatementCounter.stop();
+
+        StatementCounter.start();
+        Order order = orderService.postOrder(newOrder(), cart(CART_LINES), null, null);
+        int fullCart = StatementCounter.stop();
+
+        assertThat(fullCart).isEqualTo(singleLine).isLessThanOrEqualTo(8);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM orders_order_items ooi JOIN order_item oi ON oi.id = ooi.order_items_id " +
+                "WHERE ooi.order_id = ?", Integer.class, order.getId())).isEqualTo(CART_LINES);
+        assertThat(jdbcTemplate.queryForObject("SELECT SUM(oi.amount) FROM order_item oi JOIN orders_order_items ooi ON oi.id = ooi.order_items_id " +
+                "WHERE ooi.order_id = ?", Long.class, order.getId())).isEqualTo(2 * (10L + 29L) * CART_LINES / 2);
+        assertThat(jdbcTemplate.queryForObject("SELECT stock FROM perfume WHERE id = ?", Integer.class, FIRST_PERFUME)).isEqualTo(100 - 2 - 2);
+        assertThat(orderService.getOrderById(order.getId()).getOrderItems()).hasSize(CART_LINES);
+    }
+
+    @Test
+    void rejectsUnknownPerfumesBeforeTakingStock() {
+        Map<Long, Long> perfumesId = cart(2);
+        perfumesId.put(FIRST_PERFUME - 1, 1L);
+
+        assertThatThrownBy(() -> orderService.postOrder(newOrder(), perfumesId, null, null))
+                .isInstanceOfSatisfying(ApiRequestException.class, e -> assertThat(e.getStatus()).isEqualTo(HttpStatus.NOT_FOUND));
+        assertThat(jdbcTemplate.queryForObject("SELECT SUM(stock) FROM perfume WHERE perfumer = 'Order Tests'", Integer.class))
+                .isEqualTo(100 * CART_LINES);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM orders WHERE email = ?", Integer.class, EMAIL)).isZero();
+    }
+
+    @Test
+    void rejectsInvalidCartsBeforeLookingUpPerfumes() {
+        Map<Long, Long> zeroQuantity = cart(1);
+        zeroQuantity.put(FIRST_PERFUME + 1, 0L);
+        Map<Long, Long> missingQuantity = cart(1);
+        missingQuantity.put(FIRST_PERFUME + 1, null);
+
+        for (Map<Long, Long> perfumesId : Arrays.asList(null, Map.<Long, Long>of(), zeroQuantity, missingQuantity)) {
+            assertThatThrownBy(() -> orderService.postOrder(newOrder(), perfumesId, null, null))
+                    .isInstanceOfSatisfying(ApiRequestException.class, e -> assertThat(e.getStatus()).isEqualTo(HttpStatus.BAD_REQUEST));
+        }
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM orders WHERE email = ?", Integer.class, EMAIL)).isZero();
+    }
+
+    private Map<Long, Long> cart(int lines) {
+        Map<Long, Long> perfumesId = new LinkedHashMap<>();
+        for (int i = 0; i < lines; i++) {
+            perfumesId.put(FIRST_PERFUME + i, 2L);
+        }
+        return perfumesId;
+    }
+
+    private Order newOrder() {
+        Order order = new Order();
+        order.setFirstName("Order");
+        order.setLastName("Tests");
+        order.setCity("Paris");
+        order.setAddress("Street 1");
+        order.setEmail(EMAIL);
+        order.setPhoneNumber("+33 1 23");
+        order.setPostIndex(75000);
+        order.setTotalPrice(100.0);
+        return order;
+    }
+
+    @TestConfiguration
+    static class StatementCounter {
+
+        private static final Set<String> EXECUTE_METHODS = Set.of("execute", "executeQuery", "executeUpdate", "executeLargeUpdate", "executeBatch");
+        private static final ThreadLocal<int[]> STATEMENTS = new ThreadLocal<>();
+
+        static void start() {
+            STATEMENTS.set(new int[1]);
+        }
+
+        static int stop() {
+            int statements = STATEMENTS.get()[0];
+            STATEMENTS.remove();
+            return statements;
+        }
+
+        @Bean
+        static BeanPostProcessor countingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource ? proxy(DataSource.class, bean) : bean;
+                }
+            };
+        }
+
+        private static Object proxy(Class<?> type, Object target) {
+            return Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+                int[] statements = STATEMENTS.get();
+                if (statements != null && EXECUTE_METHODS.contains(method.getName())) {
+                    statements[0]++;
+                }
+                Object result;
+                try {
+                    result = method.invoke(target, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+                Class<?> returnType = method.getReturnType();
+                boolean jdbcObject = returnType == java.sql.Connection.class || java.sql.Statement.class.isAssignableFrom(returnType);
+                return jdbcObject && result != null ? proxy(returnType, result) : result;
+            });
+        }
+    }
+}
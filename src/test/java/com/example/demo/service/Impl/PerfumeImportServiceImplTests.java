@@ -0,0 +1,174 @@
+package com.example.demo.service.Impl;
+
+import com.example.demo.domain.Perfume;
+import com.example.demo.dto.perfume.PerfumeImportEvent;
+import com.example.demo.enums.ImportEventType;
+import com.example.demo.enums.ImportFormat;
+import com.example.demo.enums.SearchPerfume;
+import com.example.demo.repository.PerfumeRepository;
+import com.example.demo.service.PerfumeImportService;
+import com.example.demo.service.catalog.CatalogVersion;
+import com.example.demo.service.search.PerfumeIndexInitializer;
+import com.example.demo.service.search.PerfumeSearchIndex;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest(properties = "perfume.import.batch-size=500")
+class PerfumeImportServiceImplTests {
+
+    private static final String PERFUMER = "Import Tests";
+    private static final String CSV_HEADER = "perfumeTitle,perfumer,year,country,perfumeGender,fragranceTopNotes,fragranceMiddleNotes,fragranceBaseNotes,price,volume,type\n";
+
+    @Autowired
+    private PerfumeImportService perfumeImportService;
+
+    @Autowired
+    private PerfumeRepository perfumeRepository;
+
+    @Autowired
+    private PerfumeSearchIndex perfumeSearchIndex;
+
+    @Autowired
+    private PerfumeIndexInitializer perfumeIndexInitializer;
+
+    @Autowired
+    private CatalogVersion catalogVersion;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @AfterEach
+    void deleteImportedPerfumes() {
+        jdbcTemplate.update("DELETE FROM perfume WHERE perfumer = ?", PERFUMER);
+        perfumeIndexInitializer.rebuildIndexes();
+    }
+
+    @Test
+    void importsCsvInChunksAndReportsRejectedRows() {
+        StringBuilder csv = new StringBuilder(CSV_HEADER);
+        for (int i = 1; i <= 1_200; i++) {
+            if (i == 7) {
+                csv.append("\"Broken, Price\",").append(PERFUMER).append(",2020,France,female,Lemon,Rose,Musk,abc,50,Eau de parfum\n");
+            } else if (i == 900) {
+                csv.append(",").append(PERFUMER).append(",2020,France,female,Lemon,Rose,Musk,10,50,Eau de parfum\n");
+            } else {
+                csv.append(csvRow("Imported " + i, i));
+            }
+        }
+        List<PerfumeImportEvent> events = new ArrayList<>();
+
+        PerfumeImportEvent completed = perfumeImportService.importPerfumes(ImportFormat.CSV, stream(csv.toString()), events::add);
+
+        assertThat(completed.getProcessed()).isEqualTo(1_200);
+        assertThat(completed.getImported()).isEqualTo(1_198);
+        assertThat(completed.getFailed()).isEqualTo(2);
+        assertThat(events).filteredOn(event -> event.getType() == ImportEventType.ERROR)
+                .extracting(PerfumeImportEvent::getRow, PerfumeImportEvent::getField)
+                .containsExactly(tuple(7L, "price"), tuple(900L, "perfumeTitle"));
+        assertThat(events).filteredOn(event -> event.getType() == ImportEventType.PROGRESS)
+                .extracting(PerfumeImportEvent::getImported)
+                .containsExactly(500L, 1_000L, 1_198L);
+        assertThat(events.get(events.size() - 1)).isSameAs(completed);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM perfume WHERE perfumer = ?", Long.class, PERFUMER)).isEqualTo(1_198);
+        assertThat(perfumeSearchIndex.search(SearchPerfume.PERFUME_TITLE, "Imported 1199", Pageable.unpaged()).getTotalElements()).isEqualTo(1);
+    }
+
+    @Test
+    void indexesCommittedChunksWhenTheClientGoesAway() {
+        StringBuilder csv = new StringBuilder(CSV_HEADER);
+        for (int i = 1; i <= 1_200; i++) {
+            csv.append(csvRow("Interrupted " + i, i));
+        }
+        long version = catalogVersion.current();
+
+        assertThatThrownBy(() -> perfumeImportService.importPerfumes(ImportFormat.CSV, stream(csv.toString()), event -> {
+            if (event.getType() == ImportEventType.PROGRESS) {
+                throw new UncheckedIOException(new IOException("Broken pipe"));
+            }
+        })).isInstanceOf(UncheckedIOException.class);
+
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM perfume WHERE perfumer = ?", Long.class, PERFUMER)).isEqualTo(500);
+        assertThat(perfumeSearchIndex.search(SearchPerfume.BRAND, PERFUMER, Pageable.unpaged()).getTotalElements()).isEqualTo(500);
+        assertThat(catalogVersion.current()).isNotEqualTo(version);
+    }
+
+    @Test
+    void importsNdjsonAndSkipsMalformedLines() {
+        String ndjson = ndjsonRow("First", 1) + "{\"perfumeTitle\": \"Unclosed\"\n" + "\n" + ndjsonRow("Second", 2);
+        List<PerfumeImportEvent> events = new ArrayList<>();
+
+        PerfumeImportEvent completed = perfumeImportService.importPerfumes(ImportFormat.NDJSON, stream(ndjson), events::add);
+
+        assertThat(completed.getImported()).isEqualTo(2);
+        assertThat(events).filteredOn(event -> event.getType() == ImportEventType.ERROR)
+                .extracting(PerfumeImportEvent::getRow).containsExactly(2L);
+        assertThat(perfumeRepository.findByPerfumerOrderByPriceDesc(PERFUMER)).extracting(Perfume::getPerfumeTitle)
+                .containsExactly("Second", "First");
+    }
+
+    @Test
+    @Tag("benchmark")
+    void benchmarkAgainstJpaSaveAll() {
+        int rows = 20_000;
+        StringBuilder csv = new StringBuilder(CSV_HEADER);
+        for (int i = 1; i <= rows; i++) {
+            csv.append(csvRow("Bulk " + i, i % 300));
+        }
+        long start = System.nanoTime();
+        PerfumeImportEvent completed = perfumeImportService.importPerfumes(ImportFormat.CSV, stream(csv.toString()), event -> {
+        });
+        long importNanos = System.nanoTime() - start;
+        assertThat(completed.getImported()).isEqualTo(rows);
+
+        int jpaRows = 2_000;
+        List<Perfume> perfumes = new ArrayList<>(jpaRows);
+        for (int i = 1; i <= jpaRows; i++) {
+            Perfume perfume = new Perfume();
+            perfume.setPerfumeTitle("Jpa " + i);
+            perfume.setPerfumer(PERFUMER);
+            perfume.setPrice(i % 300);
+            perfumes.add(perfume);
+        }
+        start = System.nanoTime();
+        transactionTemplate.executeWithoutResult(status -> perfumeRepository.saveAll(perfumes));
+        long jpaNanos = System.nanoTime() - start;
+
+        System.out.printf("PerfumeImportService: %d CSV rows imported in %d ms (%.0f rows/s), JPA saveAll %d rows in %d ms (%.0f rows/s)%n",
+                rows, importNanos / 1_000_000, rows / (importNanos / 1e9), jpaRows, jpaNanos / 1_000_000, jpaRows / (jpaNanos / 1e9));
+        assertThat(importNanos / rows).isLessThan(jpaNanos / jpaRows);
+    }
+
+    private static String csvRow(String title, int price) {
+        return title + "," + PERFUMER + ",2020,France,female,\"Lemon, Bergamot\",Rose,Musk," + price + ",50,Eau de parfum\n";
+    }
+
+    private static String ndjsonRow(String title, int price) {
+        return "{\"perfumeTitle\":\"" + title + "\",\"perfumer\":\"" + PERFUMER + "\",\"year\":2020,\"country\":\"France\"," +
+                "\"perfumeGender\":\"male\",\"fragranceTopNotes\":\"Lemon\",\"fragranceMiddleNotes\":\"Rose\"," +
+                "\"fragranceBaseNotes\":\"Musk\",\"price\":" + price + ",\"volume\":\"50\",\"type\":\"Eau de parfum\"}\n";
+    }
+
+    private static ByteArrayInputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.demo.service.Impl;
+
+import com.example.demo.configuration.CacheConfiguration;
+import com.example.demo.repository.PerfumeRepository;
+import com.example.demo.repository.projection.PerfumeProjection;
+import com.example.demo.service.PerfumeService;
+import com.example.demo.service.catalog.CatalogVersion;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest
+class PerfumeServiceImplTests {
+
+    @Autowired
+    private PerfumeService perfumeService;
+
+    @Autowired
+    private CatalogVersion catalogVersion;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @MockBean
+    private PerfumeRepository perfumeRepository;
+
+    @BeforeEach
+    void setUp() {
+        catalogVersion.increment();
+    }
+
+    @Test
+    void concurrentMissesLoadOnce() throws Exception {
+        List<Long> perfumeIds = List.of(1L, 2L, 3L);
+        when(perfumeRepository.getPerfumesByIds(anyList())).thenAnswer(invocation -> {
+            Thread.sleep(100);
+            return List.of(mock(PerfumeProjection.class));
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<List<PerfumeProjection>>> results = new ArrayList<>();
+
+        for (int i = 0; i < 8; i++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                return perfumeService.getPerfumesByIds(perfumeIds);
+            }));
+        }
+        start.countDown();
+        for (Future<List<PerfumeProjection>> result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS)).hasSize(1);
+        }
+        executor.shutdown();
+
+        verify(perfumeRepository, times(1)).getPerfumesByIds(perfumeIds);
+    }
+
+    @Test
+    void catalogVersionBumpInvalidatesEntries() {
+        List<Long> perfumeIds = List.of(4L);
+        when(perfumeRepository.getPerfumesByIds(anyList())).thenReturn(List.of(mock(PerfumeProjection.class)));
+        double misses = cacheGets("miss");
+        double hits = cacheGets("hit");
+
+        perfumeService.getPerfumesByIds(perfumeIds);
+        perfumeService.getPerfumesByIds(perfumeIds);
+        catalogVersion.increment();
+        perfumeService.getPerfumesByIds(perfumeIds);
+
+        verify(perfumeRepository, times(2)).getPerfumesByIds(perfumeIds);
+        assertThat(cacheGets("miss") - misses).isEqualTo(2);
+        assertThat(cacheGets("hit") - hits).isEqualTo(1);
+    }
+
+    private double cacheGets(String result) {
+        return meterRegistry.get("cache.gets")
+                .tag("cache", CacheConfiguration.PERFUMES)
+                .tag("result", result)
+                .functionCounter()
+                .count();
+    }
+}
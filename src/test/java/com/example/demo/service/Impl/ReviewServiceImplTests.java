@@ -0,0 +1,139 @@
+package com.example.demo.service.Impl;
+
+import com.example.demo.domain.Review;
+import com.example.demo.exception.ApiRequestException;
+import com.example.demo.repository.projection.ReviewProjection;
+import com.example.demo.service.ReviewService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.offset;
+
+@SpringBootTest
+class ReviewServiceImplTests {
+
+    private static final long PERFUME_ID = 9_000_001L;
+    private static final String AUTHOR = "Review Tests";
+    private static final int THREADS = 8;
+    private static final int REVIEWS_PER_THREAD = 100;
+
+    @Autowired
+    private ReviewService reviewService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void insertPerfume() {
+        jdbcTemplate.update("INSERT INTO perfume (id, perfume_title, perfumer, price) VALUES (?, 'Review Tests', ?, 100)", PERFUME_ID, AUTHOR);
+    }
+
+    @AfterEach
+    void deleteReviews() {
+        jdbcTemplate.update("DELETE FROM review WHERE author = ?", AUTHOR);
+        jdbcTemplate.update("DELETE FROM perfume WHERE id = ?", PERFUME_ID);
+    }
+
+    @Test
+    void keepsRatingAggregatesExactUnderConcurrentReviews() throws Exception {
+        int[] stars = new int[6];
+        List<Callable<Review>> tasks = new ArrayList<>();
+        Random random = new Random(42);
+        for (int i = 0; i < THREADS * REVIEWS_PER_THREAD; i++) {
+            int rating = 1 + random.nextInt(5);
+            stars[rating]++;
+            tasks.add(() -> reviewService.addReviewToPerfume(review(rating), PERFUME_ID));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            for (Future<Review> future : executor.invokeAll(tasks)) {
+                assertThat(future.get().getId()).isNotNull();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        int reviews = tasks.size();
+        long ratingSum = 0;
+        for (int rating = 1; rating <= 5; rating++) {
+            ratingSum += (long) rating * stars[rating];
+        }
+        Map<String, Object> perfume = jdbcTemplate.queryForMap("SELECT * FROM perfume WHERE id = ?", PERFUME_ID);
+        assertThat(perfume.get("reviews_count")).isEqualTo(reviews);
+        assertThat(perfume.get("rating_sum")).isEqualTo(ratingSum);
+        assertThat((Double) perfume.get("perfume_rating")).isCloseTo((double) ratingSum / reviews, offset(1e-9));
+        assertThat(List.of(perfume.get("one_star_count"), perfume.get("two_star_count"), perfume.get("three_star_count"),
+                perfume.get("four_star_count"), perfume.get("five_star_count")))
+                .containsExactly(stars[1], stars[2], stars[3], stars[4], stars[5]);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM review WHERE perfume_id = ?", Integer.class, PERFUME_ID))
+                .isEqualTo(reviews);
+        assertThat(reviewService.getReviewsByPerfumeId(PERFUME_ID, Pageable.unpaged()).getTotalElements()).isEqualTo(reviews);
+    }
+
+    @Test
+    void pagesReviewsNewestFirstWithCursor() {
+        Random random = new Random(7);
+        for (int i = 0; i < 95; i++) {
+            Review review = reviewService.addReviewToPerfume(review(1 + random.nextInt(5)), PERFUME_ID);
+            jdbcTemplate.update("UPDATE review SET date = ? WHERE id = ?", LocalDate.of(2023, 1, 1).plusDays(random.nextInt(20)), review.getId());
+        }
+        List<Long> expected = jdbcTemplate.queryForList("SELECT id FROM review WHERE perfume_id = ? ORDER BY date DESC, id DESC", Long.class, PERFUME_ID);
+
+        Page<Review> first = reviewService.getReviewsByPerfumeId(PERFUME_ID, PageRequest.of(0, 20));
+        List<Long> walked = new ArrayList<>(first.map(Review::getId).getContent());
+        Slice<Review> page = first;
+        while (page.hasNext()) {
+            Review last = page.getContent().get(page.getContent().size() - 1);
+            page = reviewService.getReviewsByPerfumeIdAfter(PERFUME_ID, last.getDate(), last.getId(), PageRequest.of(0, 20));
+            page.forEach(review -> walked.add(review.getId()));
+        }
+
+        assertThat(first.getTotalElements()).isEqualTo(95);
+        assertThat(walked).isEqualTo(expected);
+        assertThat(reviewService.getReviewsByPerfumeId(PERFUME_ID, PageRequest.of(2, 20)).map(Review::getId).getContent())
+                .isEqualTo(expected.subList(40, 60));
+        List<ReviewProjection> top = reviewService.getTopReviews(PERFUME_ID);
+        assertThat(top).extracting(ReviewProjection::getId)
+                .isEqualTo(jdbcTemplate.queryForList("SELECT id FROM review WHERE perfume_id = ? ORDER BY rating DESC, date DESC, id DESC LIMIT 3",
+                        Long.class, PERFUME_ID));
+        assertThatThrownBy(() -> top.remove(0)).isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    void rejectsReviewsOfUnknownPerfumes() {
+        assertThatThrownBy(() -> reviewService.addReviewToPerfume(review(5), -1L))
+                .isInstanceOf(ApiRequestException.class);
+        assertThatThrownBy(() -> reviewService.getReviewsByPerfumeId(-1L, PageRequest.of(0, 20)))
+                .isInstanceOf(ApiRequestException.class);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM review WHERE author = ?", Integer.class, AUTHOR)).isZero();
+    }
+
+    private static Review review(int rating) {
+        Review review = new Review();
+        review.setAuthor(AUTHOR);
+        review.setMessage("Rated " + rating);
+        review.setRating(rating);
+        return review;
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.demo.service.broadcast;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ExecutorSubscribableChannel;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.messaging.StompSubProtocolHandler;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class BoundedSubProtocolWebSocketHandlerTests {
+
+    private static final int BUFFER_SIZE_LIMIT = 1_000;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void dropsOldestMessagesForSlowSessionsInsteadOfClosingThem() throws Exception {
+        BoundedSubProtocolWebSocketHandler handler = new BoundedSubProtocolWebSocketHandler(new ExecutorSubscribableChannel(),
+                new ExecutorSubscribableChannel(), meterRegistry);
+        handler.addProtocolHandler(new StompSubProtocolHandler());
+        handler.setSendTimeLimit(60_000);
+        handler.setSendBufferSizeLimit(BUFFER_SIZE_LIMIT);
+        handler.start();
+
+        CountDownLatch release = new CountDownLatch(1);
+        WebSocketSession slowSession = mock(WebSocketSession.class);
+        when(slowSession.getId()).thenReturn("slow");
+        when(slowSession.isOpen()).thenReturn(true);
+        doAnswer(invocation -> {
+            release.await();
+            return null;
+        }).when(slowSession).sendMessage(any());
+        handler.afterConnectionEstablished(slowSession);
+
+        Thread sender = new Thread(() -> handler.handleMessage(message("first")));
+        sender.start();
+        verify(slowSession, timeout(2_000)).sendMessage(any());
+        for (int i = 0; i < 100; i++) {
+            handler.handleMessage(message("x".repeat(100)));
+        }
+
+        verify(slowSession, never()).close(any());
+        assertThat(meterRegistry.get("websocket.sessions.overflows").counter().count()).isGreaterThan(0);
+        assertThat(meterRegistry.get("websocket.sessions.buffered").gauge().value()).isBetween(1.0, (double) BUFFER_SIZE_LIMIT);
+        release.countDown();
+        sender.join();
+        handler.stop();
+    }
+
+    private static Message<byte[]> message(String payload) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setSessionId("slow");
+        accessor.setSubscriptionId("sub-0");
+        accessor.setDestination("/topic/reviews/1");
+        return MessageBuilder.createMessage(payload.getBytes(StandardCharsets.UTF_8), accessor.getMessageHeaders());
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.demo.service.broadcast;
+
+import com.example.demo.dto.review.ReviewResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class ReviewBroadcasterTests {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void coalescesBurstsIntoOneFramePerTopic() {
+        SimpMessagingTemplate messagingTemplate = mock(SimpMessagingTemplate.class);
+        ReviewBroadcaster broadcaster = new ReviewBroadcaster(messagingTemplate, meterRegistry);
+
+        for (long i = 1; i <= 50; i++) {
+            broadcaster.publish(1L, review(i));
+        }
+        broadcaster.publish(2L, review(100L));
+        assertThat(meterRegistry.get("reviews.broadcast.queued").gauge().value()).isEqualTo(21);
+
+        ArgumentCaptor<Object> firstTopic = ArgumentCaptor.forClass(Object.class);
+        ArgumentCaptor<Object> secondTopic = ArgumentCaptor.forClass(Object.class);
+        verify(messagingTemplate, timeout(2_000)).convertAndSend(eq("/topic/reviews/1"), firstTopic.capture());
+        verify(messagingTemplate, timeout(2_000)).convertAndSend(eq("/topic/reviews/2"), secondTopic.capture());
+        verifyNoMoreInteractions(messagingTemplate);
+
+        assertThat((List<ReviewResponse>) firstTopic.getValue()).extracting(ReviewResponse::getId)
+                .containsExactlyElementsOf(List.of(31L, 32L, 33L, 34L, 35L, 36L, 37L, 38L, 39L, 40L,
+                        41L, 42L, 43L, 44L, 45L, 46L, 47L, 48L, 49L, 50L));
+        assertThat((List<ReviewResponse>) secondTopic.getValue()).extracting(ReviewResponse::getId).containsExactly(100L);
+        assertThat(meterRegistry.get("reviews.broadcast.frames").counter().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("reviews.broadcast.merged").counter().count()).isEqualTo(30);
+        assertThat(meterRegistry.get("reviews.broadcast.queued").gauge().value()).isZero();
+        assertThat(meterRegistry.get("reviews.broadcast.latency").timer().count()).isEqualTo(2);
+    }
+
+    private static ReviewResponse review(Long id) {
+        ReviewResponse review = new ReviewResponse();
+        review.setId(id);
+        review.setRating(5);
+        return review;
+    }
+}
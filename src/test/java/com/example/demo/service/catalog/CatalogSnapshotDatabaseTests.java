@@ -0,0 +1,120 @@
+package com.example.demo.service.catalog;
+
+import com.example.demo.domain.Perfume;
+import com.example.demo.dto.perfume.PerfumeSearchRequest;
+import com.example.demo.repository.PerfumeRepository;
+import com.example.demo.repository.PerfumeSpecifications;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+class CatalogSnapshotDatabaseTests {
+
+    @Autowired
+    private PerfumeRepository perfumeRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void filtersLikeTheCriteriaQuery() {
+        Random random = new Random(42);
+        CatalogSnapshot snapshot = snapshot(random, 5_000);
+        PageRequest pageable = PageRequest.of(1, 15);
+
+        for (int i = 0; i < 30; i++) {
+            PerfumeSearchRequest filter = CatalogSnapshotTests.randomFilter(random);
+            Page<Long> expected = criteria(filter, pageable);
+            Page<Long> page = snapshot.filter(filter, pageable);
+
+            assertThat(page.getTotalElements()).isEqualTo(expected.getTotalElements());
+            assertThat(page.getContent()).isEqualTo(expected.getContent());
+        }
+
+        List<Long> ranking = random.longs(100, 1_000_000, 1_005_000).boxed().distinct().toList();
+        for (int i = 0; i < 30; i++) {
+            PerfumeSearchRequest filter = CatalogSnapshotTests.randomFilter(random);
+            assertThat(snapshot.filter(filter, ranking, PageRequest.of(0, 15)).getContent())
+                    .isEqualTo(perfumeRepository.findIdsByFilter(filter, ranking, PageRequest.of(0, 15)));
+        }
+    }
+
+    @Test
+    @Tag("benchmark")
+    void benchmarkAgainstCriteriaFilterQuery() {
+        Random random = new Random(42);
+        CatalogSnapshot snapshot = snapshot(random, 20_000);
+
+        PerfumeSearchRequest[] filters = new PerfumeSearchRequest[30];
+        for (int i = 0; i < filters.length; i++) {
+            filters[i] = CatalogSnapshotTests.randomFilter(random);
+        }
+        PageRequest pageable = PageRequest.of(1, 15);
+        for (PerfumeSearchRequest filter : filters) {
+            criteria(filter, pageable);
+            snapshot.filter(filter, pageable);
+        }
+
+        long criteriaNanos = 0;
+        long snapshotNanos = 0;
+        for (PerfumeSearchRequest filter : filters) {
+            long start = System.nanoTime();
+            Page<Long> expected = criteria(filter, pageable);
+            criteriaNanos += System.nanoTime() - start;
+
+            start = System.nanoTime();
+            Page<Long> page = snapshot.filter(filter, pageable);
+            snapshotNanos += System.nanoTime() - start;
+
+            assertThat(page.getContent()).isEqualTo(expected.getContent());
+        }
+        System.out.printf("CatalogSnapshot: Criteria filter page + count %.1f us/query, bitmap filter %.1f us/query%n",
+                criteriaNanos / 1_000.0 / filters.length, snapshotNanos / 1_000.0 / filters.length);
+        assertThat(snapshotNanos).isLessThan(criteriaNanos);
+    }
+
+    private CatalogSnapshot snapshot(Random random, int rows) {
+        List<Perfume> generated = CatalogSnapshotTests.randomPerfumes(random, rows);
+        jdbcTemplate.batchUpdate("INSERT INTO perfume (id, perfume_title, perfumer, perfume_gender, country, type, volume, year, price) " +
+                        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                generated, 1_000, (statement, perfume) -> {
+                    statement.setLong(1, 1_000_000 + perfume.getId());
+                    statement.setString(2, "Perfume " + perfume.getId());
+                    statement.setString(3, perfume.getPerfumer());
+                    statement.setString(4, perfume.getPerfumeGender());
+                    statement.setString(5, perfume.getCountry());
+                    statement.setString(6, perfume.getType());
+                    statement.setString(7, perfume.getVolume());
+                    statement.setObject(8, perfume.getYear());
+                    statement.setObject(9, perfume.getPrice());
+                });
+        jdbcTemplate.execute("ANALYZE perfume");
+        List<Perfume> perfumes = perfumeRepository.findAll();
+        entityManager.clear();
+        CatalogSnapshot snapshot = new CatalogSnapshot();
+        snapshot.rebuild(perfumes);
+        return snapshot;
+    }
+
+    private Page<Long> criteria(PerfumeSearchRequest filter, PageRequest pageable) {
+        return new PageImpl<>(perfumeRepository.findIdsByFilter(filter, List.of(), pageable), pageable,
+                perfumeRepository.count(PerfumeSpecifications.byFilter(filter)));
+    }
+}
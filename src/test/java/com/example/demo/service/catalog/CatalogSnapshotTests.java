@@ -0,0 +1,246 @@
+package com.example.demo.service.catalog;
+
+import com.example.demo.domain.Perfume;
+import com.example.demo.dto.perfume.PerfumeSearchRequest;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static com.example.demo.service.search.PerfumeFixtures.catalogPerfume;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CatalogSnapshotTests {
+
+    private static final String[] PERFUMERS = {"Chanel", "Dior", "Guerlain", "Hugo Boss", "Versace", "Lancome", "Givenchy", "Armani"};
+    private static final String[] GENDERS = {"male", "female"};
+    private static final String[] COUNTRIES = {"France", "Italy", "Germany", "USA", "Spain"};
+    private static final String[] TYPES = {"Eau de parfum", "Eau de toilette", "Parfum"};
+    private static final String[] VOLUMES = {"30", "50", "100"};
+
+    @Test
+    void filtersAndSortsLikeTheDatabaseQuery() {
+        CatalogSnapshot snapshot = new CatalogSnapshot();
+        snapshot.rebuild(List.of(
+                catalogPerfume(1L, "Chanel", "female", 90),
+                catalogPerfume(2L, "Dior", "male", 40),
+                catalogPerfume(3L, "Chanel", "male", 60),
+                catalogPerfume(4L, "Chanel", "female", null),
+                catalogPerfume(5L, "Versace", "female", 60)));
+
+        assertThat(snapshot.filter(filter(List.of("Chanel"), null, null, null, false), PageRequest.of(0, 15)).getContent())
+                .containsExactly(1L, 3L, 4L);
+        assertThat(snapshot.filter(filter(List.of("Chanel"), null, null, null, true), PageRequest.of(0, 15)).getContent())
+                .containsExactly(3L, 1L, 4L);
+        assertThat(snapshot.filter(filter(null, List.of("female"), 50, 90, true), PageRequest.of(0, 15)).getContent())
+                .containsExactly(5L, 1L);
+        assertThat(snapshot.filter(filter(List.of("Unknown"), null, null, null, true), PageRequest.of(0, 15)).getContent())
+                .isEmpty();
+    }
+
+    @Test
+    void filtersByCountryTypeVolumeAndYear() {
+        CatalogSnapshot snapshot = new CatalogSnapshot();
+        snapshot.rebuild(List.of(
+                catalogPerfume(1L, "Chanel", "female", "France", "Parfum", "50", 1921, 90),
+                catalogPerfume(2L, "Dior", "male", "France", "Eau de toilette", "100", 2015, 40),
+                catalogPerfume(3L, "Versace", "male", "Italy", "Eau de toilette", "100", 2008, 60),
+                catalogPerfume(4L, "Chanel", "female", "France", "Eau de parfum", "100", null, 70)));
+
+        PerfumeSearchRequest french = filter(null, null, null, null, true);
+        french.setCountries(List.of("France"));
+        assertThat(snapshot.filter(french, PageRequest.of(0, 15)).getContent()).containsExactly(2L, 4L, 1L);
+
+        PerfumeSearchRequest toilette = filter(null, List.of("male"), null, null, false);
+        toilette.setTypes(List.of("Eau de toilette"));
+        toilette.setVolumes(List.of("100"));
+        assertThat(snapshot.filter(toilette, PageRequest.of(0, 15)).getContent()).containsExactly(3L, 2L);
+
+        PerfumeSearchRequest recent = filter(null, null, null, null, true);
+        recent.setYears(List.of(2000, 2020));
+        assertThat(snapshot.filter(recent, PageRequest.of(0, 15)).getContent()).containsExactly(2L, 3L);
+
+        PerfumeSearchRequest openRange = filter(null, null, null, null, true);
+        openRange.setYears(Arrays.asList(null, 2010));
+        openRange.setPrices(Arrays.asList(50, null));
+        assertThat(snapshot.filter(openRange, PageRequest.of(0, 15)).getContent()).containsExactly(3L, 1L);
+    }
+
+    @Test
+    void putsRankedPerfumesFirstWhenSortingByPopularity() {
+        CatalogSnapshot snapshot = new CatalogSnapshot();
+        snapshot.rebuild(List.of(
+                catalogPerfume(1L, "Chanel", "female", 90),
+                catalogPerfume(2L, "Dior", "male", 40),
+                catalogPerfume(3L, "Chanel", "male", 60),
+                catalogPerfume(4L, "Chanel", "female", null),
+                catalogPerfume(5L, "Versace", "female", 70)));
+        PerfumeSearchRequest chanel = filter(List.of("Chanel"), null, null, null, false);
+        List<Long> ranking = List.of(2L, 4L, 3L);
+
+        assertThat(snapshot.filter(chanel, ranking, PageRequest.of(0, 15)).getContent()).containsExactly(4L, 3L, 1L);
+        assertThat(snapshot.filter(filter(null, null, null, null, true), ranking, PageRequest.of(0, 2)).getContent())
+                .containsExactly(2L, 4L);
+        Page<Long> secondPage = snapshot.filter(filter(null, null, null, null, true), ranking, PageRequest.of(1, 2));
+        assertThat(secondPage.getContent()).containsExactly(3L, 5L);
+        assertThat(secondPage.getTotalElements()).isEqualTo(5);
+        assertThat(snapshot.filter(filter(null, null, null, null, true), ranking, PageRequest.of(2, 2)).getContent())
+                .containsExactly(1L);
+    }
+
+    @Test
+    void appliesIncrementalUpdatesAndDeletes() {
+        CatalogSnapshot snapshot = new CatalogSnapshot();
+        snapshot.rebuild(List.of(catalogPerfume(1L, "Dior", "male", 40)));
+
+        snapshot.index(catalogPerfume(1L, "Chanel", "female", 90));
+        snapshot.index(catalogPerfume(2L, "Dior", "male", 50));
+
+        assertThat(snapshot.filter(filter(List.of("Dior"), null, null, null, true), PageRequest.of(0, 15)).getContent())
+                .containsExactly(2L);
+
+        snapshot.remove(2L);
+
+        assertThat(snapshot.filter(filter(null, null, null, null, true), PageRequest.of(0, 15)).getContent())
+                .containsExactly(1L);
+        assertThat(snapshot.size()).isEqualTo(1);
+    }
+
+    @Test
+    void matchesReferenceFilterOnRandomCatalog() {
+        Random random = new Random(7);
+        List<Perfume> perfumes = randomPerfumes(random, 5_000);
+        CatalogSnapshot snapshot = new CatalogSnapshot();
+        snapshot.rebuild(perfumes);
+
+        for (int i = 0; i < 500; i++) {
+            PerfumeSearchRequest filter = randomFilter(random);
+            PageRequest pageable = PageRequest.of(random.nextInt(4), 15);
+            List<Long> expected = referenceFilter(perfumes, filter);
+
+            Page<Long> page = snapshot.filter(filter, pageable);
+
+            assertThat(page.getTotalElements()).isEqualTo(expected.size());
+            int from = (int) Math.min(pageable.getOffset(), expected.size());
+            assertThat(page.getContent()).isEqualTo(expected.subList(from, Math.min(from + 15, expected.size())));
+        }
+    }
+
+    @Test
+    @Tag("benchmark")
+    void benchmarkAgainstSequentialScan() {
+        Random random = new Random(42);
+        int rows = 100_000;
+        List<Perfume> perfumes = randomPerfumes(random, rows);
+        CatalogSnapshot snapshot = new CatalogSnapshot();
+        snapshot.rebuild(perfumes);
+
+        PerfumeSearchRequest[] filters = new PerfumeSearchRequest[50];
+        for (int i = 0; i < filters.length; i++) {
+            filters[i] = randomFilter(random);
+        }
+        PageRequest pageable = PageRequest.of(0, 15);
+        for (int warmup = 0; warmup < 3; warmup++) {
+            for (PerfumeSearchRequest filter : filters) {
+                snapshot.filter(filter, pageable);
+                referenceFilter(perfumes, filter);
+            }
+        }
+
+        long snapshotNanos = 0;
+        long scanNanos = 0;
+        for (PerfumeSearchRequest filter : filters) {
+            long start = System.nanoTime();
+            Page<Long> page = snapshot.filter(filter, pageable);
+            snapshotNanos += System.nanoTime() - start;
+
+            start = System.nanoTime();
+            List<Long> expected = referenceFilter(perfumes, filter);
+            scanNanos += System.nanoTime() - start;
+
+            assertThat(page.getContent()).isEqualTo(expected.subList(0, Math.min(15, expected.size())));
+        }
+        System.out.printf("CatalogSnapshot: %d rows, bitmap filter %.1f us/query, filter+sort scan %.1f us/query%n",
+                rows, snapshotNanos / 1_000.0 / filters.length, scanNanos / 1_000.0 / filters.length);
+        assertThat(snapshotNanos).isLessThan(scanNanos);
+    }
+
+    static List<Long> referenceFilter(List<Perfume> perfumes, PerfumeSearchRequest filter) {
+        boolean ascending = Boolean.TRUE.equals(filter.getSortByPrice());
+        Comparator<Perfume> byPrice = ascending
+                ? Comparator.comparing(Perfume::getPrice).thenComparing(Perfume::getId)
+                : Comparator.comparing(Perfume::getPrice).thenComparing(Perfume::getId).reversed();
+        Comparator<Perfume> order = (left, right) -> {
+            if (left.getPrice() == null || right.getPrice() == null) {
+                return left.getPrice() != null ? -1 : right.getPrice() != null ? 1
+                        : ascending ? left.getId().compareTo(right.getId()) : right.getId().compareTo(left.getId());
+            }
+            return byPrice.compare(left, right);
+        };
+        List<Integer> prices = filter.getPrices();
+        List<Integer> years = filter.getYears();
+        return perfumes.stream()
+                .filter(perfume -> filter.getPerfumers() == null || filter.getPerfumers().contains(perfume.getPerfumer()))
+                .filter(perfume -> filter.getGenders() == null || filter.getGenders().contains(perfume.getPerfumeGender()))
+                .filter(perfume -> filter.getCountries() == null || filter.getCountries().contains(perfume.getCountry()))
+                .filter(perfume -> filter.getTypes() == null || filter.getTypes().contains(perfume.getType()))
+                .filter(perfume -> filter.getVolumes() == null || filter.getVolumes().contains(perfume.getVolume()))
+                .filter(perfume -> prices == null || (perfume.getPrice() != null
+                        && perfume.getPrice() >= prices.get(0) && perfume.getPrice() <= prices.get(1)))
+                .filter(perfume -> years == null || (perfume.getYear() != null
+                        && perfume.getYear() >= years.get(0) && perfume.getYear() <= years.get(1)))
+                .sorted(order)
+                .map(Perfume::getId)
+                .toList();
+    }
+
+    static List<Perfume> randomPerfumes(Random random, int rows) {
+        List<Perfume> perfumes = new ArrayList<>(rows);
+        for (long id = 1; id <= rows; id++) {
+            perfumes.add(catalogPerfume(id, PERFUMERS[random.nextInt(PERFUMERS.length)], GENDERS[random.nextInt(GENDERS.length)],
+                    COUNTRIES[random.nextInt(COUNTRIES.length)], TYPES[random.nextInt(TYPES.length)], VOLUMES[random.nextInt(VOLUMES.length)],
+                    random.nextInt(20) == 0 ? null : 1950 + random.nextInt(70), random.nextInt(50) == 0 ? null : random.nextInt(300)));
+        }
+        return perfumes;
+    }
+
+    static PerfumeSearchRequest randomFilter(Random random) {
+        List<String> perfumers = random.nextBoolean() ? null
+                : Arrays.asList(PERFUMERS).subList(random.nextInt(4), 4 + random.nextInt(4));
+        List<String> genders = random.nextInt(3) == 0 ? List.of(GENDERS[random.nextInt(GENDERS.length)]) : null;
+        int priceStart = random.nextInt(200);
+        boolean hasPrices = random.nextBoolean();
+        PerfumeSearchRequest filter = filter(perfumers, genders, hasPrices ? priceStart : null,
+                hasPrices ? priceStart + random.nextInt(150) : null, random.nextBoolean());
+        if (random.nextInt(3) == 0) {
+            filter.setCountries(List.of(COUNTRIES[random.nextInt(COUNTRIES.length)], COUNTRIES[random.nextInt(COUNTRIES.length)]));
+        }
+        if (random.nextInt(4) == 0) {
+            filter.setTypes(List.of(TYPES[random.nextInt(TYPES.length)]));
+        }
+        if (random.nextInt(4) == 0) {
+            filter.setVolumes(List.of(VOLUMES[random.nextInt(VOLUMES.length)]));
+        }
+        if (random.nextInt(3) == 0) {
+            int yearStart = 1950 + random.nextInt(60);
+            filter.setYears(List.of(yearStart, yearStart + random.nextInt(30)));
+        }
+        return filter;
+    }
+
+    static PerfumeSearchRequest filter(List<String> perfumers, List<String> genders, Integer priceStart, Integer priceEnd,
+                                       boolean sortByPrice) {
+        PerfumeSearchRequest filter = new PerfumeSearchRequest();
+        filter.setPerfumers(perfumers);
+        filter.setGenders(genders);
+        filter.setPrices(priceStart == null ? null : List.of(priceStart, priceEnd));
+        filter.setSortByPrice(sortByPrice);
+        return filter;
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.demo.service.catalog;
+
+import com.example.demo.domain.Perfume;
+import com.example.demo.repository.PerfumeSalesRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class PerfumeBestsellersTests {
+
+    private static final int PERFUMES = 10_000;
+    private static final int THREADS = 8;
+    private static final int ORDERS_PER_THREAD = 200_000;
+
+    @Test
+    void ranksByUnitsSoldAndForgetsDeletedPerfumes() {
+        PerfumeSalesRepository perfumeSalesRepository = mock(PerfumeSalesRepository.class);
+        when(perfumeSalesRepository.findAll()).thenReturn(Map.of(1L, 10L, 2L, 30L, 3L, 20L, 99L, 500L));
+        PerfumeBestsellers bestsellers = new PerfumeBestsellers(perfumeSalesRepository);
+
+        bestsellers.rebuild(perfumes(1, 2, 3, 4));
+        assertThat(bestsellers.top(10)).containsExactly(2L, 3L, 1L);
+
+        bestsellers.record(Map.of(1L, 15L, 4L, 1L));
+        assertThat(bestsellers.top(2)).containsExactly(2L, 1L);
+        assertThat(bestsellers.sold(1L)).isEqualTo(25);
+
+        bestsellers.remove(2L);
+        assertThat(bestsellers.ranking()).containsExactly(1L, 3L, 4L);
+
+        bestsellers.rebuild(perfumes(1, 3));
+        assertThat(bestsellers.ranking()).containsExactly(1L, 3L);
+        assertThat(bestsellers.sold(1L)).isEqualTo(25);
+        verify(perfumeSalesRepository, times(1)).findAll();
+    }
+
+    @Test
+    void checkpointsOnlyChangedCounters() {
+        PerfumeSalesRepository perfumeSalesRepository = mock(PerfumeSalesRepository.class);
+        when(perfumeSalesRepository.findAll()).thenReturn(Map.of(1L, 10L, 2L, 30L));
+        PerfumeBestsellers bestsellers = new PerfumeBestsellers(perfumeSalesRepository);
+        bestsellers.rebuild(perfumes(1, 2, 3));
+
+        bestsellers.checkpoint();
+        verify(perfumeSalesRepository, never()).save(anyMap());
+
+        bestsellers.record(Map.of(1L, 2L, 3L, 1L));
+        bestsellers.checkpoint();
+        verify(perfumeSalesRepository).save(Map.of(1L, 12L, 3L, 1L));
+
+        bestsellers.checkpoint();
+        verifyNoMoreInteractions(ignoreStubs(perfumeSalesRepository));
+    }
+
+    @Test
+    void keepsExactTopUnderConcurrentOrders() throws Exception {
+        PerfumeBestsellers bestsellers = new PerfumeBestsellers(mock(PerfumeSalesRepository.class));
+        AtomicLongArray expected = new AtomicLongArray(PERFUMES + 1);
+
+        recordConcurrently(bestsellers, expected);
+
+        List<Long> exactTop = IntStream.rangeClosed(1, PERFUMES).boxed()
+                .sorted(Comparator.comparingLong((Integer id) -> expected.get(id)).reversed().thenComparing(id -> id))
+                .limit(100)
+                .map(Integer::longValue)
+                .collect(Collectors.toList());
+        assertThat(bestsellers.ranking()).isEqualTo(exactTop);
+        assertThat(bestsellers.top(10)).isEqualTo(exactTop.subList(0, 10));
+        assertThat(LongStream.rangeClosed(1, PERFUMES).allMatch(id -> bestsellers.sold(id) == expected.get((int) id))).isTrue();
+    }
+
+    private static void recordConcurrently(PerfumeBestsellers bestsellers, AtomicLongArray expected) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < THREADS; thread++) {
+                long seed = thread;
+                futures.add(executor.submit(() -> {
+                    Random random = new Random(seed);
+                    for (int i = 0; i < ORDERS_PER_THREAD; i++) {
+                        int perfumeId = zipf(random);
+                        long quantity = 1 + random.nextInt(3);
+                        expected.addAndGet(perfumeId, quantity);
+                        bestsellers.record((long) perfumeId, quantity);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static int zipf(Random random) {
+        return Math.min(PERFUMES, (int) Math.pow(PERFUMES, random.nextDouble()));
+    }
+
+    private static List<Perfume> perfumes(long... ids) {
+        return LongStream.of(ids).mapToObj(id -> {
+            Perfume perfume = new Perfume();
+            perfume.setId(id);
+            return perfume;
+        }).collect(Collectors.toList());
+    }
+}
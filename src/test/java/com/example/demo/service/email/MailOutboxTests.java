@@ -0,0 +1,136 @@
+package com.example.demo.service.email;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "mail.outbox.enabled=false",
+        "mail.outbox.batch-size=50",
+        "mail.outbox.max-attempts=3",
+        "mail.outbox.initial-backoff=PT1M"
+})
+class MailOutboxTests {
+
+    private static final SmtpStub SMTP = new SmtpStub();
+    private static final String DOMAIN = "@outbox-tests.example.com";
+    private static final int MAILS = 120;
+
+    @Autowired
+    private MailOutbox mailOutbox;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @DynamicPropertySource
+    static void smtpProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.mail.host", () -> "localhost");
+        registry.add("spring.mail.port", SMTP::getPort);
+        registry.add("spring.mail.protocol", () -> "smtp");
+    }
+
+    @AfterAll
+    static void stopSmtp() throws Exception {
+        SMTP.close();
+    }
+
+    @AfterEach
+    void deleteMails() {
+        jdbcTemplate.update("DELETE FROM mail_outbox WHERE recipient LIKE ?", "%" + DOMAIN);
+        SMTP.getReceived().clear();
+    }
+
+    @Test
+    void keepsMailsOfRolledBackTransactionsUnsent() {
+        transactionTemplate.executeWithoutResult(status -> {
+            enqueue("rolled-back");
+            status.setRollbackOnly();
+        });
+        transactionTemplate.executeWithoutResult(status -> enqueue("committed"));
+
+        assertThat(jdbcTemplate.queryForList("SELECT recipient FROM mail_outbox WHERE recipient LIKE ?", String.class, "%" + DOMAIN))
+                .containsExactly("committed" + DOMAIN);
+    }
+
+    @Test
+    void sendsBatchesOverPooledConnections() {
+        for (int i = 0; i < MAILS; i++) {
+            enqueue("user-" + i);
+        }
+        int connectionsBefore = SMTP.getConnections();
+        double sentBefore = meterRegistry.counter("mail.outbox.sent").count();
+
+        int dispatched = mailOutbox.dispatch();
+
+        assertThat(dispatched).isEqualTo(MAILS);
+        assertThat(SMTP.getReceived()).hasSize(MAILS);
+        assertThat(SMTP.getReceived().get(0).data()).contains("Subject: Password reset", "/reset/code");
+        assertThat(SMTP.getConnections() - connectionsBefore).isLessThanOrEqualTo(2);
+        assertThat(meterRegistry.counter("mail.outbox.sent").count() - sentBefore).isEqualTo(MAILS);
+        assertThat(countMails()).isZero();
+    }
+
+    @Test
+    void retriesFailedMailsWithBackoffAndGivesUpAfterMaxAttempts() {
+        SMTP.reject("bounce" + DOMAIN);
+        enqueue("bounce");
+        enqueue("delivered");
+
+        mailOutbox.dispatch();
+
+        assertThat(SMTP.getReceived()).extracting(SmtpStub.Received::recipient).containsExactly("delivered" + DOMAIN);
+        Map<String, Object> bounce = jdbcTemplate.queryForMap("SELECT attempts, next_attempt_at, last_error FROM mail_outbox WHERE recipient = ?",
+                "bounce" + DOMAIN);
+        assertThat(bounce.get("attempts")).isEqualTo(1);
+        assertThat(((Timestamp) bounce.get("next_attempt_at")).toInstant()).isAfter(java.time.Instant.now().plusSeconds(50));
+        assertThat((String) bounce.get("last_error")).isNotBlank();
+
+        for (int attempt = 2; attempt <= 3; attempt++) {
+            jdbcTemplate.update("UPDATE mail_outbox SET next_attempt_at = now() - interval '1 second' WHERE recipient = ?", "bounce" + DOMAIN);
+            mailOutbox.dispatch();
+        }
+
+        assertThat(jdbcTemplate.queryForMap("SELECT attempts, next_attempt_at FROM mail_outbox WHERE recipient = ?", "bounce" + DOMAIN))
+                .containsEntry("attempts", 3)
+                .containsEntry("next_attempt_at", null);
+        assertThat(mailOutbox.dispatch()).isZero();
+        assertThat(SMTP.getReceived()).hasSize(1);
+    }
+
+    @Test
+    void leavesMailsQueuedWhileTheDispatcherIsDisabled() {
+        enqueue("queued");
+
+        mailOutbox.scheduledDispatch();
+
+        assertThat(SMTP.getReceived()).isEmpty();
+        assertThat(countMails()).isEqualTo(1);
+    }
+
+    private void enqueue(String user) {
+        mailOutbox.enqueue(user + DOMAIN, "Password reset", "password-reset-template",
+                Map.of("firstName", user, "resetUrl", "http://localhost/reset/code"));
+    }
+
+    private int countMails() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM mail_outbox WHERE recipient LIKE ?", Integer.class, "%" + DOMAIN);
+    }
+}
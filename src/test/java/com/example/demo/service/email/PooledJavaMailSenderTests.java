@@ -0,0 +1,154 @@
+package com.example.demo.service.email;
+
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PooledJavaMailSenderTests {
+
+    private static final int MAILS = 200;
+    private static final Duration HANDSHAKE = Duration.ofMillis(20);
+
+    private final SmtpStub smtp = new SmtpStub(HANDSHAKE);
+    private final PooledJavaMailSender pooledSender = configure(new PooledJavaMailSender(2, 100, Duration.ofMinutes(1), Duration.ofSeconds(30)));
+
+    @AfterEach
+    void stop() throws Exception {
+        pooledSender.close();
+        smtp.close();
+    }
+
+    @Test
+    void reusesConnectionsAcrossSends() {
+        for (int i = 0; i < MAILS; i++) {
+            pooledSender.send(message(pooledSender, "user-" + i));
+        }
+
+        assertThat(smtp.getReceived()).hasSize(MAILS);
+        assertThat(smtp.getConnections()).isEqualTo(MAILS / 100);
+    }
+
+    @Test
+    void keepsTheSessionAfterARejectedRecipient() {
+        smtp.reject("bounce@example.com");
+
+        assertThatThrownBy(() -> pooledSender.send(message(pooledSender, "user-1"), message(pooledSender, "bounce"), message(pooledSender, "user-2")))
+                .isInstanceOfSatisfying(MailSendException.class, e -> assertThat(e.getFailedMessages()).hasSize(1));
+        assertThat(smtp.getReceived()).extracting(SmtpStub.Received::recipient).containsExactly("user-1@example.com", "user-2@example.com");
+        assertThat(smtp.getConnections()).isEqualTo(1);
+    }
+
+    @Test
+    void reconnectsWhenTheServerClosedAPooledConnection() throws Exception {
+        pooledSender.send(message(pooledSender, "user-1"));
+        smtp.disconnectAll();
+
+        pooledSender.send(message(pooledSender, "user-2"));
+
+        assertThat(smtp.getReceived()).hasSize(2);
+        assertThat(smtp.getConnections()).isEqualTo(2);
+    }
+
+    @Test
+    void sharesThePoolBetweenThreads() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int i = 0; i < MAILS; i++) {
+                String user = "user-" + i;
+                results.add(executor.submit(() -> pooledSender.send(message(pooledSender, user))));
+            }
+            for (Future<?> result : results) {
+                result.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertThat(smtp.getReceived()).hasSize(MAILS);
+        assertThat(smtp.getConnections()).isLessThan(MAILS / 10);
+        assertThat(smtp.getMaxSessions()).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    void failsTheWholeCallWhenNoConnectionCanBeOpened() {
+        smtp.hangUp();
+
+        assertThatThrownBy(() -> pooledSender.send(message(pooledSender, "user-1"), message(pooledSender, "user-2"), message(pooledSender, "user-3")))
+                .isInstanceOfSatisfying(MailSendException.class, e -> assertThat(e.getFailedMessages()).hasSize(3));
+        assertThat(smtp.getConnections()).isEqualTo(1);
+    }
+
+    @Test
+    void failsWhenNoConnectionIsReleasedInTime() throws Exception {
+        PooledJavaMailSender singleConnection = configure(new PooledJavaMailSender(1, 100, Duration.ofMinutes(1), Duration.ofMillis(200)));
+        try (SmtpStub slowSmtp = new SmtpStub(Duration.ofSeconds(2))) {
+            singleConnection.setPort(slowSmtp.getPort());
+            ExecutorService executor = Executors.newSingleThreadExecutor();
+            try {
+                Future<?> first = executor.submit(() -> singleConnection.send(message(singleConnection, "user-1")));
+                Thread.sleep(100);
+
+                assertThatThrownBy(() -> singleConnection.send(message(singleConnection, "user-2")))
+                        .isInstanceOfSatisfying(MailSendException.class, e -> assertThat(e.getFailedMessages()).hasSize(1));
+                first.get();
+            } finally {
+                executor.shutdown();
+                singleConnection.close();
+            }
+            assertThat(slowSmtp.getConnections()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void opensFarFewerConnectionsThanPerMessageSends() {
+        JavaMailSenderImpl plainSender = configure(new JavaMailSenderImpl());
+        for (int i = 0; i < MAILS; i++) {
+            plainSender.send(message(plainSender, "user-" + i));
+        }
+        int plainConnections = smtp.getConnections();
+
+        for (int i = 0; i < MAILS; i++) {
+            pooledSender.send(message(pooledSender, "user-" + i));
+        }
+        int pooledConnections = smtp.getConnections() - plainConnections;
+
+        assertThat(smtp.getReceived()).hasSize(2 * MAILS);
+        assertThat(plainConnections).isEqualTo(MAILS);
+        assertThat(pooledConnections).isEqualTo(MAILS / 100);
+    }
+
+    private <T extends JavaMailSenderImpl> T configure(T sender) {
+        sender.setHost("localhost");
+        sender.setPort(smtp.getPort());
+        sender.setProtocol("smtp");
+        return sender;
+    }
+
+    private static MimeMessage message(JavaMailSenderImpl sender, String user) {
+        try {
+            MimeMessage message = sender.createMimeMessage();
+            MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+            helper.setFrom("webstore@example.com");
+            helper.setTo(user + "@example.com");
+            helper.setSubject("Order");
+            helper.setText("<p>Hello " + user + "</p>", true);
+            return message;
+        } catch (jakarta.mail.MessagingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.demo.service.email;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class SmtpStub implements AutoCloseable {
+
+    private final ServerSocket serverSocket;
+    private final List<Received> received = new CopyOnWriteArrayList<>();
+    private final Set<String> rejectedRecipients = ConcurrentHashMap.newKeySet();
+    private final Set<Socket> sessions = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger connections = new AtomicInteger();
+    private final AtomicInteger maxSessions = new AtomicInteger();
+    private volatile boolean hangingUp;
+    private final Duration handshakeDelay;
+
+    SmtpStub() {
+        this(Duration.ZERO);
+    }
+
+    SmtpStub(Duration handshakeDelay) {
+        this.handshakeDelay = handshakeDelay;
+        try {
+            serverSocket = new ServerSocket(0);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        Thread acceptor = new Thread(this::accept, "smtp-stub");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    List<Received> getReceived() {
+        return received;
+    }
+
+    int getConnections() {
+        return connections.get();
+    }
+
+    int getMaxSessions() {
+        return maxSessions.get();
+    }
+
+    void hangUp() {
+        hangingUp = true;
+    }
+
+    void reject(String recipient) {
+        rejectedRecipients.add(recipient);
+    }
+
+    void disconnectAll() throws IOException {
+        for (Socket session : sessions) {
+            session.close();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+    }
+
+    private void accept() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                connections.incrementAndGet();
+                if (hangingUp) {
+                    socket.close();
+                    continue;
+                }
+                sessions.add(socket);
+                maxSessions.accumulateAndGet(sessions.size(), Math::max);
+                Thread session = new Thread(() -> serve(socket), "smtp-stub-session");
+                session.setDaemon(true);
+                session.start();
+            } catch (IOException e) {
+                return;
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        try (socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+             OutputStream out = socket.getOutputStream()) {
+            Thread.sleep(handshakeDelay.toMillis());
+            reply(out, "220 localhost SMTP stub");
+            String recipient = null;
+            String line;
+            while ((line = in.readLine()) != null) {
+                String command = line.toUpperCase();
+                if (command.startsWith("EHLO")) {
+                    reply(out, "250-localhost\r\n250 8BITMIME");
+                } else if (command.startsWith("RCPT TO:")) {
+                    recipient = line.substring(line.indexOf('<') + 1, line.lastIndexOf('>'));
+                    reply(out, rejectedRecipients.contains(recipient) ? "550 Mailbox unavailable" : "250 OK");
+                } else if (command.equals("DATA")) {
+                    reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                    StringBuilder data = new StringBuilder();
+                    while (!(line = in.readLine()).equals(".")) {
+                        data.append(line).append('\n');
+                    }
+                    received.add(new Received(recipient, data.toString()));
+                    reply(out, "250 OK");
+                } else if (command.equals("QUIT")) {
+                    sessions.remove(socket);
+                    reply(out, "221 Bye");
+                    return;
+                } else {
+                    reply(out, "250 OK");
+                }
+            }
+        } catch (IOException ignored) {
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            sessions.remove(socket);
+        }
+    }
+
+    private static void reply(OutputStream out, String response) throws IOException {
+        out.write((response + "\r\n").getBytes(StandardCharsets.UTF_8));
+        out.flush();
+    }
+
+    record Received(String recipient, String data) {
+    }
+}
+
+// A minimal SMTP server for tests: it accepts every command, records each message it receives and rejects the recipients passed to reject() with 550.
+// After hangUp() every new connection is closed before the greeting, like a server that is down. getMaxSessions() is the largest number of sessions that were open at the same time; a session stops counting before QUIT is answered, so a client that waits for the reply never overlaps its next connection with it.
+// handshakeDelay holds back the greeting of every new connection to stand in for the TLS handshake and AUTH round trips of a real SMTP server.
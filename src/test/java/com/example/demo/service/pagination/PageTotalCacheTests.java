@@ -0,0 +1,48 @@
+package com.example.demo.service.pagination;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PageTotalCacheTests {
+
+    @Test
+    void countsOncePerKeyUntilInvalidated() {
+        PageTotalCache cache = cache(Duration.ofMinutes(1));
+        AtomicInteger counts = new AtomicInteger();
+
+        for (int i = 0; i < 100; i++) {
+            assertThat(cache.getTotal(PageTotalCache.ORDERS, () -> {
+                counts.incrementAndGet();
+                return 42;
+            })).isEqualTo(42);
+        }
+        assertThat(counts).hasValue(1);
+
+        cache.invalidate(PageTotalCache.ORDERS);
+
+        assertThat(cache.getTotal(PageTotalCache.ORDERS, counts::incrementAndGet)).isEqualTo(2);
+    }
+
+    @Test
+    void recountsAfterTtl() throws InterruptedException {
+        PageTotalCache cache = cache(Duration.ofMillis(10));
+        AtomicInteger counts = new AtomicInteger();
+
+        assertThat(cache.getTotal(PageTotalCache.USERS, counts::incrementAndGet)).isEqualTo(1);
+        Thread.sleep(20);
+
+        assertThat(cache.getTotal(PageTotalCache.USERS, counts::incrementAndGet)).isEqualTo(2);
+        assertThat(cache.getTotal(PageTotalCache.USERS, counts::incrementAndGet)).isEqualTo(2);
+    }
+
+    private static PageTotalCache cache(Duration ttl) {
+        PageTotalCache cache = new PageTotalCache();
+        ReflectionTestUtils.setField(cache, "ttl", ttl);
+        return cache;
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.demo.service.search;
+
+import com.example.demo.domain.Perfume;
+import com.example.demo.dto.perfume.PerfumeSearchRequest;
+import com.example.demo.service.PerfumeService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class PerfumeFacetIndexTests {
+
+    private static final String PERFUMERS = "perfumer IN ('Chanel', 'Dior', 'Creed')";
+    private static final String GENDERS = "perfume_gender IN ('female')";
+    private static final String PRICES = "price BETWEEN 40 AND 200";
+    private static final String OTHER_FILTERS = "country IN ('France') AND year >= 2000";
+
+    @Autowired
+    private PerfumeFacetIndex perfumeFacetIndex;
+
+    @Autowired
+    private PerfumeService perfumeService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void countsEachFacetAgainstTheOtherFilters() {
+        PerfumeSearchRequest filter = new PerfumeSearchRequest();
+        filter.setPerfumers(List.of("Chanel", "Dior", "Creed"));
+        filter.setGenders(List.of("female"));
+        filter.setPrices(List.of(40, 200));
+        filter.setCountries(List.of("France"));
+        filter.setYears(List.of(2000));
+
+        PerfumeFacets facets = perfumeFacetIndex.getFacets(filter);
+
+        assertThat(facets.getPerfumers())
+                .isNotEmpty()
+                .isEqualTo(groupBy("perfumer", OTHER_FILTERS + " AND " + GENDERS + " AND " + PRICES));
+        assertThat(facets.getGenders())
+                .isNotEmpty()
+                .isEqualTo(groupBy("perfume_gender", OTHER_FILTERS + " AND " + PERFUMERS + " AND " + PRICES));
+        assertThat(priceBuckets(facets))
+                .isNotEmpty()
+                .isEqualTo(groupBy("CAST(price / 25 * 25 AS varchar)", OTHER_FILTERS + " AND " + PERFUMERS + " AND " + GENDERS));
+        assertThat(perfumeFacetIndex.getFacets(filter)).isSameAs(facets);
+    }
+
+    @Test
+    void appliesOneSidedPriceRanges() {
+        PerfumeSearchRequest from = new PerfumeSearchRequest();
+        from.setPrices(Arrays.asList(100, null));
+        PerfumeSearchRequest upTo = new PerfumeSearchRequest();
+        upTo.setPrices(Arrays.asList(null, 50));
+
+        assertThat(perfumeFacetIndex.getFacets(from).getGenders())
+                .isNotEmpty()
+                .isEqualTo(groupBy("perfume_gender", "price >= 100"));
+        assertThat(perfumeFacetIndex.getFacets(upTo).getGenders())
+                .isNotEmpty()
+                .isEqualTo(groupBy("perfume_gender", "price <= 50"));
+    }
+
+    @Test
+    void recountsAfterACatalogWrite() {
+        PerfumeSearchRequest filter = new PerfumeSearchRequest();
+        filter.setGenders(List.of("female"));
+        assertThat(perfumeFacetIndex.getFacets(filter).getPerfumers()).doesNotContainKey("Facet Tests");
+
+        Perfume perfume = new Perfume();
+        perfume.setPerfumeTitle("Facet Tests Eau");
+        perfume.setPerfumer("Facet Tests");
+        perfume.setPerfumeGender("female");
+        perfume.setCountry("France");
+        perfume.setPrice(99);
+        Long perfumeId = perfumeService.savePerfume(perfume, null).getId();
+        try {
+            assertThat(perfumeFacetIndex.getFacets(filter).getPerfumers()).containsEntry("Facet Tests", 1L);
+        } finally {
+            perfumeService.deletePerfume(perfumeId);
+        }
+
+        assertThat(perfumeFacetIndex.getFacets(filter).getPerfumers()).doesNotContainKey("Facet Tests");
+    }
+
+    private Map<String, Long> groupBy(String column, String filters) {
+        Map<String, Long> counts = new TreeMap<>();
+        jdbcTemplate.query("SELECT " + column + " AS value, COUNT(*) AS count FROM perfume WHERE " + filters
+                + " AND " + column + " IS NOT NULL GROUP BY 1", resultSet -> {
+            counts.put(resultSet.getString("value"), resultSet.getLong("count"));
+        });
+        return counts;
+    }
+
+    private static Map<String, Long> priceBuckets(PerfumeFacets facets) {
+        Map<String, Long> counts = new TreeMap<>();
+        facets.getPrices().forEach(bucket -> counts.put(String.valueOf(bucket.getPriceFrom()), bucket.getCount()));
+        return counts;
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.demo.service.search;
+
+import com.example.demo.domain.Perfume;
+
+public final class PerfumeFixtures {
+
+    private PerfumeFixtures() {
+    }
+
+    public static Perfume perfume(Long id, String title, String perfumer) {
+        Perfume perfume = new Perfume();
+        perfume.setId(id);
+        perfume.setPerfumeTitle(title);
+        perfume.setPerfumer(perfumer);
+        return perfume;
+    }
+
+    public static Perfume perfume(Long id, String title, String perfumer, String country, Integer price) {
+        Perfume perfume = perfume(id, title, perfumer);
+        perfume.setCountry(country);
+        perfume.setPrice(price);
+        return perfume;
+    }
+
+    public static Perfume perfumeWithNotes(Long id, String topNotes, String middleNotes, String baseNotes) {
+        Perfume perfume = perfume(id, null, null);
+        perfume.setFragranceTopNotes(topNotes);
+        perfume.setFragranceMiddleNotes(middleNotes);
+        perfume.setFragranceBaseNotes(baseNotes);
+        return perfume;
+    }
+
+    public static Perfume catalogPerfume(Long id, String perfumer, String gender, Integer price) {
+        return catalogPerfume(id, perfumer, gender, null, null, null, null, price);
+    }
+
+    public static Perfume catalogPerfume(Long id, String perfumer, String gender, String country, String type, String volume,
+                                         Integer year, Integer price) {
+        Perfume perfume = perfume(id, null, perfumer, country, price);
+        perfume.setPerfumeGender(gender);
+        perfume.setType(type);
+        perfume.setVolume(volume);
+        perfume.setYear(year);
+        return perfume;
+    }
+}
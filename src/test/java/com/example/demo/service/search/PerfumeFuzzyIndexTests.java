@@ -0,0 +1,169 @@
+package com.example.demo.service.search;
+
+import com.example.demo.domain.Perfume;
+import com.example.demo.enums.SearchPerfume;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.*;
+
+import static com.example.demo.service.search.PerfumeFixtures.perfume;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+class PerfumeFuzzyIndexTests {
+
+    private static final String[] SYLLABLES = {"ka", "ri", "lo", "me", "sa", "tu", "ne", "vi", "do", "ga", "ber", "lin", "mon", "tar", "qui"};
+
+    @Test
+    void correctsMisspelledBrandsAndTitles() {
+        PerfumeFuzzyIndex index = new PerfumeFuzzyIndex();
+        index.rebuild(List.of(
+                perfume(1L, "Shalimar", "Guerlain"),
+                perfume(2L, "Mon Guerlain", "Guerlain"),
+                perfume(3L, "Chanel No 5", "Chanel"),
+                perfume(4L, "Boss Bottled", "Hugo Boss")));
+
+        List<PerfumeCorrection> brands = index.corrections(SearchPerfume.BRAND, "Guerlan");
+        assertThat(brands).extracting(PerfumeCorrection::getText).containsExactly("guerlain");
+        assertThat(brands.get(0).getDistance()).isEqualTo(1);
+        assertThat(brands.get(0).getPerfumeIds()).containsExactly(1L, 2L);
+
+        assertThat(index.corrections(SearchPerfume.BRAND, "Chanell")).extracting(PerfumeCorrection::getText).containsExactly("chanel");
+        assertThat(index.corrections(SearchPerfume.BRAND, "bos")).extracting(PerfumeCorrection::getText).containsExactly("boss");
+        assertThat(index.corrections(SearchPerfume.PERFUME_TITLE, "shalimr")).extracting(PerfumeCorrection::getText).containsExactly("shalimar");
+        assertThat(index.corrections(SearchPerfume.PERFUME_TITLE, "chanel no 5")).extracting(PerfumeCorrection::getDistance).containsExactly(0);
+        assertThat(index.corrections(SearchPerfume.BRAND, "dior")).isEmpty();
+        assertThat(index.corrections(SearchPerfume.BRAND, "")).isEmpty();
+    }
+
+    @Test
+    void appliesIncrementalUpdatesAndDeletes() {
+        PerfumeFuzzyIndex index = new PerfumeFuzzyIndex();
+        index.rebuild(List.of(perfume(1L, "Shalimar", "Guerlain")));
+
+        index.index(perfume(1L, "Sauvage", "Dior"));
+        index.index(perfume(2L, "Homme", "Dior"));
+
+        assertThat(index.corrections(SearchPerfume.BRAND, "guerlan")).isEmpty();
+        assertThat(index.corrections(SearchPerfume.BRAND, "dyor")).extracting(PerfumeCorrection::getPerfumesCount).containsExactly(2);
+
+        index.remove(2L);
+
+        assertThat(index.corrections(SearchPerfume.BRAND, "dyor")).extracting(PerfumeCorrection::getPerfumeIds).containsExactly(List.of(1L));
+    }
+
+    @Test
+    void skipsPrefixesEndingWithTheLargestCharacter() {
+        PerfumeFuzzyIndex index = new PerfumeFuzzyIndex();
+        index.rebuild(List.of(
+                perfume(1L, "One", "a"),
+                perfume(2L, "Two", "abc"),
+                perfume(3L, "Three", "a\uffff"),
+                perfume(4L, "Four", "a\uffff\uffffz"),
+                perfume(5L, "Five", "b"),
+                perfume(6L, "Six", "\uffff")));
+
+        List<PerfumeCorrection> first = assertTimeoutPreemptively(Duration.ofSeconds(5),
+                () -> index.corrections(SearchPerfume.BRAND, "a"));
+        List<PerfumeCorrection> last = assertTimeoutPreemptively(Duration.ofSeconds(5),
+                () -> index.corrections(SearchPerfume.BRAND, "b"));
+
+        assertThat(first).extracting(PerfumeCorrection::getPerfumeIds).containsExactly(List.of(1L));
+        assertThat(last).extracting(PerfumeCorrection::getPerfumeIds).containsExactly(List.of(5L));
+    }
+
+    @Test
+    void matchesAnExhaustiveScan() {
+        Random random = new Random(42);
+        List<String> terms = vocabulary(random, 20_000);
+        PerfumeFuzzyIndex index = new PerfumeFuzzyIndex();
+        index.rebuild(perfumes(terms));
+
+        for (int i = 0; i < 100; i++) {
+            String query = misspell(random, terms.get(random.nextInt(terms.size())));
+            assertThat(index.corrections(SearchPerfume.BRAND, query)).extracting(PerfumeCorrection::getText)
+                    .containsExactlyInAnyOrderElementsOf(exhaustiveScan(terms, query));
+        }
+    }
+
+    @Test
+    @Tag("benchmark")
+    void benchmarkAgainstExhaustiveScan() {
+        Random random = new Random(42);
+        List<String> terms = vocabulary(random, 100_000);
+        PerfumeFuzzyIndex index = new PerfumeFuzzyIndex();
+        index.rebuild(perfumes(terms));
+
+        String[] queries = new String[200];
+        for (int i = 0; i < queries.length; i++) {
+            queries[i] = misspell(random, terms.get(random.nextInt(terms.size())));
+        }
+        for (int warmup = 0; warmup < 1_000; warmup++) {
+            index.corrections(SearchPerfume.BRAND, queries[warmup % queries.length]);
+        }
+        long[] latencies = new long[queries.length * 5];
+        for (int i = 0; i < latencies.length; i++) {
+            long start = System.nanoTime();
+            index.corrections(SearchPerfume.BRAND, queries[i % queries.length]);
+            latencies[i] = System.nanoTime() - start;
+        }
+        long scanStart = System.nanoTime();
+        for (String query : queries) {
+            exhaustiveScan(terms, query);
+        }
+        long scanNanos = (System.nanoTime() - scanStart) / queries.length;
+        Arrays.sort(latencies);
+        System.out.printf("PerfumeFuzzyIndex: %d terms, p50 %.1f us, p99 %.1f us, exhaustive scan %.1f us/query%n",
+                terms.size(), latencies[latencies.length / 2] / 1_000.0, latencies[latencies.length * 99 / 100] / 1_000.0,
+                scanNanos / 1_000.0);
+        assertThat(latencies[latencies.length * 99 / 100]).isLessThan(scanNanos);
+    }
+
+    private static List<String> vocabulary(Random random, int size) {
+        Set<String> vocabulary = new LinkedHashSet<>();
+        while (vocabulary.size() < size) {
+            StringBuilder term = new StringBuilder();
+            for (int syllables = 3 + random.nextInt(4); syllables > 0; syllables--) {
+                term.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+            }
+            vocabulary.add(term.toString());
+        }
+        return new ArrayList<>(vocabulary);
+    }
+
+    private static List<Perfume> perfumes(List<String> perfumers) {
+        List<Perfume> perfumes = new ArrayList<>(perfumers.size());
+        for (int i = 0; i < perfumers.size(); i++) {
+            perfumes.add(perfume((long) i, null, perfumers.get(i)));
+        }
+        return perfumes;
+    }
+
+    private static List<String> exhaustiveScan(List<String> terms, String query) {
+        int[] previous = new int[64];
+        int[] current = new int[64];
+        List<String> matches = new ArrayList<>();
+        for (String term : terms) {
+            if (PerfumeFuzzyIndex.distance(query, term, previous, current) <= PerfumeFuzzyIndex.maxDistance(query)) {
+                matches.add(term);
+            }
+        }
+        return matches;
+    }
+
+    private static String misspell(Random random, String term) {
+        StringBuilder misspelled = new StringBuilder(term);
+        for (int edits = 1 + random.nextInt(2); edits > 0; edits--) {
+            int position = random.nextInt(misspelled.length());
+            char letter = (char) ('a' + random.nextInt(26));
+            switch (random.nextInt(3)) {
+                case 0 -> misspelled.setCharAt(position, letter);
+                case 1 -> misspelled.insert(position, letter);
+                default -> misspelled.deleteCharAt(position);
+            }
+        }
+        return misspelled.toString();
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.demo.service.search;
+
+import com.example.demo.domain.Perfume;
+import com.example.demo.enums.SearchPerfume;
+import com.example.demo.repository.PerfumeRepository;
+import com.example.demo.repository.projection.PerfumeProjection;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+class PerfumeSearchIndexDatabaseTests {
+
+    private static final String[] PERFUMERS = {"Chanel", "Dior", "Guerlain", "Hugo Boss", "Versace", "Lancome", "Givenchy", "Armani"};
+    private static final String[] WORDS = {"Noir", "Blue", "Rose", "Intense", "Sport", "Eau", "Fresh", "Oud", "Night", "Gold"};
+    private static final String[] QUERIES = {"noir", "oud 9", "ch", "guer", "hugo b", "sport intense 1", "xyz"};
+
+    @Autowired
+    private PerfumeRepository perfumeRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void matchesTheLikeQueries() {
+        List<Perfume> perfumes = insertPerfumes(2_000);
+        PerfumeSearchIndex index = new PerfumeSearchIndex();
+        index.rebuild(perfumes);
+        Map<Long, Integer> prices = perfumes.stream()
+                .collect(Collectors.toMap(Perfume::getId, perfume -> perfume.getPrice() == null ? -1 : perfume.getPrice()));
+
+        for (SearchPerfume searchType : List.of(SearchPerfume.BRAND, SearchPerfume.PERFUME_TITLE)) {
+            for (String query : QUERIES) {
+                List<PerfumeProjection> expected = likeQuery(searchType, query, Pageable.unpaged()).getContent();
+                List<Long> ids = index.search(searchType, query, Pageable.unpaged()).getContent();
+
+                assertThat(ids).containsExactlyInAnyOrderElementsOf(expected.stream().map(PerfumeProjection::getId).toList());
+                assertThat(ids.stream().map(prices::get).toList())
+                        .isEqualTo(expected.stream().map(perfume -> perfume.getPrice() == null ? -1 : perfume.getPrice()).toList());
+            }
+        }
+    }
+
+    @Test
+    @Tag("benchmark")
+    void benchmarkAgainstLikeQueries() {
+        List<Perfume> perfumes = insertPerfumes(20_000);
+        PerfumeSearchIndex index = new PerfumeSearchIndex();
+        index.rebuild(perfumes);
+
+        PageRequest pageable = PageRequest.of(0, 15);
+        for (int warmup = 0; warmup < 5; warmup++) {
+            for (String query : QUERIES) {
+                index.search(SearchPerfume.PERFUME_TITLE, query, pageable);
+                likeQuery(SearchPerfume.PERFUME_TITLE, query, pageable);
+            }
+        }
+
+        int iterations = 20;
+        long indexNanos = 0;
+        long queryNanos = 0;
+        for (int i = 0; i < iterations; i++) {
+            for (String query : QUERIES) {
+                long start = System.nanoTime();
+                Page<Long> page = index.search(SearchPerfume.PERFUME_TITLE, query, pageable);
+                indexNanos += System.nanoTime() - start;
+
+                start = System.nanoTime();
+                Page<PerfumeProjection> expected = likeQuery(SearchPerfume.PERFUME_TITLE, query, pageable);
+                queryNanos += System.nanoTime() - start;
+
+                assertThat(page.getTotalElements()).isEqualTo(expected.getTotalElements());
+            }
+        }
+        int searches = iterations * QUERIES.length;
+        System.out.printf("PerfumeSearchIndex: %d rows, trigram index %.1f us/search, LIKE query page + count %.1f us/search%n",
+                perfumes.size(), indexNanos / 1_000.0 / searches, queryNanos / 1_000.0 / searches);
+        assertThat(indexNanos).isLessThan(queryNanos);
+    }
+
+    private Page<PerfumeProjection> likeQuery(SearchPerfume searchType, String text, Pageable pageable) {
+        return searchType == SearchPerfume.BRAND
+                ? perfumeRepository.findByPerfumer(text, pageable)
+                : perfumeRepository.findByPerfumeTitle(text, pageable);
+    }
+
+    private List<Perfume> insertPerfumes(int rows) {
+        Random random = new Random(42);
+        jdbcTemplate.batchUpdate("INSERT INTO perfume (id, perfume_title, perfumer, price) VALUES (?, ?, ?, ?)",
+                IntStream.rangeClosed(1, rows).boxed().toList(), 1_000, (statement, i) -> {
+                    statement.setLong(1, 2_000_000L + i);
+                    statement.setString(2, WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)] + " " + i);
+                    statement.setString(3, PERFUMERS[random.nextInt(PERFUMERS.length)]);
+                    statement.setInt(4, random.nextInt(300));
+                });
+        List<Perfume> perfumes = perfumeRepository.findAll();
+        entityManager.clear();
+        return perfumes;
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.demo.service.search;
+
+import com.example.demo.domain.Perfume;
+import com.example.demo.enums.SearchPerfume;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import static com.example.demo.service.search.PerfumeFixtures.perfume;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PerfumeSearchIndexTests {
+
+    private static final String[] PERFUMERS = {"Chanel", "Dior", "Guerlain", "Hugo Boss", "Versace", "Lancome", "Givenchy", "Armani"};
+    private static final String[] COUNTRIES = {"France", "Italy", "Germany", "USA", "Spain"};
+    private static final String[] WORDS = {"Noir", "Blue", "Rose", "Intense", "Sport", "Eau", "Fresh", "Oud", "Night", "Gold"};
+
+    @Test
+    void findsSubstringsIgnoringCaseOrderedByPriceDesc() {
+        PerfumeSearchIndex index = new PerfumeSearchIndex();
+        index.rebuild(List.of(
+                perfume(1L, "Boss Bottled", "Hugo Boss", "Germany", 40),
+                perfume(2L, "Hugo Man", "Hugo Boss", "Germany", 21),
+                perfume(3L, "Sauvage", "Dior", "France", 90)));
+
+        Page<Long> page = index.search(SearchPerfume.BRAND, "boss", PageRequest.of(0, 15));
+
+        assertThat(page.getContent()).containsExactly(1L, 2L);
+        assertThat(page.getTotalElements()).isEqualTo(2);
+        assertThat(index.search(SearchPerfume.COUNTRY, "an", PageRequest.of(0, 15)).getContent()).containsExactly(3L, 1L, 2L);
+        assertThat(index.search(SearchPerfume.PERFUME_TITLE, "xyz", PageRequest.of(0, 15)).getContent()).isEmpty();
+    }
+
+    @Test
+    void appliesIncrementalUpdatesAndDeletes() {
+        PerfumeSearchIndex index = new PerfumeSearchIndex();
+        index.rebuild(List.of(perfume(1L, "Hugo Man", "Hugo Boss", "Germany", 21)));
+
+        index.index(perfume(1L, "Sauvage", "Dior", "France", 90));
+        index.index(perfume(2L, "Boss Woman", "Hugo Boss", "Germany", 26));
+
+        assertThat(index.search(SearchPerfume.BRAND, "Hugo", PageRequest.of(0, 15)).getContent()).containsExactly(2L);
+        assertThat(index.search(SearchPerfume.BRAND, "Dior", PageRequest.of(0, 15)).getContent()).containsExactly(1L);
+
+        index.remove(2L);
+
+        assertThat(index.search(SearchPerfume.BRAND, "Hugo", PageRequest.of(0, 15)).getContent()).isEmpty();
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    @Test
+    void pagesThroughMatches() {
+        PerfumeSearchIndex index = new PerfumeSearchIndex();
+        List<Perfume> perfumes = new ArrayList<>();
+        for (long id = 1; id <= 40; id++) {
+            perfumes.add(perfume(id, "Title " + id, "Chanel", "France", (int) id));
+        }
+        index.rebuild(perfumes);
+
+        Page<Long> page = index.search(SearchPerfume.BRAND, "chanel", PageRequest.of(1, 15));
+
+        assertThat(page.getTotalElements()).isEqualTo(40);
+        assertThat(page.getTotalPages()).isEqualTo(3);
+        assertThat(page.getContent()).hasSize(15).first().isEqualTo(25L);
+    }
+
+    @Test
+    void matchesASequentialScan() {
+        int rows = 20_000;
+        Random random = new Random(42);
+        List<Perfume> perfumes = new ArrayList<>(rows);
+        for (long id = 1; id <= rows; id++) {
+            String title = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)] + " " + id;
+            perfumes.add(perfume(id, title, PERFUMERS[random.nextInt(PERFUMERS.length)],
+                    COUNTRIES[random.nextInt(COUNTRIES.length)], random.nextInt(300)));
+        }
+        PerfumeSearchIndex index = new PerfumeSearchIndex();
+        index.rebuild(perfumes);
+
+        for (String query : new String[]{"4242", "noir", "oud 9", "guer", "ita", "sport intense 1", "xyz"}) {
+            assertThat(index.search(SearchPerfume.PERFUME_TITLE, query, PageRequest.of(0, 15)).getContent())
+                    .isEqualTo(likeScan(perfumes, query));
+        }
+    }
+
+    private static List<Long> likeScan(List<Perfume> perfumes, String text) {
+        String query = text.toUpperCase(Locale.ROOT);
+        return perfumes.stream()
+                .filter(perfume -> perfume.getPerfumeTitle().toUpperCase(Locale.ROOT).contains(query))
+                .sorted(Comparator.comparing(Perfume::getPrice, Comparator.reverseOrder()).thenComparing(Perfume::getId))
+                .limit(15)
+                .map(Perfume::getId)
+                .toList();
+    }
+}
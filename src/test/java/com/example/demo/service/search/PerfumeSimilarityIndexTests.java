@@ -0,0 +1,137 @@
+package com.example.demo.service.search;
+
+import com.example.demo.domain.Perfume;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static com.example.demo.service.search.PerfumeFixtures.perfumeWithNotes;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PerfumeSimilarityIndexTests {
+
+    private static final int ROWS = 100_000;
+    private static final long P99_BUDGET_NANOS = 5_000_000;
+
+    @Test
+    void ranksPerfumesBySharedNotes() {
+        PerfumeSimilarityIndex index = new PerfumeSimilarityIndex();
+        index.rebuild(List.of(
+                perfumeWithNotes(1L, "Bergamot, Lemon", "Lavender, Rose", "Vanilla, Musk"),
+                perfumeWithNotes(2L, "bergamot, lemon", "lavender, rose", "vanilla, musk"),
+                perfumeWithNotes(3L, "Bergamot, Lemon", "Lavender, Rose", "Vanilla, Amber"),
+                perfumeWithNotes(4L, "Pear, Ginger", "Freesia", "Leather"),
+                perfumeWithNotes(5L, null, null, null)));
+
+        assertThat(index.similar(1L, 10)).startsWith(2L, 3L).doesNotContain(1L, 4L, 5L);
+        assertThat(index.similar(1L, 1)).containsExactly(2L);
+        assertThat(index.similar(5L, 10)).isEmpty();
+        assertThat(index.contains(5L)).isTrue();
+        assertThat(index.contains(6L)).isFalse();
+    }
+
+    @Test
+    void movesPerfumeBetweenBucketsOnUpdate() {
+        PerfumeSimilarityIndex index = new PerfumeSimilarityIndex();
+        index.rebuild(List.of(
+                perfumeWithNotes(1L, "Bergamot, Lemon", "Lavender, Rose", "Vanilla, Musk"),
+                perfumeWithNotes(2L, "Pear, Ginger", "Freesia, Violet", "Leather, Cedar"),
+                perfumeWithNotes(3L, "Bergamot, Lemon", "Lavender, Rose", "Vanilla, Musk")));
+
+        index.index(perfumeWithNotes(3L, "Pear, Ginger", "Freesia, Violet", "Leather, Cedar"));
+
+        assertThat(index.similar(1L, 10)).isEmpty();
+        assertThat(index.similar(2L, 10)).containsExactly(3L);
+
+        index.remove(3L);
+
+        assertThat(index.similar(2L, 10)).isEmpty();
+        assertThat(index.contains(3L)).isFalse();
+    }
+
+    @Test
+    void recallsTheExhaustiveTopTen() {
+        Random random = new Random(42);
+        List<Perfume> perfumes = randomPerfumes(random, ROWS);
+        PerfumeSimilarityIndex index = new PerfumeSimilarityIndex();
+        index.rebuild(perfumes);
+
+        Map<Long, long[]> notes = perfumes.stream().collect(Collectors.toMap(Perfume::getId, PerfumeSimilarityIndex::notes));
+        int queries = 50;
+        double recall = 0;
+        for (int i = 0; i < queries; i++) {
+            long perfumeId = 1L + random.nextInt(ROWS);
+            recall += recall(notes, perfumeId, index.similar(perfumeId, 10));
+        }
+        assertThat(recall / queries).isGreaterThan(0.9);
+    }
+
+    @Test
+    @Tag("benchmark")
+    void benchmarkLatencyPercentiles() {
+        Random random = new Random(42);
+        PerfumeSimilarityIndex index = new PerfumeSimilarityIndex();
+        index.rebuild(randomPerfumes(random, ROWS));
+
+        for (int warmup = 0; warmup < 5_000; warmup++) {
+            index.similar(1L + random.nextInt(ROWS), 10);
+        }
+        long[] latencies = new long[10_000];
+        for (int i = 0; i < latencies.length; i++) {
+            long perfumeId = 1L + random.nextInt(ROWS);
+            long start = System.nanoTime();
+            index.similar(perfumeId, 10);
+            latencies[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(latencies);
+        System.out.printf("PerfumeSimilarityIndex: %d rows, p50 %.1f us, p99 %.1f us%n",
+                ROWS, latencies[latencies.length / 2] / 1_000.0, latencies[latencies.length * 99 / 100] / 1_000.0);
+        assertThat(latencies[latencies.length * 99 / 100]).isLessThan(P99_BUDGET_NANOS);
+    }
+
+    private static List<Perfume> randomPerfumes(Random random, int rows) {
+        List<String> vocabulary = new ArrayList<>();
+        for (int i = 0; i < 400; i++) {
+            vocabulary.add("note " + i);
+        }
+        List<List<String>> accords = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            accords.add(randomNotes(random, vocabulary, 9));
+        }
+        List<Perfume> perfumes = new ArrayList<>(rows);
+        for (long id = 1; id <= rows; id++) {
+            List<String> notes = new ArrayList<>(accords.get(random.nextInt(accords.size())));
+            for (int swap = random.nextInt(4); swap > 0; swap--) {
+                notes.set(random.nextInt(notes.size()), vocabulary.get(random.nextInt(vocabulary.size())));
+            }
+            perfumes.add(perfumeWithNotes(id, String.join(", ", notes.subList(0, 3)), String.join(", ", notes.subList(3, 6)),
+                    String.join(", ", notes.subList(6, 9))));
+        }
+        return perfumes;
+    }
+
+    // Compares the summed similarity of the returned perfumes with that of the exhaustive top 10, so ties do not count as misses.
+    private static double recall(Map<Long, long[]> notes, long perfumeId, List<Long> similar) {
+        long[] target = notes.get(perfumeId);
+        double expected = notes.entrySet().stream()
+                .filter(entry -> entry.getKey() != perfumeId)
+                .mapToDouble(entry -> PerfumeSimilarityIndex.jaccard(target, entry.getValue()))
+                .boxed()
+                .sorted(Comparator.reverseOrder())
+                .limit(10)
+                .mapToDouble(Double::doubleValue)
+                .sum();
+        double actual = similar.stream().mapToDouble(id -> PerfumeSimilarityIndex.jaccard(target, notes.get(id))).sum();
+        return expected == 0 ? 1 : actual / expected;
+    }
+
+    private static List<String> randomNotes(Random random, List<String> vocabulary, int count) {
+        Set<String> notes = new LinkedHashSet<>();
+        while (notes.size() < count) {
+            notes.add(vocabulary.get(random.nextInt(vocabulary.size())));
+        }
+        return new ArrayList<>(notes);
+    }
+}
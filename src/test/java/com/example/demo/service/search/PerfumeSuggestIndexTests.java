@@ -0,0 +1,90 @@
+package com.example.demo.service.search;
+
+import com.example.demo.domain.Perfume;
+import com.example.demo.enums.SearchPerfume;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static com.example.demo.service.search.PerfumeFixtures.perfume;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PerfumeSuggestIndexTests {
+
+    private static final String[] PERFUMERS = {"Chanel", "Dior", "Guerlain", "Hugo Boss", "Versace", "Lancome", "Givenchy", "Armani"};
+    private static final String[] WORDS = {"Noir", "Blue", "Rose", "Intense", "Sport", "Eau", "Fresh", "Oud", "Night", "Gold"};
+    private static final long P99_BUDGET_NANOS = 5_000_000;
+
+    @Test
+    void suggestsTitlesAndPerfumersByPrefixRankedByPerfumesCount() {
+        PerfumeSuggestIndex index = new PerfumeSuggestIndex();
+        index.rebuild(List.of(
+                perfume(1L, "Boss Bottled", "Hugo Boss"),
+                perfume(2L, "Hugo Man", "Hugo Boss"),
+                perfume(3L, "Homme Intense", "Dior"),
+                perfume(4L, "Hypnotic Poison", "Dior"),
+                perfume(5L, "Dior Homme", "Dior")));
+
+        List<PerfumeSuggestion> suggestions = index.suggest("h", 10);
+
+        assertThat(suggestions).extracting(PerfumeSuggestion::getText)
+                .containsExactly("Hugo Boss", "Hugo Man", "Dior Homme", "Homme Intense", "Hypnotic Poison");
+        assertThat(suggestions.get(0).getType()).isEqualTo(SearchPerfume.BRAND);
+        assertThat(suggestions.get(0).getPerfumesCount()).isEqualTo(2);
+        assertThat(index.suggest("DIOR", 10)).extracting(PerfumeSuggestion::getText).containsExactly("Dior", "Dior Homme");
+        assertThat(index.suggest("int", 10)).extracting(PerfumeSuggestion::getText).containsExactly("Homme Intense");
+        assertThat(index.suggest("h", 2)).extracting(PerfumeSuggestion::getText).containsExactly("Hugo Boss", "Hugo Man");
+        assertThat(index.suggest(" ", 10)).isEmpty();
+        assertThat(index.suggest("xyz", 10)).isEmpty();
+    }
+
+    @Test
+    void appliesIncrementalUpdatesAndDeletes() {
+        PerfumeSuggestIndex index = new PerfumeSuggestIndex();
+        index.rebuild(List.of(perfume(1L, "Hugo Man", "Hugo Boss")));
+
+        index.index(perfume(1L, "Sauvage", "Dior"));
+        index.index(perfume(2L, "Boss Woman", "Hugo Boss"));
+
+        assertThat(index.suggest("sau", 10)).extracting(PerfumeSuggestion::getText).containsExactly("Sauvage");
+        assertThat(index.suggest("hugo", 10)).extracting(PerfumeSuggestion::getText).containsExactly("Hugo Boss");
+
+        index.remove(2L);
+
+        assertThat(index.suggest("boss", 10)).isEmpty();
+    }
+
+    @Test
+    @Tag("benchmark")
+    void benchmarkLatencyPercentiles() {
+        int rows = 100_000;
+        Random random = new Random(42);
+        List<Perfume> perfumes = new ArrayList<>(rows);
+        for (long id = 1; id <= rows; id++) {
+            String title = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)] + " " + id;
+            perfumes.add(perfume(id, title, PERFUMERS[random.nextInt(PERFUMERS.length)] + " " + random.nextInt(500)));
+        }
+        PerfumeSuggestIndex index = new PerfumeSuggestIndex();
+        index.rebuild(perfumes);
+
+        String[] prefixes = {"n", "no", "noi", "noir b", "g", "gue", "hugo 4", "1", "42", "999", "oud n", "x"};
+        for (int warmup = 0; warmup < 2_000; warmup++) {
+            index.suggest(prefixes[warmup % prefixes.length], 10);
+        }
+        long[] latencies = new long[12_000];
+        for (int i = 0; i < latencies.length; i++) {
+            long start = System.nanoTime();
+            index.suggest(prefixes[i % prefixes.length], 10);
+            latencies[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(latencies);
+        System.out.printf("PerfumeSuggestIndex: %d rows, p50 %.1f us, p99 %.1f us, max %.1f us%n",
+                rows, latencies[latencies.length / 2] / 1_000.0, latencies[latencies.length * 99 / 100] / 1_000.0,
+                latencies[latencies.length - 1] / 1_000.0);
+        assertThat(latencies[latencies.length * 99 / 100]).isLessThan(P99_BUDGET_NANOS);
+    }
+}